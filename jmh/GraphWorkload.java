@@ -0,0 +1,104 @@
+import benchmark.Workload;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The benchmark operations on Graph, LSA / LSB files and DijkstraAlgorithm.
+ */
+public class GraphWorkload implements Workload {
+
+    private static final int MAX_DISTANCE = 100;
+
+    private Random random;
+    private Graph graph;
+    private String[] names;
+    private int degree;
+    private Path textFile;
+    private Path binaryFile;
+
+    @Override
+    public void setUp(int nodes, int degree, long seed) throws IOException {
+        this.random = new Random(seed);
+        this.degree = degree;
+        // Barabasi-Albert links each new node to degree / 2 nodes, for an average degree of about degree
+        graph = TopologyGenerator.barabasiAlbert(nodes, Math.max(1, degree / 2))
+                .toGraph(TopologyGenerator.Weights.uniform(1, MAX_DISTANCE), seed);
+        names = new String[nodes];
+        for (int i = 0; i < nodes; i++) {
+            names[i] = TopologyGenerator.nodeName(i);
+        }
+
+        textFile = Files.createTempFile("benchmark", ".lsa");
+        binaryFile = Files.createTempFile("benchmark", LsbFormat.EXTENSION);
+        try (Writer writer = Files.newBufferedWriter(textFile, StandardCharsets.UTF_8)) {
+            graph.writeTo(writer);
+        }
+        LsbFormat.write(graph, binaryFile);
+    }
+
+    @Override
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(textFile);
+        Files.deleteIfExists(binaryFile);
+    }
+
+    @Override
+    public Object readText() throws IOException {
+        return Graph.fromFile(textFile.toString());
+    }
+
+    @Override
+    public Object readBinary() throws IOException {
+        return LsbFormat.read(binaryFile);
+    }
+
+    @Override
+    public Object writeText() {
+        return graph.toString();
+    }
+
+    @Override
+    public int churn() {
+        String node = randomNode();
+        graph.removeNode(node);
+        graph.addNode(node);
+        for (int i = 0; i < degree; i++) {
+            graph.setEdge(node, randomNode(), randomDistance());
+        }
+        return degree;
+    }
+
+    @Override
+    public int iterate() {
+        int steps = 0;
+        for (VisitedNodeInfo info : new DijkstraAlgorithm(graph, randomNode())) {
+            if (info.getNewVisitedNode() != null) steps++;
+        }
+        return steps;
+    }
+
+    @Override
+    public int chains() {
+        VisitedNodeInfo result = new DijkstraAlgorithm(graph, randomNode()).computeFinalResult();
+        int length = 0;
+        for (String node : names) {
+            List<String> chain = result.getChain(node);
+            length += chain.size();
+        }
+        return length;
+    }
+
+    private String randomNode() {
+        return names[random.nextInt(names.length)];
+    }
+
+    private int randomDistance() {
+        return 1 + random.nextInt(MAX_DISTANCE);
+    }
+}
@@ -0,0 +1,47 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of DijkstraAlgorithm and VisitedNodeInfo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DijkstraBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int nodes;
+
+    @Param({"4", "16"})
+    public int degree;
+
+    private Workload workload;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workload = Workload.load("GraphWorkload");
+        workload.setUp(nodes, degree, 4322);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        workload.tearDown();
+    }
+
+    @Benchmark
+    public int iterate() {
+        return workload.iterate();
+    }
+
+    @Benchmark
+    public int getChain() {
+        return workload.chains();
+    }
+}
@@ -0,0 +1,78 @@
+package benchmark;
+
+import java.io.IOException;
+
+/**
+ * Operations measured by the benchmarks.
+ * <p>
+ * JMH does not accept benchmarks in the default package, and classes of a named package cannot
+ * refer to the simulator classes in the default package. The operations are therefore implemented
+ * by a class in the default package, which is loaded by name once per trial (See #load), and the
+ * benchmarks only call this interface.
+ */
+public interface Workload {
+
+    /**
+     * Generate a random connected topology and write it in LSA and LSB formats into temporary files.
+     *
+     * @param nodes  number of nodes
+     * @param degree average number of links per node
+     * @param seed   seed of the random topology
+     */
+    void setUp(int nodes, int degree, long seed) throws IOException;
+
+    /**
+     * Delete the temporary files.
+     */
+    void tearDown() throws IOException;
+
+    /**
+     * @return a graph read by Graph.fromFile
+     */
+    Object readText() throws IOException;
+
+    /**
+     * @return a graph read in LSB format
+     */
+    Object readBinary() throws IOException;
+
+    /**
+     * @return the graph in LSA format, by Graph.toString
+     */
+    Object writeText();
+
+    /**
+     * Remove a random node, then add it back with as many random links, keeping the size of the graph.
+     *
+     * @return the number of links added
+     */
+    int churn();
+
+    /**
+     * Iterate DijkstraAlgorithm step by step from a random source node.
+     *
+     * @return the number of steps
+     */
+    int iterate();
+
+    /**
+     * Compute the final result from a random source node and get the chain of every node.
+     *
+     * @return the total length of the chains
+     */
+    int chains();
+
+    /**
+     * Create the workload implemented by a class of the default package.
+     *
+     * @param className name of the class
+     * @return a new workload
+     */
+    static Workload load(String className) {
+        try {
+            return (Workload) Class.forName(className).getConstructor().newInstance();
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Workload " + className + " cannot be created.", ex);
+        }
+    }
+}
@@ -5,11 +5,18 @@ public class Application {
 
     /**
      * The entry point of the application
+     * Without arguments the graphical user interface is shown, otherwise the batch mode is run (See BatchMode)
      *
      * @param args Command line arguments
      */
     public static void main(String[] args) {
+        if (args.length > 0) {
+            int status = BatchMode.run(args, System.out, System.err);
+            if (status != 0) System.exit(status);
+            return;
+        }
+
         MainView view = new MainView();
         view.init();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,217 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Headless mode of the application, which computes routing tables from the command line.
+ * <p>
+ * It only uses the graph and routing classes, so no AWT or Swing class is ever loaded.
+ * Sources are computed in blocks, and each block is written out before the next one is
+ * computed, so the memory use does not grow with the number of sources. The number of sources
+ * of a block is bounded by a memory budget for its tables, as each table holds a distance and a
+ * next hop per node of the graph, up to 8 bytes per node. An output file is written aside and
+ * moved into place once complete, so a failed run never leaves a truncated file.
+ * <pre>
+ * Usage: java -jar LSR-sim.jar FILE [options]
+ *   -s, --source NAME[,NAME...]  Source routers, may be repeated (default: all routers)
+ *   -t, --threads N              Number of threads (default: number of processors)
+ *   -f, --format text|csv        Output format (default: text)
+ *   -o, --output FILE            Output file (default: standard output)
+ * </pre>
+ */
+public class BatchMode {
+
+    private static final String USAGE = "Usage: java -jar LSR-sim.jar FILE [-s NAME[,NAME...]] [-t THREADS] "
+            + "[-f text|csv] [-o OUTPUT]";
+
+    /**
+     * Number of sources computed before their tables are written, per thread
+     */
+    private static final int BLOCK_SIZE_PER_THREAD = 64;
+
+    /**
+     * Memory budget of the routing tables of a block, in bytes
+     */
+    private static final long BLOCK_MEMORY_BUDGET = 64L << 20;
+
+    private String inputFile;
+    private final List<String> sources = new ArrayList<>();
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean csv;
+    private String outputFile;
+
+    /**
+     * Run the batch mode
+     *
+     * @param args Command line arguments
+     * @param out  the standard output
+     * @param err  the standard error, receiving the error messages
+     * @return the exit status, 0 if successful; 1 if the files cannot be read or written; 2 if the arguments are invalid
+     */
+    public static int run(String[] args, PrintStream out, PrintStream err) {
+        BatchMode batch = new BatchMode();
+        try {
+            batch.parseArguments(args);
+        } catch (IllegalArgumentException ex) {
+            err.println(ex.getMessage());
+            err.println(USAGE);
+            return 2;
+        }
+
+        try {
+            // The tables are only computed on a snapshot, so a binary file is decoded straight into one
+            GraphSnapshot graph = LsbFormat.matches(batch.inputFile)
+                    ? LsbFormat.readSnapshot(Paths.get(batch.inputFile))
+                    : LsaParser.parse(Paths.get(batch.inputFile), batch.threads).snapshot();
+            if (batch.outputFile == null) {
+                batch.writeTables(graph, out);
+            } else {
+                batch.writeTables(graph, Paths.get(batch.outputFile));
+            }
+            return 0;
+        } catch (IllegalArgumentException ex) {
+            err.println(ex.getMessage());
+            return 2;
+        } catch (IOException ex) {
+            err.println(ex.getMessage());
+            return 1;
+        }
+    }
+
+    private void parseArguments(String[] args) throws IllegalArgumentException {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("-")) {
+                if (inputFile != null) throw new IllegalArgumentException("Only one input file is allowed.");
+                inputFile = arg;
+                continue;
+            }
+            if (i + 1 == args.length) throw new IllegalArgumentException("Option " + arg + " requires a value.");
+            String value = args[++i];
+            switch (arg) {
+                case "-s":
+                case "--source":
+                    sources.addAll(Arrays.asList(value.split(",")));
+                    break;
+                case "-t":
+                case "--threads":
+                    try {
+                        threads = Integer.parseInt(value);
+                    } catch (NumberFormatException ex) {
+                        threads = 0;
+                    }
+                    if (threads < 1) throw new IllegalArgumentException("Number of threads must be positive.");
+                    break;
+                case "-f":
+                case "--format":
+                    if (!value.equals("text") && !value.equals("csv")) {
+                        throw new IllegalArgumentException("Unknown format " + value + ".");
+                    }
+                    csv = value.equals("csv");
+                    break;
+                case "-o":
+                case "--output":
+                    outputFile = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + arg + ".");
+            }
+        }
+        if (inputFile == null) throw new IllegalArgumentException("Input file is missing.");
+    }
+
+    /**
+     * Write the routing tables into a temporary file next to the output file, then replace the output file.
+     */
+    private void writeTables(GraphSnapshot graph, Path outputFile) throws IOException, IllegalArgumentException {
+        Path target = outputFile.toAbsolutePath();
+        Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream file = Files.newOutputStream(temporary)) {
+                writeTables(graph, file);
+            }
+            try {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Get the number of sources computed in a block
+     *
+     * @param nodeCount number of nodes of the graph
+     * @param threads   number of threads
+     * @return the number of sources, as many as the memory budget allows, up to BLOCK_SIZE_PER_THREAD per thread.
+     */
+    static int blockSize(int nodeCount, int threads) {
+        // A table holds a distance and a next hop per node, packed in at most 8 bytes
+        long tableBytes = 2L * Integer.BYTES * Math.max(1, nodeCount);
+        long budgetRows = Math.max(1, BLOCK_MEMORY_BUDGET / tableBytes);
+        return (int) Math.min(budgetRows, (long) threads * BLOCK_SIZE_PER_THREAD);
+    }
+
+    /**
+     * Compute the routing tables block by block, and write each block once it is computed.
+     */
+    private void writeTables(GraphSnapshot snapshot, OutputStream output) throws IOException, IllegalArgumentException {
+
+        // Destinations and default sources in order of name
+        Integer[] sorted = new Integer[snapshot.size()];
+        int nodeCount = 0;
+        for (int node = 0; node < snapshot.size(); node++) {
+            if (snapshot.getName(node) != null) sorted[nodeCount++] = node;
+        }
+        Arrays.sort(sorted, 0, nodeCount, Comparator.comparing(snapshot::getName));
+        int[] nodes = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            nodes[i] = sorted[i];
+        }
+
+        int[] sourceNodes = nodes;
+        if (!sources.isEmpty()) {
+            sourceNodes = new int[sources.size()];
+            for (int i = 0; i < sourceNodes.length; i++) {
+                sourceNodes[i] = snapshot.indexOf(sources.get(i));
+                if (sourceNodes[i] < 0) {
+                    throw new IllegalArgumentException("Source node " + sources.get(i) + " does not exist in graph.");
+                }
+            }
+        }
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 1 << 16);
+        if (csv) writer.write("source,destination,next_hop,cost\n");
+
+        int blockSize = blockSize(snapshot.size(), threads);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (int start = 0; start < sourceNodes.length; start += blockSize) {
+                int[] block = Arrays.copyOfRange(sourceNodes, start, Math.min(sourceNodes.length, start + blockSize));
+                RoutingTable table = RoutingTable.compute(snapshot, block, pool, IndexedDaryHeap::new);
+                for (int row = 0; row < block.length; row++) {
+                    table.writeRow(writer, row, nodes, csv);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        writer.flush();
+    }
+}
@@ -0,0 +1,147 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A monotone bucket queue (Dial's algorithm) for small non-negative integer priorities.
+ * <p>
+ * Nodes are kept in a circular array of buckets, one bucket per distance, each bucket being an
+ * intrusive doubly linked list so that insert and decrease-key are O(1). Poll walks forward from
+ * the last polled distance, which is efficient as long as link distances are small, like the
+ * ones of a typical LSA file. The circular array is enlarged when a priority falls outside of it.
+ * <p>
+ * As required by Dijkstra's algorithm, priorities offered must never be lower than the priority
+ * of the last polled node.
+ */
+public class BucketQueue implements Frontier {
+
+    private static final int INITIAL_BUCKETS = 16;
+
+    private final int[] priority;
+    private final int[] next;
+    private final int[] prev;
+    private final boolean[] queued;
+    private int[] buckets;
+    private int mask;
+    private int base;
+    private int size;
+
+    /**
+     * Create a bucket queue
+     *
+     * @param capacity number of nodes, all node indexes must be lower than it
+     */
+    public BucketQueue(int capacity) {
+        priority = new int[capacity];
+        next = new int[capacity];
+        prev = new int[capacity];
+        queued = new boolean[capacity];
+        buckets = new int[INITIAL_BUCKETS];
+        mask = INITIAL_BUCKETS - 1;
+        Arrays.fill(buckets, -1);
+    }
+
+    /**
+     * Insert a node, or lower its priority if it is already in the queue.
+     *
+     * @param node     index of the node
+     * @param priority tentative distance of the node
+     * @return True if the node is inserted or its priority is lowered; False if it already has a lower or equal priority.
+     * @throws IllegalArgumentException Exception throws when priority is lower than the last polled priority
+     */
+    @Override
+    public boolean offer(int node, int priority) throws IllegalArgumentException {
+        if (priority < base) {
+            throw new IllegalArgumentException("Priority is lower than the last polled priority.");
+        }
+        if (queued[node]) {
+            if (this.priority[node] <= priority) return false;
+            unlink(node);
+        } else {
+            queued[node] = true;
+            size++;
+        }
+        if (priority - base > mask) grow(priority - base);
+        this.priority[node] = priority;
+        link(node);
+        return true;
+    }
+
+    @Override
+    public int poll() {
+        if (size == 0) throw new NoSuchElementException("Frontier is empty.");
+
+        // Every priority lies in [base, base + mask], so the first non-empty bucket holds the minimum
+        while (buckets[base & mask] < 0) base++;
+
+        int node = buckets[base & mask];
+        unlink(node);
+        queued[node] = false;
+        size--;
+        return node;
+    }
+
+    @Override
+    public boolean contains(int node) {
+        return queued[node];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        if (size > 0) {
+            for (int i = 0; i < buckets.length; i++) {
+                for (int node = buckets[i]; node >= 0; node = next[node]) {
+                    queued[node] = false;
+                }
+                buckets[i] = -1;
+            }
+            size = 0;
+        }
+        base = 0;
+    }
+
+    private void link(int node) {
+        int bucket = priority[node] & mask;
+        int head = buckets[bucket];
+        prev[node] = -1;
+        next[node] = head;
+        if (head >= 0) prev[head] = node;
+        buckets[bucket] = node;
+    }
+
+    private void unlink(int node) {
+        if (prev[node] >= 0) {
+            next[prev[node]] = next[node];
+        } else {
+            buckets[priority[node] & mask] = next[node];
+        }
+        if (next[node] >= 0) prev[next[node]] = prev[node];
+    }
+
+    /**
+     * Enlarge the circular array so that it covers a priority span, and redistribute the nodes.
+     */
+    private void grow(int span) {
+        int[] oldBuckets = buckets;
+        int oldMask = mask;
+
+        int length = oldBuckets.length;
+        while (length - 1 < span) length <<= 1;
+        buckets = new int[length];
+        mask = length - 1;
+        Arrays.fill(buckets, -1);
+
+        for (int i = 0; i <= oldMask; i++) {
+            int node = oldBuckets[i];
+            while (node >= 0) {
+                int following = next[node];
+                link(node);
+                node = following;
+            }
+        }
+    }
+}
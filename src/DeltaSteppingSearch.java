@@ -0,0 +1,439 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * A parallel single source shortest path search over a GraphSnapshot, by delta-stepping.
+ * <p>
+ * Tentative distances are kept in buckets of width delta. The lowest bucket is settled in phases:
+ * the light links (distance up to delta) of its nodes are relaxed in parallel, which may put
+ * nodes back into the same bucket, until the bucket stays empty. The heavy links of all nodes
+ * settled by the bucket are then relaxed once. A relaxation lowers the distance of a node with a
+ * compare-and-set, so the threads of a phase never lock. Delta is picked from the link distances
+ * (See chooseDelta) unless given.
+ * <p>
+ * Parents are found once the distances are final: the parent of a node is its linked node on a
+ * shortest path with the lowest distance, which is the one Dijkstra's algorithm keeps too, so the
+ * chains are the same as DijkstraAlgorithm's unless several such nodes have the same distance.
+ * <p>
+ * A search can be run again for another source node. It is not thread safe.
+ */
+public class DeltaSteppingSearch {
+
+    private static final VarHandle DISTANCE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    /**
+     * Nodes relaxed by a phase below which the phase is run by the calling thread
+     */
+    private static final int PARALLEL_THRESHOLD = 1024;
+
+    /**
+     * Number of tasks per thread of the pool, so that threads finishing early take more work
+     */
+    private static final int TASKS_PER_THREAD = 4;
+
+    private final GraphSnapshot graph;
+    private final ForkJoinPool pool;
+    private final int delta;
+
+    private final int[] distance;
+    private final int[] parent;
+
+    /**
+     * The bucket each node is queued in, -1 if not queued, and the last bucket which settled it
+     */
+    private final int[] queuedIn;
+    private final int[] settledIn;
+
+    /**
+     * Circular array of buckets, large enough to hold all buckets between the lowest one and the
+     * farthest distance a relaxation can reach from it
+     */
+    private final int[][] buckets;
+    private final int[] bucketSizes;
+    private int queuedCount;
+
+    private final int[] frontier;
+    private final int[] settled;
+    private final Output[] outputs;
+    private int sourceNode = -1;
+
+    /**
+     * Create a search over a graph snapshot, with delta picked from the link distances
+     *
+     * @param graph the graph snapshot
+     * @param pool  the pool running the relaxations
+     */
+    public DeltaSteppingSearch(GraphSnapshot graph, ForkJoinPool pool) {
+        this(graph, pool, chooseDelta(graph));
+    }
+
+    /**
+     * Create a search over a graph snapshot
+     *
+     * @param graph the graph snapshot
+     * @param pool  the pool running the relaxations
+     * @param delta the width of a bucket
+     * @throws IllegalArgumentException Exception throws when delta is not positive
+     */
+    public DeltaSteppingSearch(GraphSnapshot graph, ForkJoinPool pool, int delta) throws IllegalArgumentException {
+        if (delta <= 0) throw new IllegalArgumentException("Delta must be positive.");
+        this.graph = graph;
+        this.pool = pool;
+        this.delta = delta;
+
+        distance = new int[graph.size()];
+        parent = new int[graph.size()];
+        queuedIn = new int[graph.size()];
+        settledIn = new int[graph.size()];
+        frontier = new int[graph.size()];
+        settled = new int[graph.size()];
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        Arrays.fill(parent, -1);
+
+        buckets = new int[graph.getMaxDistance() / delta + 2][];
+        bucketSizes = new int[buckets.length];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new int[16];
+        }
+        outputs = new Output[pool.getParallelism() * TASKS_PER_THREAD];
+        for (int i = 0; i < outputs.length; i++) {
+            outputs[i] = new Output();
+        }
+    }
+
+    /**
+     * Pick the width of a bucket from the link distances.
+     * <p>
+     * The width is the mean link distance, so that about half of the links are light: a narrower
+     * bucket needs more phases, a wider one puts more nodes back into the bucket they are settled in.
+     *
+     * @param graph the graph snapshot
+     * @return the width, at least 1
+     */
+    public static int chooseDelta(GraphSnapshot graph) {
+        int slots = graph.getEdgeSlotCount();
+        if (slots == 0) return 1;
+        long total = 0;
+        for (int edge = 0; edge < slots; edge++) {
+            total += graph.edgeDistance(edge);
+        }
+        return (int) Math.max(1, Math.round((double) total / slots));
+    }
+
+    /**
+     * Compute the shortest paths from a source node
+     *
+     * @param graph       the graph snapshot
+     * @param sourceNode  the source node
+     * @param parallelism number of threads to be used
+     * @return the finished search
+     * @throws IllegalArgumentException Exception throws when source node does not exist in graph
+     */
+    public static DeltaSteppingSearch compute(GraphSnapshot graph, String sourceNode, int parallelism)
+            throws IllegalArgumentException {
+        int source = graph.indexOf(sourceNode);
+        if (source < 0) throw new IllegalArgumentException("Source node " + sourceNode + " does not exist in graph.");
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            DeltaSteppingSearch search = new DeltaSteppingSearch(graph, pool);
+            search.run(source);
+            return search;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Compute the shortest paths from a source node, clearing the previous search
+     *
+     * @param sourceNode index of the source node
+     */
+    public void run(int sourceNode) {
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        Arrays.fill(parent, -1);
+        Arrays.fill(queuedIn, -1);
+        Arrays.fill(settledIn, -1);
+        Arrays.fill(bucketSizes, 0);
+        queuedCount = 0;
+        this.sourceNode = sourceNode;
+
+        distance[sourceNode] = 0;
+        enqueue(sourceNode);
+        for (int current = 0; queuedCount > 0; current++) {
+            int bucket = current % buckets.length;
+            if (bucketSizes[bucket] == 0) continue;
+
+            int settledCount = 0;
+            while (bucketSizes[bucket] > 0) {
+                // Take the whole bucket, skipping the nodes which moved to a lower bucket since queued
+                int frontierCount = 0;
+                int[] nodes = buckets[bucket];
+                for (int i = 0, size = bucketSizes[bucket]; i < size; i++) {
+                    int node = nodes[i];
+                    if (queuedIn[node] != current) continue;
+                    queuedIn[node] = -1;
+                    frontier[frontierCount++] = node;
+                    if (settledIn[node] != current) {
+                        settledIn[node] = current;
+                        settled[settledCount++] = node;
+                    }
+                }
+                queuedCount -= bucketSizes[bucket];
+                bucketSizes[bucket] = 0;
+                relax(frontier, frontierCount, true);
+            }
+            relax(settled, settledCount, false);
+        }
+
+        findParents();
+    }
+
+    /**
+     * @return the width of a bucket.
+     */
+    public int getDelta() {
+        return delta;
+    }
+
+    /**
+     * @return the graph snapshot being searched.
+     */
+    public GraphSnapshot getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return index of the source node; -1 if not run yet.
+     */
+    public int getSourceNode() {
+        return sourceNode;
+    }
+
+    /**
+     * Get the previous node in the chain
+     *
+     * @param node index of the node
+     * @return index of the previous node; the node itself for the source node; -1 if not reachable.
+     */
+    public int getParent(int node) {
+        return parent[node];
+    }
+
+    /**
+     * Get the distance from the source node
+     *
+     * @param node index of the node
+     * @return the distance; Integer.MAX_VALUE if not reachable.
+     */
+    public int getDistance(int node) {
+        return distance[node];
+    }
+
+    /**
+     * Get the distance from the source node to the target node.
+     *
+     * @param targetNode the node to be checked
+     * @return the distance; -1 if the target node is not reachable.
+     */
+    public int distance(String targetNode) {
+        int target = graph.indexOf(targetNode);
+        if (target < 0 || parent[target] < 0) return -1;
+        return distance[target];
+    }
+
+    /**
+     * Return a chain from source node to the target node.
+     *
+     * @param targetNode the node to be checked
+     * @return A list of node, which is the chain in order from source node to target node;
+     * An empty list if the target node is not reachable.
+     */
+    public List<String> getChain(String targetNode) {
+        int target = graph.indexOf(targetNode);
+        if (target < 0 || parent[target] < 0) return new ArrayList<>();
+
+        int length = 1;
+        for (int node = target; node != sourceNode; node = parent[node]) {
+            length++;
+        }
+        String[] chain = new String[length];
+        for (int node = target; length > 0; node = parent[node]) {
+            chain[--length] = graph.getName(node);
+        }
+        return new ArrayList<>(Arrays.asList(chain));
+    }
+
+    private void enqueue(int node) {
+        int index = distance[node] / delta;
+        if (queuedIn[node] == index) return;
+        queuedIn[node] = index;
+
+        int bucket = index % buckets.length;
+        if (bucketSizes[bucket] == buckets[bucket].length) {
+            buckets[bucket] = Arrays.copyOf(buckets[bucket], bucketSizes[bucket] * 2);
+        }
+        buckets[bucket][bucketSizes[bucket]++] = node;
+        queuedCount++;
+    }
+
+    /**
+     * Relax the light or heavy links of some nodes, in parallel if there are enough nodes,
+     * then queue the nodes whose distance is lowered.
+     */
+    private void relax(int[] nodes, int count, boolean light) {
+        if (count < PARALLEL_THRESHOLD || pool.getParallelism() == 1) {
+            Output output = outputs[0];
+            output.size = 0;
+            relax(nodes, 0, count, light, output);
+            for (int i = 0; i < output.size; i++) {
+                enqueue(output.nodes[i]);
+            }
+            return;
+        }
+
+        int taskCount = Math.min(outputs.length, count);
+        List<Callable<Void>> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            int from = (int) ((long) count * i / taskCount);
+            int to = (int) ((long) count * (i + 1) / taskCount);
+            Output output = outputs[i];
+            output.size = 0;
+            tasks.add(() -> {
+                relax(nodes, from, to, light, output);
+                return null;
+            });
+        }
+
+        invokeAll(tasks);
+        for (int i = 0; i < taskCount; i++) {
+            Output output = outputs[i];
+            for (int j = 0; j < output.size; j++) {
+                enqueue(output.nodes[j]);
+            }
+        }
+    }
+
+    private void invokeAll(List<Callable<Void>> tasks) {
+        try {
+            for (Future<Void> result : pool.invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Delta-stepping search is interrupted.", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Delta-stepping search failed.", ex.getCause());
+        }
+    }
+
+    private void relax(int[] nodes, int from, int to, boolean light, Output output) {
+        for (int i = from; i < to; i++) {
+            int node = nodes[i];
+            int nodeDistance = (int) DISTANCE.getVolatile(distance, node);
+            for (int e = graph.edgeStart(node), end = graph.edgeEnd(node); e < end; e++) {
+                int linkDistance = graph.edgeDistance(e);
+                if ((linkDistance <= delta) != light) continue;
+
+                int target = graph.edgeTarget(e);
+                int newDistance = nodeDistance + linkDistance;
+                int oldDistance = (int) DISTANCE.getVolatile(distance, target);
+                while (newDistance < oldDistance) {
+                    if (DISTANCE.compareAndSet(distance, target, oldDistance, newDistance)) {
+                        output.add(target);
+                        break;
+                    }
+                    oldDistance = (int) DISTANCE.getVolatile(distance, target);
+                }
+            }
+        }
+    }
+
+    /**
+     * Give each reached node the linked node with the lowest distance among those on a shortest path.
+     * A node only linked by zero distance links to such nodes takes its parent from them afterwards,
+     * in breadth-first order, so that the chains never loop.
+     */
+    private void findParents() {
+        parent[sourceNode] = sourceNode;
+        int nodeCount = graph.size();
+        boolean missing = false;
+        if (nodeCount < PARALLEL_THRESHOLD || pool.getParallelism() == 1) {
+            missing = findParents(0, nodeCount);
+        } else {
+            int taskCount = outputs.length;
+            boolean[] taskMissing = new boolean[taskCount];
+            List<Callable<Void>> tasks = new ArrayList<>(taskCount);
+            for (int i = 0; i < taskCount; i++) {
+                int task = i;
+                int from = (int) ((long) nodeCount * i / taskCount);
+                int to = (int) ((long) nodeCount * (i + 1) / taskCount);
+                tasks.add(() -> {
+                    taskMissing[task] = findParents(from, to);
+                    return null;
+                });
+            }
+            invokeAll(tasks);
+            for (boolean taskMissed : taskMissing) {
+                missing |= taskMissed;
+            }
+        }
+        if (!missing) return;
+
+        // The source node and the nodes with a parent start the search over zero distance links
+        int head = 0;
+        int tail = 0;
+        for (int node = 0; node < graph.size(); node++) {
+            if (parent[node] >= 0) settled[tail++] = node;
+        }
+        while (head < tail) {
+            int node = settled[head++];
+            for (int e = graph.edgeStart(node), end = graph.edgeEnd(node); e < end; e++) {
+                int linked = graph.edgeTarget(e);
+                if (parent[linked] >= 0 || graph.edgeDistance(e) != 0 || distance[linked] != distance[node]) continue;
+                parent[linked] = node;
+                settled[tail++] = linked;
+            }
+        }
+    }
+
+    /**
+     * @return True if a reached node in range [from, to) is left without parent; otherwise false
+     */
+    private boolean findParents(int from, int to) {
+        boolean missing = false;
+        for (int node = from; node < to; node++) {
+            if (node == sourceNode || distance[node] == Integer.MAX_VALUE) continue;
+            int best = -1;
+            for (int e = graph.edgeStart(node), end = graph.edgeEnd(node); e < end; e++) {
+                int linked = graph.edgeTarget(e);
+                int linkDistance = graph.edgeDistance(e);
+                if (linkDistance == 0 || distance[linked] + linkDistance != distance[node]) continue;
+                if (best < 0 || distance[linked] < distance[best]) best = linked;
+            }
+            parent[node] = best;
+            if (best < 0) missing = true;
+        }
+        return missing;
+    }
+
+    /**
+     * The nodes whose distance is lowered by a task
+     */
+    private static class Output {
+        private int[] nodes = new int[16];
+        private int size;
+
+        private void add(int node) {
+            if (size == nodes.length) nodes = Arrays.copyOf(nodes, size * 2);
+            nodes[size++] = node;
+        }
+    }
+}
@@ -3,12 +3,14 @@ import java.util.*;
 /**
  * Java implementation of Dijkstra's algorithm
  * <p>
- * Graph are used to calculate the shortest path with Dijkstra's algorithm
+ * Graph are used to calculate the shortest path with Dijkstra's algorithm.
+ * The computation runs on an immutable snapshot of the graph (See GraphSnapshot).
  */
 public class DijkstraAlgorithm implements Iterable<VisitedNodeInfo> {
 
-    private final Graph graph;
-    private final String sourceNode;
+    private final GraphSnapshot graph;
+    private final int sourceNode;
+    private final Frontier.Factory frontierFactory;
     private VisitedNodeInfo finalResult;
     private Iterator<VisitedNodeInfo> _iterator;
 
@@ -20,11 +22,62 @@ public class DijkstraAlgorithm implements Iterable<VisitedNodeInfo> {
      * @throws IllegalArgumentException Exception throws when source node does not exist in graph
      */
     public DijkstraAlgorithm(Graph graph, String sourceNode) throws IllegalArgumentException {
-        if (!graph.getAllNodes().contains(sourceNode)) {
+        this(graph, sourceNode, IndexedDaryHeap::new);
+    }
+
+    /**
+     * Use Dijkstra's algorithm with graph, a source node and a specific frontier implementation
+     *
+     * @param graph           the graph
+     * @param sourceNode      Source node of graph
+     * @param frontierFactory Creates the priority queue used to pick the next node to be visited
+     * @throws IllegalArgumentException Exception throws when source node does not exist in graph
+     */
+    public DijkstraAlgorithm(Graph graph, String sourceNode, Frontier.Factory frontierFactory)
+            throws IllegalArgumentException {
+        this(graph.snapshot(), graph.getNodeTable().indexOf(sourceNode), frontierFactory);
+    }
+
+    /**
+     * Use Dijkstra's algorithm with a graph snapshot and a source node
+     *
+     * @param graph      the graph snapshot
+     * @param sourceNode Source node of graph
+     * @throws IllegalArgumentException Exception throws when source node does not exist in graph
+     */
+    public DijkstraAlgorithm(GraphSnapshot graph, String sourceNode) throws IllegalArgumentException {
+        this(graph, sourceNode, IndexedDaryHeap::new);
+    }
+
+    /**
+     * Use Dijkstra's algorithm with a graph snapshot, a source node and a specific frontier implementation
+     *
+     * @param graph           the graph snapshot
+     * @param sourceNode      Source node of graph
+     * @param frontierFactory Creates the priority queue used to pick the next node to be visited
+     * @throws IllegalArgumentException Exception throws when source node does not exist in graph
+     */
+    public DijkstraAlgorithm(GraphSnapshot graph, String sourceNode, Frontier.Factory frontierFactory)
+            throws IllegalArgumentException {
+        this(graph, graph.indexOf(sourceNode), frontierFactory);
+    }
+
+    /**
+     * Use Dijkstra's algorithm with a graph snapshot and the index of a source node
+     *
+     * @param graph           the graph snapshot
+     * @param sourceNode      index of the source node
+     * @param frontierFactory Creates the priority queue used to pick the next node to be visited
+     * @throws IllegalArgumentException Exception throws when source node does not exist in graph
+     */
+    public DijkstraAlgorithm(GraphSnapshot graph, int sourceNode, Frontier.Factory frontierFactory)
+            throws IllegalArgumentException {
+        if (sourceNode < 0 || sourceNode >= graph.size() || graph.getName(sourceNode) == null) {
             throw new IllegalArgumentException("Source node does not exist in graph.");
         }
         this.graph = graph;
         this.sourceNode = sourceNode;
+        this.frontierFactory = frontierFactory;
     }
 
     @Override
@@ -46,40 +99,61 @@ public class DijkstraAlgorithm implements Iterable<VisitedNodeInfo> {
     }
 
     /**
-     * A pair of node and distance from the source node.
+     * Get the number of nodes visited by the iterator so far.
+     * It must be called by the thread which runs the iterator.
+     *
+     * @return the number of visited nodes; 0 if the iterator has not been used or the results only mode is used.
      */
-    public static class NodePair {
-        private final String node;
-        private final int distance;
+    public int getVisitedCount() {
+        if (!(_iterator instanceof NodeChainIterator)) return 0;
+        return ((NodeChainIterator) _iterator).search.getStepCount();
+    }
 
-        /**
-         * Create a node pair with target node and distance
-         *
-         * @param node     target node
-         * @param distance distance between source node and target node
-         */
-        private NodePair(String node, int distance) {
-            this.node = node;
-            this.distance = distance;
-        }
+    /**
+     * Get the number of nodes discovered by the iterator so far, visited or not.
+     * It must be called by the thread which runs the iterator.
+     *
+     * @return the number of discovered nodes; 0 if the iterator has not been used or the results only mode is used.
+     */
+    public int getDiscoveredCount() {
+        if (!(_iterator instanceof NodeChainIterator)) return 0;
+        return ((NodeChainIterator) _iterator).search.getDiscoveredCount();
+    }
 
-        /**
-         * Get the node
-         *
-         * @return the node
-         */
-        public String getNode() {
-            return node;
+    /**
+     * Compute all remaining nodes and get the final result.
+     * <p>
+     * If the iterator has not been used, the computation runs in results only mode which records
+     * no step at all, and the iterator will have no element afterwards. Otherwise the iterator is
+     * run to its end.
+     *
+     * @return the final result
+     */
+    public VisitedNodeInfo computeFinalResult() {
+        if (_iterator == null) {
+            ShortestPathSearch search = new ShortestPathSearch(graph, frontierFactory, false);
+            search.reset(sourceNode);
+            search.run();
+            finalResult = new VisitedNodeInfo(search, search.getStepCount() - 1);
+            _iterator = Collections.emptyIterator();
         }
-
-        /**
-         * Get the distance between the source node and target node
-         *
-         * @return distance
-         */
-        public int getDistance() {
-            return distance;
+        while (_iterator.hasNext()) {
+            _iterator.next();
         }
+        return finalResult;
+    }
+
+    /**
+     * Compute all shortest paths from the source node, including the equal cost ones dropped by
+     * the chains of the final result. It runs a separate search and does not use the iterator.
+     *
+     * @return the shortest path DAG
+     */
+    public ShortestPathDag computeShortestPathDag() {
+        ShortestPathSearch search = new ShortestPathSearch(graph, frontierFactory, false);
+        search.reset(sourceNode);
+        search.run();
+        return new ShortestPathDag(search);
     }
 
     /**
@@ -87,26 +161,14 @@ public class DijkstraAlgorithm implements Iterable<VisitedNodeInfo> {
      */
     private class NodeChainIterator implements Iterator<VisitedNodeInfo> {
 
-        /**
-         * The chain of the path routed.
-         * <p>
-         * Format in Key: TargetNode, Value: NodePair(PreviousNode, TotalDistance)
-         */
-        private final Map<String, NodePair> map;
-        private final Set<String> visitedNodes;
-
-        private String currentNode;
+        private final ShortestPathSearch search;
 
         /**
          * Constructor of NodeChainIterator.
          */
         private NodeChainIterator() {
-            map = new HashMap<>();
-            map.put(sourceNode, new NodePair(sourceNode, 0));
-
-            visitedNodes = new HashSet<>();
-
-            currentNode = sourceNode;
+            search = new ShortestPathSearch(graph, frontierFactory, true);
+            search.reset(sourceNode);
         }
 
         /**
@@ -117,7 +179,7 @@ public class DijkstraAlgorithm implements Iterable<VisitedNodeInfo> {
          */
         @Override
         public boolean hasNext() {
-            return map.keySet().size() != visitedNodes.size();
+            return search.hasNextStep();
         }
 
         /**
@@ -127,47 +189,12 @@ public class DijkstraAlgorithm implements Iterable<VisitedNodeInfo> {
          */
         @Override
         public VisitedNodeInfo next() {
-            visitedNodes.add(currentNode);
-
-            // Discover next possible node
-            Set<String> newDiscoveredNodes = new HashSet<>();
-            Set<String> possibleNodes = graph.getEdgesOfNode(currentNode);
-
-            possibleNodes.removeAll(visitedNodes);
-            for (String posNode : possibleNodes) {
-                int newDistance = map.get(currentNode).getDistance() + graph.getDistance(currentNode, posNode);
-                if (!map.containsKey(posNode) || map.get(posNode).getDistance() > newDistance) {
-                    map.put(posNode, new NodePair(currentNode, newDistance));
-                    newDiscoveredNodes.add(posNode);
-                }
+            VisitedNodeInfo vni;
+            synchronized (search) {
+                search.step();
+                vni = new VisitedNodeInfo(search, search.getStepCount() - 1);
             }
 
-            // Record down the current visiting node and newly discovered nodes
-            VisitedNodeInfo vni = new VisitedNodeInfo(
-                    currentNode,
-                    sourceNode,
-                    new HashSet<>(visitedNodes),
-                    new HashSet<>(newDiscoveredNodes),
-                    map);
-
-
-            // === Choosing the next node to be visited ===
-            // Find the shortest path among the discovered nodes
-            String shortestNode = null;
-            Set<String> discoveredNodes = new HashSet<>(map.keySet());
-            discoveredNodes.removeAll(visitedNodes);
-
-            int shortestDistance = Integer.MAX_VALUE;
-            for (String node : discoveredNodes) {
-                if (map.get(node).getDistance() < shortestDistance) {
-                    shortestNode = node;
-                    shortestDistance = map.get(shortestNode).getDistance();
-                }
-            }
-
-            // change the current node to the next visited node
-            currentNode = shortestNode;
-
             if (!hasNext()) finalResult = vni;
             return vni;
         }
@@ -0,0 +1,369 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A shortest path tree of a source node which is kept up to date while the graph changes.
+ * <p>
+ * Links and nodes are changed through this class, which applies the change to the graph and
+ * repairs only the part of the tree affected by it, like a link state router does:
+ * <ul>
+ * <li>A shorter or new link propagates the improvement from its ends, Dijkstra style.</li>
+ * <li>A longer or removed tree link, or a removed node, detaches the subtree below it. Each
+ * detached node is reattached through its best neighbor outside of the subtree, and the
+ * distances are then propagated within the subtree.</li>
+ * </ul>
+ * The cost of a change is proportional to the nodes and links around the affected part of the
+ * tree rather than to the whole graph. Each change reports the destinations whose distance or
+ * previous node in the chain are changed.
+ * <p>
+ * The tree remembers the version of the graph it is up to date with (See Graph#getVersion). Once
+ * the graph is modified by anything else, the tree is stale and every use of it is rejected.
+ */
+public class DynamicShortestPathTree {
+
+    private final Graph graph;
+    private final int sourceNode;
+
+    /**
+     * Version of the graph the tree is up to date with
+     */
+    private long version;
+
+    /**
+     * The chain of the path routed, indexed by node index.
+     * <p>
+     * parent: the previous node in the chain, -1 if unreachable
+     * distance: the total distance from the source node, Integer.MAX_VALUE if unreachable
+     */
+    private int[] parent;
+    private int[] distance;
+    private IndexedDaryHeap frontier;
+
+    /**
+     * Nodes changed by the current operation, with their state before the operation
+     */
+    private boolean[] touched;
+    private int[] savedParent;
+    private int[] savedDistance;
+    private final List<Integer> touchedNodes = new ArrayList<>();
+
+    /**
+     * Node being relaxed by the neighbor visitor, so that one visitor is reused for all nodes
+     */
+    private int relaxingNode;
+    private final IntIntMap.EntryVisitor relaxVisitor = this::relax;
+
+    /**
+     * Build the shortest path tree of a source node
+     *
+     * @param graph      the graph, which should only be modified through this tree afterwards
+     * @param sourceNode Source node of graph
+     * @throws IllegalArgumentException Exception throws when source node does not exist in graph
+     */
+    public DynamicShortestPathTree(Graph graph, String sourceNode) throws IllegalArgumentException {
+        this.graph = graph;
+        this.sourceNode = graph.getNodeTable().indexOf(sourceNode);
+        if (this.sourceNode < 0) {
+            throw new IllegalArgumentException("Source node does not exist in graph.");
+        }
+
+        ShortestPathSearch search = new ShortestPathSearch(graph.snapshot(), IndexedDaryHeap::new, false);
+        search.reset(this.sourceNode);
+        search.run();
+
+        version = graph.getVersion();
+        int capacity = graph.getNodeTable().capacity();
+        allocate(capacity);
+        for (int node = 0; node < capacity; node++) {
+            parent[node] = search.getParent(node);
+            distance[node] = search.getDistance(node);
+        }
+    }
+
+    /**
+     * Add a new node, which is unreachable until it is linked.
+     *
+     * @param node Name of the new node
+     * @return True if successfully added; False if node already exists.
+     * @throws IllegalStateException Exception throws when the graph is modified outside of the tree
+     */
+    public boolean addNode(String node) throws IllegalStateException {
+        checkVersion();
+        if (!graph.addNode(node)) return false;
+        version = graph.getVersion();
+        ensureCapacity();
+        return true;
+    }
+
+    /**
+     * Set distance of a link and repair the tree.
+     *
+     * @param nodeA    A node
+     * @param nodeB    Another node
+     * @param distance Distance between two nodes
+     * @return the destinations changed; Null if node(s) does not exists.
+     * @throws IllegalStateException Exception throws when the graph is modified outside of the tree
+     */
+    public Set<String> setEdge(String nodeA, String nodeB, int distance) throws IllegalStateException {
+        checkVersion();
+        int indexA = graph.getNodeTable().indexOf(nodeA);
+        int indexB = graph.getNodeTable().indexOf(nodeB);
+        if (indexA < 0 || indexB < 0) return null;
+
+        ensureCapacity();
+        boolean existed = graph.hasEdge(nodeA, nodeB);
+        int oldDistance = graph.getDistance(indexA, indexB);
+        graph.setEdge(nodeA, nodeB, distance);
+        version = graph.getVersion();
+
+        if (existed && distance > oldDistance) {
+            int child = treeChild(indexA, indexB);
+            if (child >= 0) detachAndReattach(new int[]{child});
+        }
+        improveThrough(indexA, indexB, distance);
+        improveThrough(indexB, indexA, distance);
+        propagate();
+        return collectChanges();
+    }
+
+    /**
+     * Remove a link and repair the tree.
+     *
+     * @param nodeA A node
+     * @param nodeB Another node
+     * @return the destinations changed; Null if edge or node(s) does not exists.
+     * @throws IllegalStateException Exception throws when the graph is modified outside of the tree
+     */
+    public Set<String> unsetEdge(String nodeA, String nodeB) throws IllegalStateException {
+        checkVersion();
+        if (!graph.unsetEdge(nodeA, nodeB)) return null;
+        version = graph.getVersion();
+
+        ensureCapacity();
+        int child = treeChild(graph.getNodeTable().indexOf(nodeA), graph.getNodeTable().indexOf(nodeB));
+        if (child >= 0) detachAndReattach(new int[]{child});
+        return collectChanges();
+    }
+
+    /**
+     * Remove a node and repair the tree.
+     *
+     * @param node Name of the node to be removed
+     * @return the destinations changed, excluding the removed node; Null if node does not exist.
+     * @throws IllegalArgumentException Exception throws when the node is the source node
+     * @throws IllegalStateException    Exception throws when the graph is modified outside of the tree
+     */
+    public Set<String> removeNode(String node) throws IllegalArgumentException, IllegalStateException {
+        checkVersion();
+        int index = graph.getNodeTable().indexOf(node);
+        if (index < 0) return null;
+        if (index == sourceNode) throw new IllegalArgumentException("Source node cannot be removed.");
+        ensureCapacity();
+
+        // Children must be found before the links are gone
+        List<Integer> children = new ArrayList<>();
+        graph.forEachNeighbor(index, (linked, linkDistance) -> {
+            if (parent[linked] == index) children.add(linked);
+        });
+        graph.removeNode(node);
+        version = graph.getVersion();
+        parent[index] = -1;
+        distance[index] = Integer.MAX_VALUE;
+
+        int[] roots = new int[children.size()];
+        for (int i = 0; i < roots.length; i++) {
+            roots[i] = children.get(i);
+        }
+        detachAndReattach(roots);
+        return collectChanges();
+    }
+
+    /**
+     * Get the distance from the source node to the target node.
+     *
+     * @param targetNode the node to be checked
+     * @return the distance between the source node and the target node; -1 if the target node is unreachable.
+     * @throws IllegalStateException Exception throws when the graph is modified outside of the tree
+     */
+    public int distance(String targetNode) throws IllegalStateException {
+        checkVersion();
+        int target = graph.getNodeTable().indexOf(targetNode);
+        if (target < 0 || parent[target] < 0) return -1;
+        return distance[target];
+    }
+
+    /**
+     * Return a chain from source node to the target node.
+     *
+     * @param targetNode the node to be checked
+     * @return A list of node, which is the chain in order from source node to target node;
+     * An empty list if the target node is unreachable.
+     * @throws IllegalStateException Exception throws when the graph is modified outside of the tree
+     */
+    public List<String> getChain(String targetNode) throws IllegalStateException {
+        checkVersion();
+        List<String> chainPath = new ArrayList<>();
+        int target = graph.getNodeTable().indexOf(targetNode);
+        if (target < 0 || parent[target] < 0) return chainPath;
+
+        for (int node = target; node != sourceNode; node = parent[node]) {
+            chainPath.add(graph.getNodeTable().nameOf(node));
+        }
+        chainPath.add(graph.getNodeTable().nameOf(sourceNode));
+        Collections.reverse(chainPath);
+        return chainPath;
+    }
+
+    /**
+     * Get the child end of a tree link.
+     *
+     * @return the child node; -1 if the link is not in the tree.
+     */
+    private int treeChild(int nodeA, int nodeB) {
+        if (parent[nodeB] == nodeA && nodeB != sourceNode) return nodeB;
+        if (parent[nodeA] == nodeB && nodeA != sourceNode) return nodeA;
+        return -1;
+    }
+
+    /**
+     * Detach the subtrees of some roots, reattach each detached node through its best neighbor
+     * outside of the subtrees, and propagate the distances within.
+     */
+    private void detachAndReattach(int[] roots) {
+        // Collect the subtrees: children of a node are its neighbors which use it as parent
+        List<Integer> detached = new ArrayList<>();
+        for (int root : roots) {
+            touch(root);
+            detached.add(root);
+        }
+        for (int i = 0; i < detached.size(); i++) {
+            int node = detached.get(i);
+            graph.forEachNeighbor(node, (linked, linkDistance) -> {
+                if (parent[linked] == node && !touched[linked]) {
+                    touch(linked);
+                    detached.add(linked);
+                }
+            });
+        }
+        for (int node : detached) {
+            parent[node] = -1;
+            distance[node] = Integer.MAX_VALUE;
+        }
+
+        // Reattach each node through its best neighbor which is still attached
+        for (int node : detached) {
+            int[] best = {-1, Integer.MAX_VALUE};
+            graph.forEachNeighbor(node, (linked, linkDistance) -> {
+                if (parent[linked] < 0) return;
+                int newDistance = distance[linked] + linkDistance;
+                if (newDistance < best[1]) {
+                    best[0] = linked;
+                    best[1] = newDistance;
+                }
+            });
+            if (best[0] >= 0) {
+                parent[node] = best[0];
+                distance[node] = best[1];
+                frontier.offer(node, best[1]);
+            }
+        }
+        propagate();
+    }
+
+    /**
+     * Use the link from one node to another if it shortens the chain of the other node.
+     */
+    private void improveThrough(int from, int to, int linkDistance) {
+        if (parent[from] < 0) return;
+        int newDistance = distance[from] + linkDistance;
+        if (newDistance < distance[to]) {
+            touch(to);
+            parent[to] = from;
+            distance[to] = newDistance;
+            frontier.offer(to, newDistance);
+        }
+    }
+
+    /**
+     * Dijkstra's algorithm seeded by the nodes in the frontier.
+     */
+    private void propagate() {
+        while (!frontier.isEmpty()) {
+            relaxingNode = frontier.poll();
+            graph.forEachNeighbor(relaxingNode, relaxVisitor);
+        }
+    }
+
+    private void relax(int linked, int linkDistance) {
+        int newDistance = distance[relaxingNode] + linkDistance;
+        if (newDistance < distance[linked]) {
+            touch(linked);
+            parent[linked] = relaxingNode;
+            distance[linked] = newDistance;
+            frontier.offer(linked, newDistance);
+        }
+    }
+
+    /**
+     * Remember the state of a node before it is changed by the current operation.
+     */
+    private void touch(int node) {
+        if (touched[node]) return;
+        touched[node] = true;
+        savedParent[node] = parent[node];
+        savedDistance[node] = distance[node];
+        touchedNodes.add(node);
+    }
+
+    /**
+     * Get the touched nodes which end up in a different state, and clear the touched marks.
+     */
+    private Set<String> collectChanges() {
+        Set<String> changed = new HashSet<>();
+        for (int node : touchedNodes) {
+            touched[node] = false;
+            if (parent[node] != savedParent[node] || distance[node] != savedDistance[node]) {
+                String name = graph.getNodeTable().nameOf(node);
+                if (name != null) changed.add(name);
+            }
+        }
+        touchedNodes.clear();
+        return changed;
+    }
+
+    /**
+     * Reject the use of a stale tree.
+     */
+    private void checkVersion() throws IllegalStateException {
+        if (graph.getVersion() != version) {
+            throw new IllegalStateException("Graph has been modified outside of the shortest path tree.");
+        }
+    }
+
+    private void ensureCapacity() {
+        int capacity = graph.getNodeTable().capacity();
+        if (capacity <= parent.length) return;
+
+        int oldLength = parent.length;
+        int[] oldParent = parent;
+        int[] oldDistance = distance;
+        allocate(Math.max(capacity, oldLength * 2));
+        System.arraycopy(oldParent, 0, parent, 0, oldLength);
+        System.arraycopy(oldDistance, 0, distance, 0, oldLength);
+    }
+
+    private void allocate(int capacity) {
+        parent = new int[capacity];
+        distance = new int[capacity];
+        touched = new boolean[capacity];
+        savedParent = new int[capacity];
+        savedDistance = new int[capacity];
+        frontier = new IndexedDaryHeap(capacity);
+        Arrays.fill(parent, -1);
+        Arrays.fill(distance, Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,224 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * The event queue of a discrete-event simulation, ordered by time.
+ * <p>
+ * Events scheduled at the same time are polled in order of type and arguments, whatever order they
+ * were scheduled in, so a simulation is deterministic even if its events come from several threads.
+ * An event is a type and three int arguments, stored in plain arrays indexed by slot, and the 4-ary
+ * heap only moves slot indexes, so no object is allocated per event.
+ * The fields of the polled event are read with getTime(), getType(), getA(), getB() and getC().
+ */
+public class EventQueue {
+
+    private static final int ARITY = 4;
+
+    private long[] times;
+    private int[] types;
+    private int[] argsA;
+    private int[] argsB;
+    private int[] argsC;
+    private int[] freeSlots;
+    private int freeCount;
+    private int slotCount;
+
+    private int[] heap;
+    private int size;
+
+    private long time;
+    private int type;
+    private int argA;
+    private int argB;
+    private int argC;
+
+    /**
+     * Create an empty queue
+     */
+    public EventQueue() {
+        this(64);
+    }
+
+    /**
+     * Create an empty queue which holds a number of events without resizing
+     *
+     * @param expectedSize number of events expected
+     */
+    public EventQueue(int expectedSize) {
+        int capacity = Math.max(4, expectedSize);
+        times = new long[capacity];
+        types = new int[capacity];
+        argsA = new int[capacity];
+        argsB = new int[capacity];
+        argsC = new int[capacity];
+        freeSlots = new int[capacity];
+        heap = new int[capacity];
+    }
+
+    /**
+     * Schedule an event
+     *
+     * @param time the time of the event
+     * @param type the type of the event
+     * @param a    first argument
+     * @param b    second argument
+     * @param c    third argument
+     */
+    public void schedule(long time, int type, int a, int b, int c) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount == times.length) grow();
+            slot = slotCount++;
+        }
+        times[slot] = time;
+        types[slot] = type;
+        argsA[slot] = a;
+        argsB[slot] = b;
+        argsC[slot] = c;
+
+        heap[size] = slot;
+        siftUp(size++);
+    }
+
+    /**
+     * Remove the earliest event, whose fields can be read afterwards.
+     *
+     * @throws NoSuchElementException Exception throws when the queue is empty
+     */
+    public void poll() throws NoSuchElementException {
+        if (size == 0) throw new NoSuchElementException("Event queue is empty.");
+
+        int slot = heap[0];
+        time = times[slot];
+        type = types[slot];
+        argA = argsA[slot];
+        argB = argsB[slot];
+        argC = argsC[slot];
+        freeSlots[freeCount++] = slot;
+
+        if (--size > 0) {
+            heap[0] = heap[size];
+            siftDown(0);
+        }
+    }
+
+    /**
+     * @return the time of the earliest event.
+     * @throws NoSuchElementException Exception throws when the queue is empty
+     */
+    public long peekTime() throws NoSuchElementException {
+        if (size == 0) throw new NoSuchElementException("Event queue is empty.");
+        return times[heap[0]];
+    }
+
+    /**
+     * @return the number of scheduled events.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return True if no event is scheduled; otherwise false
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove all scheduled events.
+     */
+    public void clear() {
+        size = 0;
+        freeCount = 0;
+        slotCount = 0;
+    }
+
+    /**
+     * @return the time of the polled event.
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * @return the type of the polled event.
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * @return the first argument of the polled event.
+     */
+    public int getA() {
+        return argA;
+    }
+
+    /**
+     * @return the second argument of the polled event.
+     */
+    public int getB() {
+        return argB;
+    }
+
+    /**
+     * @return the third argument of the polled event.
+     */
+    public int getC() {
+        return argC;
+    }
+
+    private boolean before(int slotA, int slotB) {
+        if (times[slotA] != times[slotB]) return times[slotA] < times[slotB];
+        if (types[slotA] != types[slotB]) return types[slotA] < types[slotB];
+        if (argsA[slotA] != argsA[slotB]) return argsA[slotA] < argsA[slotB];
+        if (argsB[slotA] != argsB[slotB]) return argsB[slotA] < argsB[slotB];
+        return argsC[slotA] < argsC[slotB];
+    }
+
+    private void siftUp(int index) {
+        int slot = heap[index];
+        while (index > 0) {
+            int parentIndex = (index - 1) / ARITY;
+            int parent = heap[parentIndex];
+            if (!before(slot, parent)) break;
+            heap[index] = parent;
+            index = parentIndex;
+        }
+        heap[index] = slot;
+    }
+
+    private void siftDown(int index) {
+        int slot = heap[index];
+        while (true) {
+            int firstChild = index * ARITY + 1;
+            if (firstChild >= size) break;
+
+            // Find the earliest child
+            int lastChild = Math.min(firstChild + ARITY, size);
+            int minIndex = firstChild;
+            for (int i = firstChild + 1; i < lastChild; i++) {
+                if (before(heap[i], heap[minIndex])) minIndex = i;
+            }
+
+            if (!before(heap[minIndex], slot)) break;
+            heap[index] = heap[minIndex];
+            index = minIndex;
+        }
+        heap[index] = slot;
+    }
+
+    private void grow() {
+        int capacity = times.length * 2;
+        times = Arrays.copyOf(times, capacity);
+        types = Arrays.copyOf(types, capacity);
+        argsA = Arrays.copyOf(argsA, capacity);
+        argsB = Arrays.copyOf(argsB, capacity);
+        argsC = Arrays.copyOf(argsC, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+        heap = Arrays.copyOf(heap, capacity);
+    }
+}
@@ -0,0 +1,650 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A discrete-event simulation of link state routing over a Graph.
+ * <p>
+ * Every router keeps its own link state database (LSDB) holding the newest LSA of each router
+ * it has heard of. A router originates a new LSA, with the next sequence number, when one of its
+ * links changes, and floods it to its neighbors. A received LSA which is newer than the one in
+ * the LSDB is installed and flooded to all other neighbors, older or duplicated ones are dropped.
+ * A message takes delayPerCost times the distance of the link to be delivered, and a router runs
+ * SPF on its own LSDB spfDelay after the first LSA it installs, so several LSAs share one run.
+ * <p>
+ * Events at the same time are processed in order of type, router and sender (See EventQueue), so
+ * a run is deterministic. A run can be split over several threads, each processing the routers of
+ * one part of the topology (See GraphPartitioner). The parts are synchronized conservatively: all
+ * threads process the events of a time window, then exchange the messages sent across parts. The
+ * window is as long as the shortest delay of a link between two parts, the lookahead, so no message
+ * from another part can arrive within the window, and the outcome is identical to a sequential run.
+ * <p>
+ * The simulation modifies the graph it is created with, through setLink() and removeLink().
+ * Each LSDB holds an entry per router, so the memory use grows with the square of the number of routers.
+ * An LSA is shared by the LSDBs and the messages holding it, and counts them: once it is replaced in
+ * every LSDB and no longer in flight, its id is reused, so only the LSAs still in use are kept.
+ */
+public class FloodingSimulation {
+
+    private static final int LSA_ARRIVAL = 0;
+    private static final int SPF_RUN = 1;
+
+    private final Graph graph;
+    private final long delayPerCost;
+    private final long spfDelay;
+
+    /**
+     * A link state advertisement, listing the links of its origin router sorted by linked router
+     */
+    private static class Lsa {
+        private final int origin;
+        private final int sequence;
+        private final int[] neighbors;
+        private final int[] distances;
+
+        /**
+         * Number of LSDB entries and messages in flight holding the LSA, updated by the threads of all parts
+         */
+        private final AtomicInteger references = new AtomicInteger();
+
+        private Lsa(int origin, int sequence, int[] neighbors, int[] distances) {
+            this.origin = origin;
+            this.sequence = sequence;
+            this.neighbors = neighbors;
+            this.distances = distances;
+        }
+
+        private int distanceTo(int node) {
+            int index = Arrays.binarySearch(neighbors, node);
+            return index < 0 ? -1 : distances[index];
+        }
+    }
+
+    /**
+     * LSAs in use indexed by id, and the ids of the released ones, which are reused first.
+     * <p>
+     * The id breaks ties between messages arriving at the same time (See EventQueue), so it must not
+     * depend on the order parts release LSAs in: the lowest free id is reused, and the set of free ids
+     * between two runs only depends on the LSDBs.
+     */
+    private Lsa[] lsas = new Lsa[64];
+    private int lsaSlotCount;
+    private final BitSet freeIds = new BitSet();
+    private int freeIdCount;
+    private int[][] lsdb;
+    private int[] sequences;
+    private boolean[] spfPending;
+    private long[] routeDigests;
+
+    /**
+     * Holds the events scheduled outside of a run, and processes all events of a sequential run
+     */
+    private final Partition main;
+    private long changeTime = -1;
+
+    /**
+     * Part of each router in parallel runs, and the number of parts it was computed for
+     */
+    private int[] partOf;
+    private int partCount;
+
+    /**
+     * The outcome of a simulation run
+     */
+    public static class Report {
+        private final long convergenceTime;
+        private final long endTime;
+        private final long messageCount;
+        private final long duplicateCount;
+        private final long droppedCount;
+        private final long spfRunCount;
+        private final long eventCount;
+
+        private Report(long convergenceTime, long endTime, long messageCount, long duplicateCount,
+                       long droppedCount, long spfRunCount, long eventCount) {
+            this.convergenceTime = convergenceTime;
+            this.endTime = endTime;
+            this.messageCount = messageCount;
+            this.duplicateCount = duplicateCount;
+            this.droppedCount = droppedCount;
+            this.spfRunCount = spfRunCount;
+            this.eventCount = eventCount;
+        }
+
+        /**
+         * @return the time from the first change to the last modified routing table; 0 if no table is modified.
+         */
+        public long getConvergenceTime() {
+            return convergenceTime;
+        }
+
+        /**
+         * @return the time of the last event.
+         */
+        public long getEndTime() {
+            return endTime;
+        }
+
+        /**
+         * @return the number of LSA messages sent.
+         */
+        public long getMessageCount() {
+            return messageCount;
+        }
+
+        /**
+         * @return the number of received LSAs which were not newer than the installed ones.
+         */
+        public long getDuplicateCount() {
+            return duplicateCount;
+        }
+
+        /**
+         * @return the number of LSAs lost because their link was removed before delivery.
+         */
+        public long getDroppedCount() {
+            return droppedCount;
+        }
+
+        /**
+         * @return the number of SPF runs.
+         */
+        public long getSpfRunCount() {
+            return spfRunCount;
+        }
+
+        /**
+         * @return the number of processed events.
+         */
+        public long getEventCount() {
+            return eventCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Converged in %d (end at %d), %d messages, %d duplicates, %d dropped, "
+                            + "%d SPF runs, %d events",
+                    convergenceTime, endTime, messageCount, duplicateCount, droppedCount, spfRunCount, eventCount);
+        }
+    }
+
+    /**
+     * The routers of a part of the topology, with their events, clock and counters.
+     * Routers are only modified by the thread processing their part.
+     */
+    private class Partition {
+        private final int id;
+        private final EventQueue events = new EventQueue(1024);
+        private EventQueue[] outboxes;
+        private long time;
+        private long lastRouteChange = -1;
+        private long messageCount;
+        private long duplicateCount;
+        private long droppedCount;
+        private long spfRunCount;
+        private long eventCount;
+
+        /* Shortest path search over the LSDB of a router */
+        private final Frontier frontier;
+        private final int[] distance;
+        private final int[] nextHop;
+
+        private Partition(int id, int capacity) {
+            this.id = id;
+            frontier = new IndexedDaryHeap(capacity);
+            distance = new int[capacity];
+            nextHop = new int[capacity];
+        }
+
+        /**
+         * Process the events before the end of a window
+         */
+        private void process(long windowEnd) {
+            while (!events.isEmpty() && events.peekTime() < windowEnd) {
+                events.poll();
+                time = events.getTime();
+                eventCount++;
+                if (events.getType() == LSA_ARRIVAL) {
+                    receive(events.getA(), events.getB(), events.getC());
+                } else {
+                    runSpf(events.getA());
+                }
+            }
+        }
+
+        private void schedule(long eventTime, int type, int router, int b, int c) {
+            if (outboxes == null || partOf[router] == id) {
+                events.schedule(eventTime, type, router, b, c);
+            } else {
+                outboxes[partOf[router]].schedule(eventTime, type, router, b, c);
+            }
+        }
+
+        /**
+         * Create a new LSA of the current links of a router and flood it.
+         */
+        private void originate(int router) {
+            int degree = graph.degree(router);
+            long[] row = new long[degree];
+            int[] count = {0};
+            graph.forEachNeighbor(router, (nodeLinked, linkDistance) ->
+                    row[count[0]++] = ((long) nodeLinked << 32) | (linkDistance & 0xFFFFFFFFL));
+            Arrays.sort(row);
+            int[] neighbors = new int[degree];
+            int[] distances = new int[degree];
+            for (int i = 0; i < degree; i++) {
+                neighbors[i] = (int) (row[i] >>> 32);
+                distances[i] = (int) row[i];
+            }
+
+            int id = allocateLsa(new Lsa(router, ++sequences[router], neighbors, distances));
+            install(router, router, id);
+            flood(router, -1, id);
+            scheduleSpf(router);
+        }
+
+        private void receive(int router, int from, int id) {
+            // The link may have been removed while the message was in flight
+            if (graph.getDistance(router, from) < 0) {
+                droppedCount++;
+                releaseLsa(id);
+                return;
+            }
+
+            Lsa lsa = lsas[id];
+            int installed = lsdb[router][lsa.origin];
+            if (installed >= 0 && lsas[installed].sequence >= lsa.sequence) {
+                duplicateCount++;
+                releaseLsa(id);
+                return;
+            }
+            install(router, lsa.origin, id);
+            flood(router, from, id);
+            scheduleSpf(router);
+            releaseLsa(id);
+        }
+
+        /**
+         * Replace the LSA of an origin in the LSDB of a router.
+         */
+        private void install(int router, int origin, int id) {
+            lsas[id].references.incrementAndGet();
+            int replaced = lsdb[router][origin];
+            lsdb[router][origin] = id;
+            if (replaced >= 0) releaseLsa(replaced);
+        }
+
+        /**
+         * Send an LSA to all neighbors of a router, except the one it came from.
+         */
+        private void flood(int router, int from, int id) {
+            graph.forEachNeighbor(router, (neighbor, linkDistance) -> {
+                if (neighbor == from) return;
+                messageCount++;
+                lsas[id].references.incrementAndGet();
+                schedule(time + delayPerCost * linkDistance, LSA_ARRIVAL, neighbor, router, id);
+            });
+        }
+
+        private void scheduleSpf(int router) {
+            if (spfPending[router]) return;
+            spfPending[router] = true;
+            schedule(time + spfDelay, SPF_RUN, router, 0, 0);
+        }
+
+        private void runSpf(int router) {
+            spfPending[router] = false;
+            spfRunCount++;
+            long digest = computeRoutes(router);
+            if (digest != routeDigests[router]) {
+                routeDigests[router] = digest;
+                lastRouteChange = time;
+            }
+        }
+
+        /**
+         * Run Dijkstra's algorithm over the LSDB of a router.
+         *
+         * @return a digest of the next hops and distances, which changes when the routing table changes
+         */
+        private long computeRoutes(int router) {
+            int[] view = lsdb[router];
+            Arrays.fill(distance, Integer.MAX_VALUE);
+            Arrays.fill(nextHop, -1);
+            frontier.clear();
+            distance[router] = 0;
+            nextHop[router] = router;
+            frontier.offer(router, 0);
+
+            long digest = 1;
+            while (!frontier.isEmpty()) {
+                int node = frontier.poll();
+                digest = digest * 31 + ((long) node << 32 | nextHop[node]) * 17 + distance[node];
+                if (view[node] < 0) continue;
+
+                Lsa lsa = lsas[view[node]];
+                for (int i = 0; i < lsa.neighbors.length; i++) {
+                    int neighbor = lsa.neighbors[i];
+                    // A link is used only if advertised by both of its routers
+                    if (view[neighbor] < 0 || lsas[view[neighbor]].distanceTo(node) < 0) continue;
+
+                    int newDistance = distance[node] + lsa.distances[i];
+                    if (newDistance < distance[neighbor]) {
+                        distance[neighbor] = newDistance;
+                        nextHop[neighbor] = node == router ? neighbor : nextHop[node];
+                        frontier.offer(neighbor, newDistance);
+                    }
+                }
+            }
+            return digest;
+        }
+    }
+
+    /**
+     * Create a simulation where no router has originated its LSA yet
+     *
+     * @param graph        the topology, which is modified by the simulation
+     * @param delayPerCost time taken by a message per unit of link distance
+     * @param spfDelay     time between the first installed LSA and the SPF run of a router
+     * @throws IllegalArgumentException Exception throws when a delay is negative
+     */
+    public FloodingSimulation(Graph graph, long delayPerCost, long spfDelay) throws IllegalArgumentException {
+        if (delayPerCost < 0 || spfDelay < 0) throw new IllegalArgumentException("Delays must not be negative.");
+        this.graph = graph;
+        this.delayPerCost = delayPerCost;
+        this.spfDelay = spfDelay;
+        int capacity = graph.getNodeTable().capacity();
+        lsdb = new int[capacity][];
+        sequences = new int[capacity];
+        spfPending = new boolean[capacity];
+        routeDigests = new long[capacity];
+        for (int node = 0; node < capacity; node++) {
+            lsdb[node] = new int[capacity];
+            Arrays.fill(lsdb[node], -1);
+        }
+        main = new Partition(0, capacity);
+    }
+
+    /**
+     * Let every router originate its LSA at the current time.
+     */
+    public void start() {
+        markChange();
+        for (int node = 0; node < lsdb.length; node++) {
+            if (graph.hasNode(node)) main.originate(node);
+        }
+    }
+
+    /**
+     * Set the distance of a link at the current time, both routers originate a new LSA.
+     *
+     * @param nodeA    A router
+     * @param nodeB    Another router
+     * @param distance Distance of the link
+     * @throws IllegalArgumentException Exception throws when a router does not exist in graph
+     */
+    public void setLink(String nodeA, String nodeB, int distance) throws IllegalArgumentException {
+        int indexA = indexOf(nodeA);
+        int indexB = indexOf(nodeB);
+        graph.setEdge(indexA, indexB, distance);
+        markChange();
+        main.originate(indexA);
+        if (indexB != indexA) main.originate(indexB);
+    }
+
+    /**
+     * Remove a link at the current time, both routers originate a new LSA.
+     *
+     * @param nodeA A router
+     * @param nodeB Another router
+     * @return True if the link is removed; False if it does not exist.
+     * @throws IllegalArgumentException Exception throws when a router does not exist in graph
+     */
+    public boolean removeLink(String nodeA, String nodeB) throws IllegalArgumentException {
+        int indexA = indexOf(nodeA);
+        int indexB = indexOf(nodeB);
+        if (!graph.unsetEdge(nodeA, nodeB)) return false;
+        markChange();
+        main.originate(indexA);
+        if (indexB != indexA) main.originate(indexB);
+        return true;
+    }
+
+    /**
+     * Process all scheduled events, until every router has its final routing table.
+     *
+     * @return the report of the events since the previous run
+     */
+    public Report run() {
+        main.process(Long.MAX_VALUE);
+        return report(new Partition[0]);
+    }
+
+    /**
+     * Process all scheduled events with several threads, each processing a part of the topology.
+     * The outcome is the same as the one of run().
+     * If a link between two parts has no delay, the events are processed sequentially.
+     *
+     * @param threads number of threads
+     * @return the report of the events since the previous run
+     * @throws IllegalArgumentException Exception throws when threads is not positive
+     */
+    public Report run(int threads) throws IllegalArgumentException {
+        if (threads <= 0) throw new IllegalArgumentException("Number of threads must be positive.");
+        if (threads == 1) return run();
+
+        if (partCount != threads) {
+            partOf = GraphPartitioner.partition(graph, threads);
+            partCount = threads;
+        }
+        long lookahead = getLookahead();
+        if (lookahead == 0) return run();
+
+        Partition[] partitions = new Partition[threads];
+        for (int part = 0; part < threads; part++) {
+            partitions[part] = new Partition(part, lsdb.length);
+            partitions[part].time = main.time;
+        }
+        for (Partition partition : partitions) {
+            partition.outboxes = new EventQueue[threads];
+            for (int part = 0; part < threads; part++) {
+                if (part != partition.id) partition.outboxes[part] = new EventQueue();
+            }
+        }
+        while (!main.events.isEmpty()) {
+            main.events.poll();
+            partitions[partOf[main.events.getA()]].events.schedule(main.events.getTime(), main.events.getType(),
+                    main.events.getA(), main.events.getB(), main.events.getC());
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            while (true) {
+                long windowStart = Long.MAX_VALUE;
+                for (Partition partition : partitions) {
+                    if (!partition.events.isEmpty()) windowStart = Math.min(windowStart, partition.events.peekTime());
+                }
+                if (windowStart == Long.MAX_VALUE) break;
+
+                // No message from another part can arrive before the end of the window
+                long windowEnd = lookahead == Long.MAX_VALUE ? Long.MAX_VALUE : windowStart + lookahead;
+                List<Callable<Void>> workers = new ArrayList<>();
+                for (Partition partition : partitions) {
+                    if (partition.events.isEmpty() || partition.events.peekTime() >= windowEnd) continue;
+                    workers.add(() -> {
+                        partition.process(windowEnd);
+                        return null;
+                    });
+                }
+                for (Future<Void> result : pool.invokeAll(workers)) {
+                    result.get();
+                }
+
+                for (Partition partition : partitions) {
+                    for (EventQueue outbox : partition.outboxes) {
+                        if (outbox == null) continue;
+                        while (!outbox.isEmpty()) {
+                            outbox.poll();
+                            partitions[partOf[outbox.getA()]].events.schedule(outbox.getTime(), outbox.getType(),
+                                    outbox.getA(), outbox.getB(), outbox.getC());
+                        }
+                    }
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation is interrupted.", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Simulation failed.", ex.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        for (Partition partition : partitions) {
+            main.time = Math.max(main.time, partition.time);
+        }
+        return report(partitions);
+    }
+
+    /**
+     * @return the current time of the simulation.
+     */
+    public long getTime() {
+        return main.time;
+    }
+
+    /**
+     * Get the distance from a router to another, in the view of the first router's LSDB.
+     * A link is only used once both of its routers have advertised it.
+     *
+     * @param router      the router
+     * @param destination the destination router
+     * @return the distance; -1 if the destination is not reachable in the view of the router
+     * @throws IllegalArgumentException Exception throws when a router does not exist in graph
+     */
+    public int getDistance(String router, String destination) throws IllegalArgumentException {
+        int source = indexOf(router);
+        int target = indexOf(destination);
+        main.computeRoutes(source);
+        return main.distance[target] == Integer.MAX_VALUE ? -1 : main.distance[target];
+    }
+
+    /**
+     * Get the next hop from a router to another, in the view of the first router's LSDB.
+     *
+     * @param router      the router
+     * @param destination the destination router
+     * @return the next hop; Null if the destination is not reachable in the view of the router
+     * @throws IllegalArgumentException Exception throws when a router does not exist in graph
+     */
+    public String getNextHop(String router, String destination) throws IllegalArgumentException {
+        int source = indexOf(router);
+        int target = indexOf(destination);
+        main.computeRoutes(source);
+        return main.nextHop[target] < 0 ? null : graph.getNodeTable().nameOf(main.nextHop[target]);
+    }
+
+    /**
+     * @return the number of LSAs kept, which are held by an LSDB or in flight.
+     */
+    public int getLsaCount() {
+        return lsaSlotCount - freeIdCount;
+    }
+
+    /**
+     * Store a new LSA, which is not held yet. It is only called outside of parallel runs.
+     *
+     * @return the id of the LSA
+     */
+    private synchronized int allocateLsa(Lsa lsa) {
+        int id;
+        if (freeIdCount > 0) {
+            id = freeIds.nextSetBit(0);
+            freeIds.clear(id);
+            freeIdCount--;
+        } else {
+            if (lsaSlotCount == lsas.length) lsas = Arrays.copyOf(lsas, lsas.length * 2);
+            id = lsaSlotCount++;
+        }
+        lsas[id] = lsa;
+        return id;
+    }
+
+    /**
+     * Drop a reference to an LSA, and release its id once it is no longer held.
+     */
+    private void releaseLsa(int id) {
+        if (lsas[id].references.decrementAndGet() > 0) return;
+        // The last holder is the only thread still using the LSA
+        synchronized (this) {
+            lsas[id] = null;
+            freeIds.set(id);
+            freeIdCount++;
+        }
+    }
+
+    private int indexOf(String node) throws IllegalArgumentException {
+        int index = graph.getNodeTable().indexOf(node);
+        if (index < 0) throw new IllegalArgumentException("Router " + node + " does not exist in graph.");
+        return index;
+    }
+
+    private void markChange() {
+        if (changeTime < 0) changeTime = main.time;
+    }
+
+    /**
+     * @return the shortest delay of a link between two parts; Long.MAX_VALUE if there is none.
+     */
+    private long getLookahead() {
+        long[] lookahead = {Long.MAX_VALUE};
+        for (int node = 0; node < partOf.length; node++) {
+            if (!graph.hasNode(node)) continue;
+            int part = partOf[node];
+            graph.forEachNeighbor(node, (linked, linkDistance) -> {
+                if (partOf[linked] != part) lookahead[0] = Math.min(lookahead[0], delayPerCost * linkDistance);
+            });
+        }
+        return lookahead[0];
+    }
+
+    /**
+     * Sum up the counters of all parts, and reset them for the next run.
+     */
+    private Report report(Partition[] partitions) {
+        Partition[] all = Arrays.copyOf(partitions, partitions.length + 1);
+        all[partitions.length] = main;
+        long lastRouteChange = -1;
+        long messageCount = 0;
+        long duplicateCount = 0;
+        long droppedCount = 0;
+        long spfRunCount = 0;
+        long eventCount = 0;
+        for (Partition partition : all) {
+            lastRouteChange = Math.max(lastRouteChange, partition.lastRouteChange);
+            messageCount += partition.messageCount;
+            duplicateCount += partition.duplicateCount;
+            droppedCount += partition.droppedCount;
+            spfRunCount += partition.spfRunCount;
+            eventCount += partition.eventCount;
+        }
+
+        long convergenceTime = changeTime >= 0 && lastRouteChange >= changeTime ? lastRouteChange - changeTime : 0;
+        Report report = new Report(convergenceTime, main.time, messageCount, duplicateCount, droppedCount,
+                spfRunCount, eventCount);
+        changeTime = -1;
+        main.lastRouteChange = -1;
+        main.messageCount = 0;
+        main.duplicateCount = 0;
+        main.droppedCount = 0;
+        main.spfRunCount = 0;
+        main.eventCount = 0;
+        return report;
+    }
+}
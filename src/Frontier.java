@@ -0,0 +1,64 @@
+/**
+ * The set of discovered but not yet visited nodes of a shortest path search,
+ * ordered by their tentative distance from the source node.
+ * <p>
+ * Nodes are identified by an index in range [0, capacity) so that implementations
+ * can keep their bookkeeping in plain arrays and support decrease-key in place.
+ */
+public interface Frontier {
+
+    /**
+     * Creates a frontier for a search over a fixed number of nodes.
+     */
+    interface Factory {
+        /**
+         * Create an empty frontier
+         *
+         * @param capacity number of nodes, all node indexes must be lower than it
+         * @return a new frontier
+         */
+        Frontier create(int capacity);
+    }
+
+    /**
+     * Insert a node, or lower its priority if it is already in the frontier.
+     *
+     * @param node     index of the node
+     * @param priority tentative distance of the node
+     * @return True if the node is inserted or its priority is lowered; False if it already has a lower or equal priority.
+     */
+    boolean offer(int node, int priority);
+
+    /**
+     * Remove the node with the lowest priority.
+     *
+     * @return index of the removed node
+     * @throws java.util.NoSuchElementException Exception throws when the frontier is empty
+     */
+    int poll();
+
+    /**
+     * Check if the node is waiting in the frontier.
+     *
+     * @param node index of the node
+     * @return True if the node is in the frontier; otherwise false
+     */
+    boolean contains(int node);
+
+    /**
+     * @return the number of nodes in the frontier.
+     */
+    int size();
+
+    /**
+     * @return True if no node is waiting in the frontier; otherwise false
+     */
+    default boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Remove all nodes so that the frontier can be reused for another search.
+     */
+    void clear();
+}
@@ -1,23 +1,50 @@
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
-import java.util.HashMap;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
+import java.util.function.ObjIntConsumer;
 
 /**
  * A bidirectional Graph formed by nodes and edges.
+ * <p>
+ * Node names are interned into indexes by a NodeTable, and the links are stored by index.
  */
 public class Graph {
 
-    private final Map<String, Map<String, Integer>> nodes;
+    private final NodeTable nodeTable;
+
+    /**
+     * Links of each node, indexed by node index. Key: linked node index, Value: distance
+     */
+    private IntIntMap[] links;
+
+    /**
+     * Modification version, increased by every successful modification
+     */
+    private long version;
 
     /**
      * Initialize a new graph.
      */
     public Graph() {
-        nodes = new HashMap<>();
+        this(16);
+    }
+
+    /**
+     * Initialize a new graph which holds a number of nodes without resizing.
+     *
+     * @param expectedNodes number of nodes expected
+     */
+    public Graph(int expectedNodes) {
+        nodeTable = new NodeTable(expectedNodes);
+        links = new IntIntMap[Math.max(16, expectedNodes)];
     }
 
     /**
@@ -27,9 +54,23 @@ public class Graph {
      * @return True if successfully added; False if node already exists.
      */
     public boolean addNode(String node) {
+        return addNode(node, 0);
+    }
+
+    /**
+     * Add a new node which holds a number of edges without resizing.
+     *
+     * @param node           Name of the new node
+     * @param expectedDegree number of edges expected
+     * @return True if successfully added; False if node already exists.
+     */
+    public boolean addNode(String node, int expectedDegree) {
         if (hasNode(node)) return false;
 
-        nodes.put(node, new HashMap<>());
+        int index = nodeTable.intern(node);
+        if (index == links.length) links = Arrays.copyOf(links, links.length * 2);
+        links[index] = new IntIntMap(expectedDegree);
+        version++;
         return true;
     }
 
@@ -40,12 +81,15 @@ public class Graph {
      * @return True if successfully removed; False if node does not exist.
      */
     public boolean removeNode(String node) {
-        if (!hasNode(node)) return false;
+        int index = nodeTable.indexOf(node);
+        if (index < 0) return false;
 
-        for (String nodeLinked : nodes.get(node).keySet().toArray(new String[0])) {
-            unsetEdge(node, nodeLinked);
+        for (int nodeLinked : links[index].keys()) {
+            links[nodeLinked].remove(index);
         }
-        nodes.remove(node);
+        links[index] = null;
+        nodeTable.release(index);
+        version++;
         return true;
     }
 
@@ -58,10 +102,27 @@ public class Graph {
      * @return True if edge is set successfully; False if node(s) does not exists.
      */
     public boolean setEdge(String nodeA, String nodeB, int distance) {
-        if (!hasNode(nodeA) || !hasNode(nodeB)) return false;
+        int indexA = nodeTable.indexOf(nodeA);
+        int indexB = nodeTable.indexOf(nodeB);
+        if (indexA < 0 || indexB < 0) return false;
+
+        return setEdge(indexA, indexB, distance);
+    }
+
+    /**
+     * Set distance of an edge by node indexes, bidirectionally.
+     *
+     * @param indexA   index of a node
+     * @param indexB   index of another node
+     * @param distance Distance between two edge
+     * @return True if edge is set successfully; False if node(s) does not exists.
+     */
+    public boolean setEdge(int indexA, int indexB, int distance) {
+        if (!hasNode(indexA) || !hasNode(indexB)) return false;
 
-        nodes.get(nodeA).put(nodeB, distance);
-        nodes.get(nodeB).put(nodeA, distance);
+        links[indexA].put(indexB, distance);
+        links[indexB].put(indexA, distance);
+        version++;
         return true;
     }
 
@@ -75,8 +136,11 @@ public class Graph {
     public boolean unsetEdge(String nodeA, String nodeB) {
         if (!hasEdge(nodeA, nodeB)) return false;
 
-        nodes.get(nodeA).remove(nodeB);
-        nodes.get(nodeB).remove(nodeA);
+        int indexA = nodeTable.indexOf(nodeA);
+        int indexB = nodeTable.indexOf(nodeB);
+        links[indexA].remove(indexB);
+        links[indexB].remove(indexA);
+        version++;
         return true;
     }
 
@@ -87,7 +151,17 @@ public class Graph {
      * @return True when node exists; otherwise false
      */
     public boolean hasNode(String node) {
-        return nodes.containsKey(node);
+        return nodeTable.indexOf(node) >= 0;
+    }
+
+    /**
+     * Check if a node index is held by a node.
+     *
+     * @param index the node index to be checked
+     * @return True when node exists; otherwise false
+     */
+    public boolean hasNode(int index) {
+        return index >= 0 && index < links.length && links[index] != null;
     }
 
     /**
@@ -98,10 +172,11 @@ public class Graph {
      * @return True if the two nodes has existing edge; otherwise false
      */
     public boolean hasEdge(String nodeA, String nodeB) {
-        if (!hasNode(nodeA) || !hasNode(nodeB)) return false;
-
-        return getEdgesOfNode(nodeA).contains(nodeB) && getEdgesOfNode(nodeB).contains(nodeA);
+        int indexA = nodeTable.indexOf(nodeA);
+        int indexB = nodeTable.indexOf(nodeB);
+        if (indexA < 0 || indexB < 0) return false;
 
+        return links[indexA].containsKey(indexB);
     }
 
     /**
@@ -112,9 +187,22 @@ public class Graph {
      * @return -1 if the node or edge not exists; otherwise return the distance between the two nodes.
      */
     public int getDistance(String nodeA, String nodeB) {
-        if (!hasEdge(nodeA, nodeB)) return -1;
+        int indexA = nodeTable.indexOf(nodeA);
+        int indexB = nodeTable.indexOf(nodeB);
+        if (indexA < 0 || indexB < 0) return -1;
+
+        return getDistance(indexA, indexB);
+    }
 
-        return nodes.get(nodeA).get(nodeB);
+    /**
+     * Get distance between two nodes by their node indexes, in O(1) without any allocation.
+     *
+     * @param indexA index of a node
+     * @param indexB index of another node
+     * @return -1 if the edge not exists; otherwise return the distance between the two nodes.
+     */
+    public int getDistance(int indexA, int indexB) {
+        return links[indexA].get(indexB, -1);
     }
 
     /**
@@ -123,7 +211,11 @@ public class Graph {
      * @return A set of nodes.
      */
     public Set<String> getAllNodes() {
-        return new HashSet<>(nodes.keySet());
+        Set<String> nodes = new HashSet<>();
+        for (int i = 0; i < nodeTable.capacity(); i++) {
+            if (links[i] != null) nodes.add(nodeTable.nameOf(i));
+        }
+        return nodes;
     }
 
     /**
@@ -133,8 +225,133 @@ public class Graph {
      * @return A set of nodes linked with the node provided; Null if the required node does not exists.
      */
     public Set<String> getEdgesOfNode(String node) {
-        if (!hasNode(node)) return null;
-        return new HashSet<>(nodes.get(node).keySet());
+        int index = nodeTable.indexOf(node);
+        if (index < 0) return null;
+
+        Set<String> nodes = new HashSet<>();
+        links[index].forEach((nodeLinked, distance) -> nodes.add(nodeTable.nameOf(nodeLinked)));
+        return nodes;
+    }
+
+    /**
+     * Visit all linked nodes of a specific node, without copying.
+     * The graph must not be modified during the visit.
+     *
+     * @param node    A node
+     * @param visitor Receives the name and the distance of each linked node
+     * @return True if the node is visited; False if the node does not exists.
+     */
+    public boolean forEachNeighbor(String node, ObjIntConsumer<String> visitor) {
+        int index = nodeTable.indexOf(node);
+        if (index < 0) return false;
+
+        links[index].forEach((nodeLinked, distance) -> visitor.accept(nodeTable.nameOf(nodeLinked), distance));
+        return true;
+    }
+
+    /**
+     * Visit all linked nodes of a specific node by node index, without copying or boxing.
+     * The graph must not be modified during the visit.
+     *
+     * @param index   index of a node
+     * @param visitor Receives the index and the distance of each linked node
+     */
+    public void forEachNeighbor(int index, IntIntMap.EntryVisitor visitor) {
+        links[index].forEach(visitor);
+    }
+
+    /**
+     * Get the number of linked nodes of a specific node.
+     *
+     * @param index index of a node
+     * @return the number of linked nodes
+     */
+    public int degree(int index) {
+        return links[index].size();
+    }
+
+    /**
+     * Get the modification version of the graph.
+     * It increases every time a node or an edge is added, removed or changed.
+     *
+     * @return the modification version
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Get the symbol table which maps node names to node indexes.
+     * It should never be modified.
+     *
+     * @return The node table of the graph
+     */
+    public NodeTable getNodeTable() {
+        return nodeTable;
+    }
+
+    /**
+     * Freeze the current topology into an immutable, array based snapshot.
+     * Later modifications of the graph do not affect the snapshot.
+     * Nodes keep the same indexes as in the node table of the graph.
+     *
+     * @return A snapshot of the graph
+     */
+    public GraphSnapshot snapshot() {
+        String[] names = nodeTable.toArray();
+        int[] offsets = new int[names.length + 1];
+        for (int i = 0; i < names.length; i++) {
+            offsets[i + 1] = offsets[i] + (links[i] == null ? 0 : links[i].size());
+        }
+
+        int[] targets = new int[offsets[names.length]];
+        int[] distances = new int[targets.length];
+        long[] row = new long[0];
+        for (int i = 0; i < names.length; i++) {
+            IntIntMap nodeLinks = links[i];
+            if (nodeLinks == null) continue;
+
+            // Sort the links of each node by index, packed as (index, distance) pairs
+            if (row.length < nodeLinks.size()) row = new long[nodeLinks.size()];
+            int degree = 0;
+            for (int slot = 0; slot < nodeLinks.slotCount(); slot++) {
+                int nodeLinked = nodeLinks.keyAt(slot);
+                if (nodeLinked < 0) continue;
+                row[degree++] = ((long) nodeLinked << 32) | (nodeLinks.valueAt(slot) & 0xFFFFFFFFL);
+            }
+            Arrays.sort(row, 0, degree);
+            for (int j = 0; j < degree; j++) {
+                targets[offsets[i] + j] = (int) (row[j] >>> 32);
+                distances[offsets[i] + j] = (int) row[j];
+            }
+        }
+        return new GraphSnapshot(names, offsets, targets, distances);
+    }
+
+    /**
+     * Write the graph in LSA format.
+     * The text is streamed through a fixed size buffer, so memory use does not depend on the graph size.
+     *
+     * @param writer the writer, which is flushed but not closed
+     * @throws IOException Occurs when error occurs while writing
+     */
+    public void writeTo(Writer writer) throws IOException {
+        LsaWriter lsaWriter = new LsaWriter(writer);
+        for (int i = 0; i < nodeTable.capacity(); i++) {
+            if (links[i] != null) lsaWriter.writeLine(nodeTable.nameOf(i), links[i], nodeTable);
+        }
+        lsaWriter.flush();
+        writer.flush();
+    }
+
+    /**
+     * Write the graph in LSA format, encoded in UTF-8.
+     *
+     * @param channel the channel, which is not closed
+     * @throws IOException Occurs when error occurs while writing
+     */
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        writeTo(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1));
     }
 
     /**
@@ -145,17 +362,14 @@ public class Graph {
      */
     @Override
     public String toString() {
-        StringBuilder builder = new StringBuilder();
-
-        for (String node : getAllNodes()) {
-            builder.append(node).append(": ");
-            for (String edge : getEdgesOfNode(node)) {
-                builder.append(edge).append(':').append(getDistance(node, edge)).append(' ');
-            }
-            builder.append('\n');
+        StringWriter writer = new StringWriter();
+        try {
+            writeTo(writer);
+        } catch (IOException ex) {
+            // StringWriter never throws
+            throw new UncheckedIOException(ex);
         }
-
-        return builder.toString();
+        return writer.toString();
     }
 
     /**
@@ -167,28 +381,7 @@ public class Graph {
      * @throws IOException       Occurs when file not found / error occurs while reading / format error
      */
     public static Graph fromFile(String file) throws SecurityException, IOException {
-        Graph graph = new Graph();
-        BufferedReader reader = new BufferedReader(new FileReader(file));
-        String line;
-
-        while ((line = reader.readLine()) != null) {
-            // Skip empty lines
-            if (line.trim().isEmpty()) continue;
-
-            String[] segment = line.split(" ");
-            String startNode = segment[0].substring(0, segment[0].length() - 1); // Remove colon
-            graph.addNode(startNode);
-
-            for (int i = 1; i < segment.length; i++) {
-                String[] link = segment[i].split(":");
-                if (link.length != 2) throw new IOException("The LSA graph does not have a correct format.");
-
-                graph.addNode(link[0]);
-                graph.setEdge(startNode, link[0], Integer.parseInt(link[1]));
-            }
-        }
-        reader.close();
-        return graph;
+        return LsaParser.parse(Paths.get(file), Runtime.getRuntime().availableProcessors());
     }
 
 }
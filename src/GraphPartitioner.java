@@ -0,0 +1,142 @@
+import java.util.Arrays;
+
+/**
+ * Splits the nodes of a graph into balanced parts with few links between them.
+ * <p>
+ * Nodes are ordered by breadth-first search from a peripheral node of each connected component,
+ * and the order is cut into parts of equal size, so each part is a band of nearby nodes. Nodes are
+ * then moved greedily to the part holding most of their links, as long as the sizes stay within
+ * BALANCE of the average, which lowers the number of cut links. It is a heuristic, in the manner of
+ * a Kernighan-Lin refinement, rather than an exact minimum cut.
+ */
+public class GraphPartitioner {
+
+    /**
+     * Maximum relative difference between the size of a part and the average size
+     */
+    private static final double BALANCE = 0.05;
+
+    /**
+     * Number of refinement passes over all nodes
+     */
+    private static final int REFINEMENT_PASSES = 4;
+
+    /**
+     * Split the nodes of a graph
+     *
+     * @param graph the graph
+     * @param parts number of parts
+     * @return the part of each node index, in range [0, parts); -1 for indexes not held by a node
+     * @throws IllegalArgumentException Exception throws when parts is not positive
+     */
+    public static int[] partition(Graph graph, int parts) throws IllegalArgumentException {
+        if (parts <= 0) throw new IllegalArgumentException("Number of parts must be positive.");
+
+        int capacity = graph.getNodeTable().capacity();
+        int[] partOf = new int[capacity];
+        Arrays.fill(partOf, -1);
+        int[] order = breadthFirstOrder(graph);
+        int nodeCount = order.length;
+        for (int i = 0; i < nodeCount; i++) {
+            partOf[order[i]] = (int) ((long) i * parts / nodeCount);
+        }
+        if (parts > 1) refine(graph, partOf, order, parts);
+        return partOf;
+    }
+
+    /**
+     * Count the links whose nodes are in different parts
+     *
+     * @param graph  the graph
+     * @param partOf the part of each node index
+     * @return the number of cut links
+     */
+    public static int cutSize(Graph graph, int[] partOf) {
+        int[] count = {0};
+        for (int node = 0; node < partOf.length; node++) {
+            if (!graph.hasNode(node)) continue;
+            int part = partOf[node];
+            int current = node;
+            graph.forEachNeighbor(node, (linked, distance) -> {
+                if (linked > current && partOf[linked] != part) count[0]++;
+            });
+        }
+        return count[0];
+    }
+
+    private static int[] breadthFirstOrder(Graph graph) {
+        int capacity = graph.getNodeTable().capacity();
+        int[] order = new int[graph.getNodeTable().size()];
+        int[] queue = new int[order.length];
+        int[] seen = new int[capacity];
+        int orderCount = 0;
+        int stamp = 0;
+
+        for (int start = 0; start < capacity; start++) {
+            if (!graph.hasNode(start) || seen[start] < 0) continue;
+
+            // The last node reached from any node is far from the others, and a good start
+            int peripheral = queue[breadthFirstSearch(graph, start, queue, seen, ++stamp) - 1];
+            int count = breadthFirstSearch(graph, peripheral, queue, seen, ++stamp);
+            for (int i = 0; i < count; i++) {
+                order[orderCount++] = queue[i];
+                seen[queue[i]] = -1;
+            }
+        }
+        return order;
+    }
+
+    /**
+     * @return the number of reached nodes, stored in queue in order of visit.
+     */
+    private static int breadthFirstSearch(Graph graph, int start, int[] queue, int[] seen, int stamp) {
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        seen[start] = stamp;
+        while (head < tail) {
+            int node = queue[head++];
+            int[] end = {tail};
+            graph.forEachNeighbor(node, (linked, distance) -> {
+                if (seen[linked] == stamp || seen[linked] < 0) return;
+                seen[linked] = stamp;
+                queue[end[0]++] = linked;
+            });
+            tail = end[0];
+        }
+        return tail;
+    }
+
+    private static void refine(Graph graph, int[] partOf, int[] nodes, int parts) {
+        double average = (double) nodes.length / parts;
+        int maxSize = (int) Math.ceil(average * (1 + BALANCE));
+        int minSize = (int) Math.floor(average * (1 - BALANCE));
+        int[] sizes = new int[parts];
+        for (int node : nodes) {
+            sizes[partOf[node]]++;
+        }
+
+        int[] links = new int[parts];
+        for (int pass = 0; pass < REFINEMENT_PASSES; pass++) {
+            boolean moved = false;
+            for (int node : nodes) {
+                int current = partOf[node];
+                graph.forEachNeighbor(node, (linked, distance) -> links[partOf[linked]]++);
+
+                int best = current;
+                for (int part = 0; part < parts; part++) {
+                    if (links[part] > links[best] && sizes[part] < maxSize) best = part;
+                }
+                if (best != current && sizes[current] > minSize) {
+                    partOf[node] = best;
+                    sizes[current]--;
+                    sizes[best]++;
+                    moved = true;
+                }
+                graph.forEachNeighbor(node, (linked, distance) -> links[partOf[linked]] = 0);
+                links[current] = 0;
+            }
+            if (!moved) break;
+        }
+    }
+}
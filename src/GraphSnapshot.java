@@ -0,0 +1,168 @@
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An immutable snapshot of a Graph in compressed sparse row (CSR) layout.
+ * <p>
+ * Nodes are identified by the same indexes as in the NodeTable of the graph, in range [0, size).
+ * Indexes not held by any node have no name and no link. The links of node i are stored in
+ * the edge slots [edgeStart(i), edgeEnd(i)) of two flat arrays holding the linked node and
+ * the distance, sorted by linked node. As the graph is bidirectional, every edge occupies
+ * one slot in each of its two nodes.
+ * <p>
+ * A snapshot is never modified after creation, so it can be shared between computations
+ * without any locking. Use {@link Graph#snapshot()} to create one.
+ */
+public class GraphSnapshot {
+
+    private final String[] names;
+    private final Map<String, Integer> indexes;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] distances;
+    private final int maxDistance;
+
+    /**
+     * Create a snapshot from CSR arrays. The arrays are owned by the snapshot afterwards.
+     *
+     * @param names     name of each node index, null if the index is not held by a node
+     * @param offsets   edge slot offsets, of length names.length + 1
+     * @param targets   linked node of each edge slot, sorted within each node
+     * @param distances distance of each edge slot
+     */
+    GraphSnapshot(String[] names, int[] offsets, int[] targets, int[] distances) {
+        this.names = names;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.distances = distances;
+
+        // Built once, so lookups from any number of threads need no lock
+        indexes = new HashMap<>(names.length * 2);
+        for (int i = 0; i < names.length; i++) {
+            if (names[i] != null) indexes.put(names[i], i);
+        }
+
+        int max = 0;
+        for (int distance : distances) {
+            max = Math.max(max, distance);
+        }
+        maxDistance = max;
+    }
+
+    /**
+     * @return the upper bound of node indexes.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @return the number of edge slots, which is twice the number of links.
+     */
+    public int getEdgeSlotCount() {
+        return targets.length;
+    }
+
+    /**
+     * @return the longest distance among all links, or 0 if there is no link.
+     */
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    /**
+     * Get the index of a node.
+     *
+     * @param node name of the node
+     * @return the index of the node; -1 if the node does not exist.
+     */
+    public int indexOf(String node) {
+        Integer index = indexes.get(node);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Get the name of a node.
+     *
+     * @param index index of the node
+     * @return the name of the node; Null if no node holds this index.
+     */
+    public String getName(int index) {
+        return names[index];
+    }
+
+    /**
+     * @param node index of the node
+     * @return the number of links of the node.
+     */
+    public int degree(int node) {
+        return offsets[node + 1] - offsets[node];
+    }
+
+    /**
+     * @param node index of the node
+     * @return the first edge slot of the node.
+     */
+    public int edgeStart(int node) {
+        return offsets[node];
+    }
+
+    /**
+     * @param node index of the node
+     * @return the edge slot right after the last edge slot of the node.
+     */
+    public int edgeEnd(int node) {
+        return offsets[node + 1];
+    }
+
+    /**
+     * @param edge an edge slot
+     * @return index of the node linked by the edge slot.
+     */
+    public int edgeTarget(int edge) {
+        return targets[edge];
+    }
+
+    /**
+     * @param edge an edge slot
+     * @return distance of the edge slot.
+     */
+    public int edgeDistance(int edge) {
+        return distances[edge];
+    }
+
+    /**
+     * Get distance between two nodes.
+     *
+     * @param nodeA index of a node
+     * @param nodeB index of another node
+     * @return -1 if the edge not exists; otherwise return the distance between the two nodes.
+     */
+    public int getDistance(int nodeA, int nodeB) {
+        int edge = findEdge(nodeA, nodeB);
+        return edge < 0 ? -1 : distances[edge];
+    }
+
+    /**
+     * Find the edge slot of a link, by binary search in the slots of the first node.
+     *
+     * @param nodeA index of a node
+     * @param nodeB index of another node
+     * @return the edge slot of nodeA linking nodeB; -1 if the edge not exists.
+     */
+    public int findEdge(int nodeA, int nodeB) {
+        int low = offsets[nodeA];
+        int high = offsets[nodeA + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (targets[mid] < nodeB) {
+                low = mid + 1;
+            } else if (targets[mid] > nodeB) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+}
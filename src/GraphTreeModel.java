@@ -2,19 +2,41 @@ import javax.swing.event.TreeModelEvent;
 import javax.swing.event.TreeModelListener;
 import javax.swing.tree.TreeModel;
 import javax.swing.tree.TreePath;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 
 /**
  * This class implements the TreeModel which is used to interact with javax's JTree
  * for interactive displaying and editing of nodes and links
  * This class bridges the gap between our `Graph` model to the JTree's model
+ * <p>
+ * The node names and the links of each displayed node are kept sorted, and updated on each
+ * modification, which is reported to JTree as inserted, removed or changed children only.
  */
 public class GraphTreeModel implements TreeModel {
 
+    /**
+     * Number of source nodes whose computed result is kept for the current topology
+     */
+    private static final int ROUTE_CACHE_SIZE = 64;
+
     private Graph graph;
     private List<TreeModelListener> treeModelListeners = new ArrayList<>();
+    private final RouteCache routeCache = new RouteCache(ROUTE_CACHE_SIZE);
+
+    /**
+     * Node names in order
+     */
+    private final List<String> sortedNodes = new ArrayList<>();
+    private final Root root = new Root(Collections.unmodifiableList(sortedNodes));
+
+    /**
+     * Nodes which have been displayed, with their links in order
+     */
+    private final Map<String, Node> nodeIndex = new HashMap<>();
 
     /**
      * Construct the TreeModel to be used with a JTree
@@ -39,6 +61,22 @@ public class GraphTreeModel implements TreeModel {
             this.distance = distance;
         }
 
+        /**
+         * Edges are the same tree node whatever their distance, so a saved path to a link still
+         * matches it after its distance is changed, which is notified by treeNodesChanged.
+         */
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Edge)) return false;
+            Edge edge = (Edge) o;
+            return srcNodeName.equals(edge.srcNodeName) && destNodeName.equals(edge.destNodeName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(srcNodeName, destNodeName);
+        }
+
         @Override
         public String toString() {
             return destNodeName + " : " + distance;
@@ -48,14 +86,17 @@ public class GraphTreeModel implements TreeModel {
     /**
      * Exposed structure of the a node of the graph (See Graph)
      * It will be displayed on the UI as a router
+     * The same instance is kept as long as the node exists, and its linked nodes are kept in order
      */
     public static class Node {
         public final String name;
-        public final String[] edges;
+        public final List<String> edges;
+        private final List<String> sortedEdges;
 
-        public Node(String name, String[] edges) {
+        private Node(String name, List<String> sortedEdges) {
             this.name = name;
-            this.edges = edges;
+            this.sortedEdges = sortedEdges;
+            this.edges = Collections.unmodifiableList(sortedEdges);
         }
 
         @Override
@@ -66,13 +107,13 @@ public class GraphTreeModel implements TreeModel {
 
     /**
      * The root of the graph as required by JTree
-     * Stores all nodes in a graph for display
+     * Stores all nodes in a graph for display, in order
      * The root itself will be hidden from the UI
      */
     public static class Root {
-        public final String[] nodes;
+        public final List<String> nodes;
 
-        public Root(String[] nodes) {
+        private Root(List<String> nodes) {
             this.nodes = nodes;
         }
 
@@ -86,23 +127,18 @@ public class GraphTreeModel implements TreeModel {
 
     @Override
     public Object getRoot() {
-        Root root = new Root(graph.getAllNodes().toArray(new String[0]));
-        Arrays.sort(root.nodes);
         return root;
     }
 
     @Override
     public Object getChild(Object parent, int index) {
         if (parent instanceof Root) {
-            String nodeName = ((Root) parent).nodes[index];
-            Node node = new Node(nodeName, graph.getEdgesOfNode(nodeName).toArray(new String[0]));
-            Arrays.sort(node.edges);
-            return node;
+            return getNode(((Root) parent).nodes.get(index));
         }
         if (parent instanceof Node) {
             Node node = (Node) parent;
             String srcNodeName = node.name;
-            String destNodeName = node.edges[index];
+            String destNodeName = node.edges.get(index);
             return new Edge(srcNodeName, destNodeName, graph.getDistance(srcNodeName, destNodeName));
         }
         throw new UnsupportedOperationException("Get child of unsupported object");
@@ -110,8 +146,8 @@ public class GraphTreeModel implements TreeModel {
 
     @Override
     public int getChildCount(Object parent) {
-        if (parent instanceof Root) return ((Root) parent).nodes.length;
-        if (parent instanceof Node) return ((Node) parent).edges.length;
+        if (parent instanceof Root) return ((Root) parent).nodes.size();
+        if (parent instanceof Node) return ((Node) parent).edges.size();
         if (parent instanceof Edge) return 0;
         throw new UnsupportedOperationException("Get child count of unsupported object");
     }
@@ -129,10 +165,10 @@ public class GraphTreeModel implements TreeModel {
     @Override
     public int getIndexOfChild(Object parent, Object child) {
         if (parent instanceof Root) {
-            return Arrays.binarySearch(((Root) parent).nodes, ((Node) child).name);
+            return Math.max(-1, Collections.binarySearch(((Root) parent).nodes, ((Node) child).name));
         }
         if (parent instanceof Node) {
-            return Arrays.binarySearch(((Node) parent).edges, ((Edge) child).destNodeName);
+            return Math.max(-1, Collections.binarySearch(((Node) parent).edges, ((Edge) child).destNodeName));
         }
         throw new UnsupportedOperationException("Get index of child of unsupported object");
     }
@@ -160,7 +196,10 @@ public class GraphTreeModel implements TreeModel {
      */
     public boolean addNode(String node) {
         if (graph.addNode(node)) {
-            onTreeStructuredChanged();
+            routeCache.invalidate();
+            int index = -Collections.binarySearch(sortedNodes, node) - 1;
+            sortedNodes.add(index, node);
+            fireNodesInserted(new TreePath(root), index, getNode(node));
             return true;
         } else {
             return false;
@@ -174,8 +213,17 @@ public class GraphTreeModel implements TreeModel {
      * @return true if successful, false if the node does not exist
      */
     public boolean removeNode(String node) {
+        Map<String, Integer> linkedNodes = new HashMap<>();
+        graph.forEachNeighbor(node, (linkedNode, distance) -> linkedNodes.put(linkedNode, distance));
         if (graph.removeNode(node)) {
-            onTreeStructuredChanged();
+            routeCache.invalidate();
+            for (Map.Entry<String, Integer> linked : linkedNodes.entrySet()) {
+                if (!linked.getKey().equals(node)) removeEdge(linked.getKey(), node, linked.getValue());
+            }
+            int index = Collections.binarySearch(sortedNodes, node);
+            sortedNodes.remove(index);
+            Node removed = nodeIndex.remove(node);
+            fireNodesRemoved(new TreePath(root), index, removed != null ? removed : new Node(node, new ArrayList<>()));
             return true;
         } else {
             return false;
@@ -193,8 +241,11 @@ public class GraphTreeModel implements TreeModel {
      * @return true if successful, false if either node does not exist
      */
     public boolean addLink(String nodeA, String nodeB, int distance) {
+        boolean existed = graph.hasEdge(nodeA, nodeB);
         if (graph.setEdge(nodeA, nodeB, distance)) {
-            onTreeStructuredChanged();
+            routeCache.invalidate();
+            setEdge(nodeA, nodeB, distance, existed);
+            if (!nodeA.equals(nodeB)) setEdge(nodeB, nodeA, distance, existed);
             return true;
         } else {
             return false;
@@ -210,8 +261,11 @@ public class GraphTreeModel implements TreeModel {
      * @return true if successful, false if either node does not exist
      */
     public boolean removeLink(String nodeA, String nodeB) {
+        int distance = graph.getDistance(nodeA, nodeB);
         if (graph.unsetEdge(nodeA, nodeB)) {
-            onTreeStructuredChanged();
+            routeCache.invalidate();
+            removeEdge(nodeA, nodeB, distance);
+            if (!nodeA.equals(nodeB)) removeEdge(nodeB, nodeA, distance);
             return true;
         } else {
             return false;
@@ -229,17 +283,46 @@ public class GraphTreeModel implements TreeModel {
         return graph.hasEdge(nodeA, nodeB);
     }
 
+    /**
+     * Gets the tree path of a node
+     *
+     * @param node The name of the node
+     * @return the path; Null if the node does not exist
+     */
+    public TreePath getNodePath(String node) {
+        if (!graph.hasNode(node)) return null;
+        return new TreePath(new Object[]{root, getNode(node)});
+    }
+
+    /**
+     * Gets the tree path of a link, under its first node
+     *
+     * @param nodeA First node
+     * @param nodeB Second node
+     * @return the path; Null if the link does not exist
+     */
+    public TreePath getLinkPath(String nodeA, String nodeB) {
+        if (!graph.hasEdge(nodeA, nodeB)) return null;
+        return getNodePath(nodeA).pathByAddingChild(new Edge(nodeA, nodeB, graph.getDistance(nodeA, nodeB)));
+    }
+
     /**
      * Calls the internal graph structure to save a graph
+     * The graph is saved in the binary format if the path ends with .lsb, otherwise in LSA format
      *
      * @param path The path to be saved
      * @return true if successful
      */
     public boolean saveFile(String path) {
         try {
-            FileWriter writer = new FileWriter(path);
-            writer.write(graph.toString());
-            writer.close();
+            if (LsbFormat.matches(path)) {
+                LsbFormat.write(graph, Paths.get(path));
+                return true;
+            }
+            try (FileChannel channel = FileChannel.open(Paths.get(path),
+                    StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                graph.writeTo(channel);
+            }
             return true;
         } catch (IOException ex) {
             return false;
@@ -248,13 +331,14 @@ public class GraphTreeModel implements TreeModel {
 
     /**
      * Calls the internal graph structure to load a graph
+     * The graph is loaded in the binary format if the path ends with .lsb, otherwise in LSA format
      *
      * @param path The path to the graph
      * @return true if successful
      */
     public boolean loadFile(String path) {
         try {
-            graph = Graph.fromFile(path);
+            graph = LsbFormat.matches(path) ? LsbFormat.read(Paths.get(path)) : Graph.fromFile(path);
             onTreeStructuredChanged();
             return true;
         } catch (IOException ignored) {
@@ -280,8 +364,86 @@ public class GraphTreeModel implements TreeModel {
         return graph;
     }
 
+    /**
+     * Gets the cache of computed results of the internal graph structure
+     * It is invalidated by every modification done through this model
+     *
+     * @return The route cache
+     */
+    public RouteCache getRouteCache() {
+        return routeCache;
+    }
+
+    /**
+     * Get the displayed node, whose links are sorted on first use
+     */
+    private Node getNode(String name) {
+        Node node = nodeIndex.get(name);
+        if (node == null) {
+            List<String> edges = new ArrayList<>(graph.getEdgesOfNode(name));
+            Collections.sort(edges);
+            node = new Node(name, edges);
+            nodeIndex.put(name, node);
+        }
+        return node;
+    }
+
+    private void setEdge(String srcNodeName, String destNodeName, int distance, boolean existed) {
+        Node node = nodeIndex.get(srcNodeName);
+        if (node == null) return;
+
+        Edge edge = new Edge(srcNodeName, destNodeName, distance);
+        TreePath path = new TreePath(new Object[]{root, node});
+        int index = Collections.binarySearch(node.sortedEdges, destNodeName);
+        if (existed) {
+            fireNodesChanged(path, index, edge);
+        } else {
+            index = -index - 1;
+            node.sortedEdges.add(index, destNodeName);
+            fireNodesInserted(path, index, edge);
+        }
+    }
+
+    private void removeEdge(String srcNodeName, String destNodeName, int distance) {
+        Node node = nodeIndex.get(srcNodeName);
+        if (node == null) return;
+
+        int index = Collections.binarySearch(node.sortedEdges, destNodeName);
+        node.sortedEdges.remove(index);
+        fireNodesRemoved(new TreePath(new Object[]{root, node}), index, new Edge(srcNodeName, destNodeName, distance));
+    }
+
+    private void fireNodesChanged(TreePath parent, int index, Object child) {
+        TreeModelEvent e = new TreeModelEvent(this, parent, new int[]{index}, new Object[]{child});
+        for (TreeModelListener listener : treeModelListeners) {
+            listener.treeNodesChanged(e);
+        }
+    }
+
+    private void fireNodesInserted(TreePath parent, int index, Object child) {
+        TreeModelEvent e = new TreeModelEvent(this, parent, new int[]{index}, new Object[]{child});
+        for (TreeModelListener listener : treeModelListeners) {
+            listener.treeNodesInserted(e);
+        }
+    }
+
+    private void fireNodesRemoved(TreePath parent, int index, Object child) {
+        TreeModelEvent e = new TreeModelEvent(this, parent, new int[]{index}, new Object[]{child});
+        for (TreeModelListener listener : treeModelListeners) {
+            listener.treeNodesRemoved(e);
+        }
+    }
+
+    /**
+     * Rebuild the node index of a replaced graph
+     */
     private void onTreeStructuredChanged() {
-        TreeModelEvent e = new TreeModelEvent(this, new Object[]{getRoot()});
+        routeCache.invalidate();
+        nodeIndex.clear();
+        sortedNodes.clear();
+        sortedNodes.addAll(graph.getAllNodes());
+        Collections.sort(sortedNodes);
+        TreeModelEvent e = new TreeModelEvent(this, new Object[]{root});
         for (TreeModelListener listener : treeModelListeners) {
             listener.treeStructureChanged(e);
         }
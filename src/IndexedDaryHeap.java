@@ -0,0 +1,148 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An indexed d-ary min heap.
+ * <p>
+ * The position of every node inside the heap is tracked so that decrease-key is done in place
+ * in O(log_d n), instead of inserting duplicated entries. A wider heap trades a few more
+ * comparisons in poll for a shallower tree and fewer cache misses on decrease-key.
+ */
+public class IndexedDaryHeap implements Frontier {
+
+    /**
+     * Arity used when none is specified
+     */
+    public static final int DEFAULT_ARITY = 4;
+
+    private final int arity;
+    private final int[] heap;
+    private final int[] position;
+    private final int[] priority;
+    private int size;
+
+    /**
+     * Create a heap with the default arity
+     *
+     * @param capacity number of nodes, all node indexes must be lower than it
+     */
+    public IndexedDaryHeap(int capacity) {
+        this(capacity, DEFAULT_ARITY);
+    }
+
+    /**
+     * Create a heap
+     *
+     * @param capacity number of nodes, all node indexes must be lower than it
+     * @param arity    number of children of each heap entry
+     * @throws IllegalArgumentException Exception throws when arity is lower than 2
+     */
+    public IndexedDaryHeap(int capacity, int arity) throws IllegalArgumentException {
+        if (arity < 2) throw new IllegalArgumentException("Arity of heap must be at least 2.");
+        this.arity = arity;
+        heap = new int[capacity];
+        position = new int[capacity];
+        priority = new int[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * Get a factory which creates heaps of a specific arity
+     *
+     * @param arity number of children of each heap entry
+     * @return the factory
+     */
+    public static Frontier.Factory factory(int arity) {
+        return capacity -> new IndexedDaryHeap(capacity, arity);
+    }
+
+    @Override
+    public boolean offer(int node, int priority) {
+        int index = position[node];
+        if (index < 0) {
+            index = size++;
+            heap[index] = node;
+            position[node] = index;
+        } else if (this.priority[node] <= priority) {
+            return false;
+        }
+        this.priority[node] = priority;
+        siftUp(index);
+        return true;
+    }
+
+    @Override
+    public int poll() {
+        if (size == 0) throw new NoSuchElementException("Frontier is empty.");
+
+        int top = heap[0];
+        position[top] = -1;
+        if (--size > 0) {
+            heap[0] = heap[size];
+            position[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    @Override
+    public boolean contains(int node) {
+        return position[node] >= 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int index) {
+        int node = heap[index];
+        int key = priority[node];
+        while (index > 0) {
+            int parentIndex = (index - 1) / arity;
+            int parent = heap[parentIndex];
+            if (priority[parent] <= key) break;
+            heap[index] = parent;
+            position[parent] = index;
+            index = parentIndex;
+        }
+        heap[index] = node;
+        position[node] = index;
+    }
+
+    private void siftDown(int index) {
+        int node = heap[index];
+        int key = priority[node];
+        while (true) {
+            int firstChild = index * arity + 1;
+            if (firstChild >= size) break;
+
+            // Find the smallest child
+            int lastChild = Math.min(firstChild + arity, size);
+            int minIndex = firstChild;
+            int minKey = priority[heap[firstChild]];
+            for (int i = firstChild + 1; i < lastChild; i++) {
+                int childKey = priority[heap[i]];
+                if (childKey < minKey) {
+                    minIndex = i;
+                    minKey = childKey;
+                }
+            }
+
+            if (minKey >= key) break;
+            heap[index] = heap[minIndex];
+            position[heap[index]] = index;
+            index = minIndex;
+        }
+        heap[index] = node;
+        position[node] = index;
+    }
+}
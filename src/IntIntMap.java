@@ -0,0 +1,210 @@
+import java.util.Arrays;
+
+/**
+ * A hash map from non-negative int keys to int values, without boxing.
+ * <p>
+ * Entries are stored in two parallel arrays using open addressing with linear probing.
+ * Removal shifts the following entries back instead of leaving tombstones, so lookups
+ * never slow down after many removals.
+ */
+public class IntIntMap {
+
+    private static final int EMPTY = -1;
+    private static final int MIN_CAPACITY = 4;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    /**
+     * Visitor of the entries of a map
+     */
+    public interface EntryVisitor {
+        /**
+         * @param key   key of the entry
+         * @param value value of the entry
+         */
+        void visit(int key, int value);
+    }
+
+    /**
+     * Create an empty map.
+     */
+    public IntIntMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * Create an empty map which holds a number of entries without resizing.
+     *
+     * @param expectedSize number of entries expected
+     */
+    public IntIntMap(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) capacity <<= 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Get the value of a key.
+     *
+     * @param key          the key
+     * @param defaultValue value returned when the key does not exist
+     * @return the value of the key; defaultValue if the key does not exist.
+     */
+    public int get(int key, int defaultValue) {
+        for (int slot = hash(key); ; slot = (slot + 1) & mask) {
+            int current = keys[slot];
+            if (current == key) return values[slot];
+            if (current == EMPTY) return defaultValue;
+        }
+    }
+
+    /**
+     * Check if the key exists.
+     *
+     * @param key the key
+     * @return True if the key exists; otherwise false
+     */
+    public boolean containsKey(int key) {
+        for (int slot = hash(key); ; slot = (slot + 1) & mask) {
+            int current = keys[slot];
+            if (current == key) return true;
+            if (current == EMPTY) return false;
+        }
+    }
+
+    /**
+     * Set the value of a key.
+     *
+     * @param key   the key, must not be negative
+     * @param value the value
+     * @return True if the key is newly added; False if the value of an existing key is replaced.
+     */
+    public boolean put(int key, int value) {
+        int slot = hash(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) resize(keys.length * 2);
+        return true;
+    }
+
+    /**
+     * Remove a key.
+     *
+     * @param key the key
+     * @return True if the key is removed; False if the key does not exist.
+     */
+    public boolean remove(int key) {
+        int slot = hash(key);
+        while (keys[slot] != key) {
+            if (keys[slot] == EMPTY) return false;
+            slot = (slot + 1) & mask;
+        }
+
+        // Shift back following entries of the probe sequence into the hole
+        int hole = slot;
+        for (slot = (hole + 1) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            int home = hash(keys[slot]);
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                keys[hole] = keys[slot];
+                values[hole] = values[slot];
+                hole = slot;
+            }
+        }
+        keys[hole] = EMPTY;
+        size--;
+        return true;
+    }
+
+    /**
+     * @return the number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Visit all entries without any copying.
+     * The map must not be modified during the visit.
+     *
+     * @param visitor visitor of the entries
+     */
+    public void forEach(EntryVisitor visitor) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) visitor.visit(keys[slot], values[slot]);
+        }
+    }
+
+    /**
+     * Get the number of slots, for iterating the entries with keyAt and valueAt.
+     *
+     * @return the number of slots
+     */
+    public int slotCount() {
+        return keys.length;
+    }
+
+    /**
+     * @param slot a slot in range [0, slotCount())
+     * @return the key stored in the slot; -1 if the slot is empty.
+     */
+    public int keyAt(int slot) {
+        return keys[slot];
+    }
+
+    /**
+     * @param slot a non-empty slot in range [0, slotCount())
+     * @return the value stored in the slot.
+     */
+    public int valueAt(int slot) {
+        return values[slot];
+    }
+
+    /**
+     * Copy all keys into an array.
+     *
+     * @return an array of the keys, in no particular order
+     */
+    public int[] keys() {
+        int[] result = new int[size];
+        int count = 0;
+        for (int key : keys) {
+            if (key != EMPTY) result[count++] = key;
+        }
+        return result;
+    }
+
+    private int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int slot = hash(oldKeys[i]);
+            while (keys[slot] != EMPTY) slot = (slot + 1) & mask;
+            keys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+        }
+    }
+}
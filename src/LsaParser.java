@@ -0,0 +1,370 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Parser of the LSA text format, e.g. {@code t: u:2 v:4 y:7}
+ * <p>
+ * Each line lists a node followed by a colon, then its links as {@code node:distance}
+ * separated by spaces. The file is memory mapped and scanned byte by byte, without
+ * creating a String per line or per token: only node names are decoded, once per chunk.
+ * <p>
+ * Large files are split into chunks at line boundaries and the chunks are parsed in parallel.
+ * The chunks are then merged in file order, so the resulting graph is identical to the one
+ * from a sequential parse.
+ */
+public class LsaParser {
+
+    /**
+     * Files are not split into chunks smaller than this size
+     */
+    static final int MIN_CHUNK_SIZE = 4 << 20;
+
+    /**
+     * Upper limit of a chunk, a memory mapped region cannot exceed 2GB
+     */
+    private static final int MAX_CHUNK_SIZE = 1 << 30;
+
+    private static final String FORMAT_ERROR = "The LSA graph does not have a correct format";
+
+    /**
+     * Parse a LSA file
+     *
+     * @param file        path of the file
+     * @param parallelism number of threads to be used
+     * @return A new graph created from the file provided
+     * @throws IOException Occurs when file not found / error occurs while reading / format error
+     */
+    public static Graph parse(Path file, int parallelism) throws IOException {
+        return parse(file, parallelism, MIN_CHUNK_SIZE);
+    }
+
+    /**
+     * Parse a LSA file with a specific minimum chunk size
+     */
+    static Graph parse(Path file, int parallelism, int minChunkSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] bounds = splitLines(channel, parallelism, minChunkSize);
+            int chunkCount = bounds.length - 1;
+
+            List<Callable<Chunk>> tasks = new ArrayList<>();
+            for (int i = 0; i < chunkCount; i++) {
+                long start = bounds[i];
+                long size = bounds[i + 1] - start;
+                if (size > MAX_CHUNK_SIZE) throw new IOException("Line is too long near byte " + start + ".");
+                tasks.add(() -> new Chunk(channel.map(FileChannel.MapMode.READ_ONLY, start, size)).parse());
+            }
+            return merge(invokeAll(tasks, Math.min(parallelism, chunkCount)));
+        }
+    }
+
+    /**
+     * Find the chunk boundaries, each boundary right after a line feed.
+     *
+     * @return the start of each chunk, followed by the file size
+     */
+    private static long[] splitLines(FileChannel channel, int parallelism, int minChunkSize) throws IOException {
+        long size = channel.size();
+        long chunkCount = Math.max(1, Math.min(parallelism, size / minChunkSize));
+        chunkCount = Math.max(chunkCount, (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE);
+
+        long[] bounds = new long[(int) chunkCount + 1];
+        int count = 1;
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        for (int i = 1; i < chunkCount; i++) {
+            long position = Math.max(bounds[count - 1], size / chunkCount * i);
+            position = nextLineStart(channel, position, buffer);
+            if (position > bounds[count - 1] && position < size) bounds[count++] = position;
+        }
+        bounds[count++] = size;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, ByteBuffer buffer) throws IOException {
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) return channel.size();
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') return position + i + 1;
+            }
+            position += read;
+        }
+    }
+
+    private static List<Chunk> invokeAll(List<Callable<Chunk>> tasks, int parallelism) throws IOException {
+        List<Chunk> chunks = new ArrayList<>();
+        if (tasks.size() == 1) {
+            // Not worth a thread pool
+            try {
+                chunks.add(tasks.get(0).call());
+                return chunks;
+            } catch (IOException | RuntimeException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                throw new IOException(ex);
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (Future<Chunk> result : pool.invokeAll(tasks)) {
+                chunks.add(result.get());
+            }
+            return chunks;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Parsing is interrupted.", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) throw (IOException) ex.getCause();
+            throw new IOException(ex.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Add the nodes and links of every chunk into a graph, in file order.
+     */
+    private static Graph merge(List<Chunk> chunks) throws IOException {
+        // Report the first error in the file, with the line number counted across chunks
+        int lineOffset = 0;
+        for (Chunk chunk : chunks) {
+            if (chunk.errorLine > 0) {
+                throw new IOException(FORMAT_ERROR + " at line " + (lineOffset + chunk.errorLine) + ".");
+            }
+            lineOffset += chunk.lineCount;
+        }
+
+        Graph graph = new Graph();
+        NodeTable nodeTable = graph.getNodeTable();
+        for (Chunk chunk : chunks) {
+            // Local indexes are in order of first appearance, so nodes are added in file order
+            int[] indexes = new int[chunk.names.size()];
+            for (int i = 0; i < indexes.length; i++) {
+                graph.addNode(chunk.names.get(i));
+                indexes[i] = nodeTable.indexOf(chunk.names.get(i));
+            }
+            for (int i = 0; i < chunk.linkCount; i++) {
+                graph.setEdge(indexes[chunk.links[3 * i]], indexes[chunk.links[3 * i + 1]], chunk.links[3 * i + 2]);
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Parsing state and result of a chunk of lines.
+     * Nodes are given local indexes, and links are stored as (node, linked node, distance) triples.
+     */
+    private static class Chunk {
+        private final MappedByteBuffer buffer;
+        private final int limit;
+        private int position;
+
+        private final List<String> names = new ArrayList<>();
+        private final NameInterner interner = new NameInterner();
+        private int[] links = new int[3 * 64];
+        private int linkCount;
+
+        private int lineCount;
+        private int errorLine;
+
+        private Chunk(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+            this.limit = buffer.limit();
+        }
+
+        private Chunk parse() {
+            while (position < limit) {
+                lineCount++;
+                if (!parseLine()) {
+                    errorLine = lineCount;
+                    return this;
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Parse a line and move to the start of next line.
+         *
+         * @return True if the line is valid; otherwise false
+         */
+        private boolean parseLine() {
+            skipSpaces();
+            if (atLineEnd()) return skipLineFeed();
+
+            // The node: name followed by a colon
+            int start = position;
+            int end = tokenEnd();
+            if (end - start < 2 || buffer.get(end - 1) != ':') return false;
+            int node = intern(start, end - 1);
+            position = end;
+
+            // The links: name:distance
+            while (true) {
+                skipSpaces();
+                if (atLineEnd()) return skipLineFeed();
+
+                start = position;
+                end = tokenEnd();
+                int colon = -1;
+                for (int i = start; i < end; i++) {
+                    if (buffer.get(i) != ':') continue;
+                    if (colon >= 0) return false;
+                    colon = i;
+                }
+                if (colon <= start || colon == end - 1) return false;
+
+                long distance = parseInt(colon + 1, end);
+                if (distance == Long.MIN_VALUE) return false;
+                addLink(node, intern(start, colon), (int) distance);
+                position = end;
+            }
+        }
+
+        private void skipSpaces() {
+            while (position < limit) {
+                byte b = buffer.get(position);
+                if (b != ' ' && b != '\t' && b != '\r') break;
+                position++;
+            }
+        }
+
+        private boolean atLineEnd() {
+            return position >= limit || buffer.get(position) == '\n';
+        }
+
+        private boolean skipLineFeed() {
+            if (position < limit) position++;
+            return true;
+        }
+
+        private int tokenEnd() {
+            int end = position;
+            while (end < limit) {
+                byte b = buffer.get(end);
+                if (b == ' ' || b == '\t' || b == '\r' || b == '\n') break;
+                end++;
+            }
+            return end;
+        }
+
+        /**
+         * Parse a decimal int.
+         *
+         * @return the value; Long.MIN_VALUE if it is not a valid int.
+         */
+        private long parseInt(int start, int end) {
+            boolean negative = buffer.get(start) == '-';
+            if (negative) start++;
+            if (start == end) return Long.MIN_VALUE;
+
+            long value = 0;
+            for (int i = start; i < end; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) return Long.MIN_VALUE;
+                value = value * 10 + digit;
+                if (value > (long) Integer.MAX_VALUE + 1) return Long.MIN_VALUE;
+            }
+            if (negative) value = -value;
+            if (value > Integer.MAX_VALUE) return Long.MIN_VALUE;
+            return value;
+        }
+
+        private int intern(int start, int end) {
+            int index = interner.find(buffer, start, end);
+            if (index < 0) {
+                byte[] bytes = new byte[end - start];
+                for (int i = 0; i < bytes.length; i++) {
+                    bytes[i] = buffer.get(start + i);
+                }
+                index = names.size();
+                names.add(new String(bytes, StandardCharsets.UTF_8));
+                interner.add(bytes, index);
+            }
+            return index;
+        }
+
+        private void addLink(int node, int linkedNode, int distance) {
+            if (3 * linkCount == links.length) links = Arrays.copyOf(links, links.length * 2);
+            links[3 * linkCount] = node;
+            links[3 * linkCount + 1] = linkedNode;
+            links[3 * linkCount + 2] = distance;
+            linkCount++;
+        }
+    }
+
+    /**
+     * Hash table from the bytes of a name to its local index.
+     * Names are looked up directly from the mapped buffer, so no String is created for a known name.
+     */
+    private static class NameInterner {
+        private byte[][] keys = new byte[64][];
+        private int[] hashes = new int[64];
+        private int[] indexes = new int[64];
+        private int size;
+
+        private int find(ByteBuffer buffer, int start, int end) {
+            int hash = hash(buffer, start, end);
+            int mask = keys.length - 1;
+            for (int slot = hash & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+                if (hashes[slot] == hash && matches(keys[slot], buffer, start, end)) return indexes[slot];
+            }
+            return -1;
+        }
+
+        private void add(byte[] key, int index) {
+            if (++size * 2 > keys.length) resize();
+            insert(key, hash(ByteBuffer.wrap(key), 0, key.length), index);
+        }
+
+        private void insert(byte[] key, int hash, int index) {
+            int mask = keys.length - 1;
+            int slot = hash & mask;
+            while (keys[slot] != null) slot = (slot + 1) & mask;
+            keys[slot] = key;
+            hashes[slot] = hash;
+            indexes[slot] = index;
+        }
+
+        private void resize() {
+            byte[][] oldKeys = keys;
+            int[] oldHashes = hashes;
+            int[] oldIndexes = indexes;
+            keys = new byte[oldKeys.length * 2][];
+            hashes = new int[oldKeys.length * 2];
+            indexes = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) insert(oldKeys[i], oldHashes[i], oldIndexes[i]);
+            }
+        }
+
+        private static int hash(ByteBuffer buffer, int start, int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + buffer.get(i);
+            }
+            return hash ^ (hash >>> 16);
+        }
+
+        private static boolean matches(byte[] key, ByteBuffer buffer, int start, int end) {
+            if (key.length != end - start) return false;
+            for (int i = 0; i < key.length; i++) {
+                if (key[i] != buffer.get(start + i)) return false;
+            }
+            return true;
+        }
+    }
+}
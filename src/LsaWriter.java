@@ -0,0 +1,110 @@
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer of the LSA text format through a fixed size buffer.
+ * <p>
+ * Names and distances are copied into the buffer directly, so writing a graph of any size
+ * neither builds the whole text nor allocates a String per token.
+ */
+class LsaWriter {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Writer writer;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int length;
+
+    LsaWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Write the line of a node, e.g. {@code t: u:2 v:4 y:7 }
+     *
+     * @param node      name of the node
+     * @param links     links of the node
+     * @param nodeTable resolves the names of the linked nodes
+     */
+    void writeLine(String node, IntIntMap links, NodeTable nodeTable) throws IOException {
+        startLine(node);
+        for (int slot = 0; slot < links.slotCount(); slot++) {
+            int nodeLinked = links.keyAt(slot);
+            if (nodeLinked < 0) continue;
+            writeLink(nodeTable.nameOf(nodeLinked), links.valueAt(slot));
+        }
+        endLine();
+    }
+
+    /**
+     * Start the line of a node, which is followed by its links and then endLine().
+     *
+     * @param node name of the node
+     */
+    void startLine(String node) throws IOException {
+        append(node);
+        append(':');
+        append(' ');
+    }
+
+    /**
+     * Write a link of the node of the current line.
+     *
+     * @param nodeLinked name of the linked node
+     * @param distance   distance of the link
+     */
+    void writeLink(String nodeLinked, int distance) throws IOException {
+        append(nodeLinked);
+        append(':');
+        append(distance);
+        append(' ');
+    }
+
+    /**
+     * End the line of a node.
+     */
+    void endLine() throws IOException {
+        append('\n');
+    }
+
+    /**
+     * Write the buffered text to the underlying writer.
+     */
+    void flush() throws IOException {
+        writer.write(buffer, 0, length);
+        length = 0;
+    }
+
+    private void append(String text) throws IOException {
+        int start = 0;
+        while (start < text.length()) {
+            if (length == buffer.length) flush();
+            int end = Math.min(text.length(), start + buffer.length - length);
+            text.getChars(start, end, buffer, length);
+            length += end - start;
+            start = end;
+        }
+    }
+
+    private void append(char c) throws IOException {
+        if (length == buffer.length) flush();
+        buffer[length++] = c;
+    }
+
+    private void append(int value) throws IOException {
+        // At most 11 characters, e.g. -2147483648
+        if (buffer.length - length < 11) flush();
+        long remaining = value;
+        if (remaining < 0) {
+            buffer[length++] = '-';
+            remaining = -remaining;
+        }
+        int digits = 1;
+        for (long v = remaining; v >= 10; v /= 10) digits++;
+        for (int i = length + digits - 1; i >= length; i--) {
+            buffer[i] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        }
+        length += digits;
+    }
+}
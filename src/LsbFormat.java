@@ -0,0 +1,247 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compact binary topology format, stored in files with the {@code .lsb} extension.
+ * <p>
+ * Layout, with multi-byte integers in big endian:
+ * <pre>
+ * header:     int magic "LSB1", int format version, int node count, int edge count
+ * dictionary: for each node, varint degree, varint name length, name in UTF-8
+ * adjacency:  for each node, varint number of edges to nodes with a higher or equal index,
+ *             then for each of these edges in ascending order,
+ *             varint index gap from the previous one (starting from the node itself),
+ *             zigzag varint distance
+ * </pre>
+ * Nodes are numbered densely in the order of the dictionary, and each bidirectional edge is
+ * stored once. The counts and the degrees let the reader pre-size the whole graph, and the
+ * file is read straight from a memory mapped buffer.
+ * <p>
+ * As the adjacency is varint encoded, the file cannot be used in place and is always decoded.
+ * It is decoded and checked in one place, straight into the CSR arrays of a GraphSnapshot: the
+ * degrees of the dictionary are the row lengths, and the edges of each node come in ascending
+ * order, so every edge is written into its two slots in place, already sorted. readSnapshot()
+ * returns it as is when the graph is only computed on, and read() builds a modifiable Graph
+ * from it, so both accept exactly the same files.
+ */
+public class LsbFormat {
+
+    /**
+     * File extension of the format
+     */
+    public static final String EXTENSION = ".lsb";
+
+    private static final int MAGIC = 0x4C534231;
+    private static final int FORMAT_VERSION = 1;
+    private static final String FORMAT_ERROR = "The LSB graph does not have a correct format.";
+
+    /**
+     * Check if a file is named with the extension of the format.
+     *
+     * @param file file name
+     * @return True if the file name ends with the extension, ignoring case; otherwise false
+     */
+    public static boolean matches(String file) {
+        return file.regionMatches(true, file.length() - EXTENSION.length(), EXTENSION, 0, EXTENSION.length());
+    }
+
+    /**
+     * Write a graph to a file.
+     *
+     * @param graph the graph
+     * @param file  path of the file
+     * @throws IOException Occurs when error occurs while writing
+     */
+    public static void write(Graph graph, Path file) throws IOException {
+        GraphSnapshot snapshot = graph.snapshot();
+
+        // Dense numbering of the nodes, skipping the unused indexes
+        int[] denseIndex = new int[snapshot.size()];
+        int nodeCount = 0;
+        int edgeCount = 0;
+        for (int node = 0; node < snapshot.size(); node++) {
+            if (snapshot.getName(node) == null) {
+                denseIndex[node] = -1;
+                continue;
+            }
+            denseIndex[node] = nodeCount++;
+            for (int e = snapshot.edgeStart(node); e < snapshot.edgeEnd(node); e++) {
+                if (snapshot.edgeTarget(e) >= node) edgeCount++;
+            }
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(nodeCount);
+            out.writeInt(edgeCount);
+
+            for (int node = 0; node < snapshot.size(); node++) {
+                if (denseIndex[node] < 0) continue;
+                byte[] name = snapshot.getName(node).getBytes(StandardCharsets.UTF_8);
+                writeVarint(out, snapshot.degree(node));
+                writeVarint(out, name.length);
+                out.write(name);
+            }
+
+            for (int node = 0; node < snapshot.size(); node++) {
+                if (denseIndex[node] < 0) continue;
+
+                // Rows are sorted by target, so the edges to higher indexes are at the end
+                int first = snapshot.edgeEnd(node);
+                while (first > snapshot.edgeStart(node) && snapshot.edgeTarget(first - 1) >= node) first--;
+                writeVarint(out, snapshot.edgeEnd(node) - first);
+
+                int previous = denseIndex[node];
+                for (int e = first; e < snapshot.edgeEnd(node); e++) {
+                    int target = denseIndex[snapshot.edgeTarget(e)];
+                    int distance = snapshot.edgeDistance(e);
+                    writeVarint(out, target - previous);
+                    writeVarint(out, (distance << 1) ^ (distance >> 31));
+                    previous = target;
+                }
+            }
+        }
+    }
+
+    /**
+     * Read a graph from a file.
+     *
+     * @param file path of the file
+     * @return A new graph created from the file provided
+     * @throws IOException Occurs when file not found / error occurs while reading / format error
+     */
+    public static Graph read(Path file) throws IOException {
+        GraphSnapshot snapshot = readSnapshot(file);
+
+        Graph graph = new Graph(snapshot.size());
+        for (int node = 0; node < snapshot.size(); node++) {
+            graph.addNode(snapshot.getName(node), snapshot.degree(node));
+        }
+        for (int node = 0; node < snapshot.size(); node++) {
+            // Rows are sorted by target, so each edge is set once, from the end of the row of its lower node
+            int first = snapshot.edgeEnd(node);
+            while (first > snapshot.edgeStart(node) && snapshot.edgeTarget(first - 1) >= node) first--;
+            for (int e = first; e < snapshot.edgeEnd(node); e++) {
+                graph.setEdge(node, snapshot.edgeTarget(e), snapshot.edgeDistance(e));
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Read a file into a read-only snapshot, which is faster than building a Graph.
+     *
+     * @param file path of the file
+     * @return A new snapshot of the graph in the file, with nodes indexed in the order of the file
+     * @throws IOException Occurs when file not found / error occurs while reading / format error
+     */
+    public static GraphSnapshot readSnapshot(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException(FORMAT_ERROR);
+            return decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Decode and check a whole file, the only place the layout is read.
+     */
+    private static GraphSnapshot decode(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) throw new IOException(FORMAT_ERROR);
+            int nodeCount = buffer.getInt();
+            int edgeCount = buffer.getInt();
+            // Each node takes at least 3 bytes, which bounds the allocation of a corrupted file
+            if (nodeCount < 0 || edgeCount < 0 || nodeCount > buffer.remaining() / 3) {
+                throw new IOException(FORMAT_ERROR);
+            }
+
+            String[] names = new String[nodeCount];
+            int[] offsets = new int[nodeCount + 1];
+            byte[] name = new byte[64];
+            for (int node = 0; node < nodeCount; node++) {
+                int degree = readVarint(buffer);
+                int length = readVarint(buffer);
+                if (degree < 0 || degree > nodeCount || length < 0 || length > buffer.remaining()) {
+                    throw new IOException(FORMAT_ERROR);
+                }
+                if (name.length < length) name = new byte[Math.max(length, name.length * 2)];
+                buffer.get(name, 0, length);
+                names[node] = new String(name, 0, length, StandardCharsets.UTF_8);
+                offsets[node + 1] = offsets[node] + degree;
+                if (offsets[node + 1] < 0) throw new IOException(FORMAT_ERROR);
+            }
+
+            // Edges to lower indexes were written while reading the lower nodes, in ascending order
+            int[] targets = new int[offsets[nodeCount]];
+            int[] distances = new int[targets.length];
+            int[] filled = new int[nodeCount];
+            System.arraycopy(offsets, 0, filled, 0, nodeCount);
+            int edgesRead = 0;
+            for (int node = 0; node < nodeCount; node++) {
+                int previous = node;
+                int count = readVarint(buffer);
+                for (int i = 0; i < count; i++) {
+                    int gap = readVarint(buffer);
+                    int zigzag = readVarint(buffer);
+                    int target = previous + gap;
+                    // Targets are strictly ascending, only the first edge may link the node to itself
+                    if (gap < 0 || (gap == 0 && i > 0) || target < node || target >= nodeCount
+                            || filled[node] == offsets[node + 1] || filled[target] == offsets[target + 1]) {
+                        throw new IOException(FORMAT_ERROR);
+                    }
+                    int distance = (zigzag >>> 1) ^ -(zigzag & 1);
+                    targets[filled[node]] = target;
+                    distances[filled[node]++] = distance;
+                    if (target != node) {
+                        targets[filled[target]] = node;
+                        distances[filled[target]++] = distance;
+                    }
+                    previous = target;
+                    edgesRead++;
+                }
+            }
+            if (edgesRead != edgeCount || buffer.hasRemaining()) throw new IOException(FORMAT_ERROR);
+            for (int node = 0; node < nodeCount; node++) {
+                if (filled[node] != offsets[node + 1]) throw new IOException(FORMAT_ERROR);
+            }
+            GraphSnapshot snapshot = new GraphSnapshot(names, offsets, targets, distances);
+            // The name index of the snapshot keeps only the last one of duplicated names
+            for (int node = 0; node < nodeCount; node++) {
+                if (snapshot.indexOf(names[node]) != node) throw new IOException(FORMAT_ERROR);
+            }
+            return snapshot;
+        } catch (BufferUnderflowException ex) {
+            throw new IOException(FORMAT_ERROR, ex);
+        }
+    }
+
+    /**
+     * Write an unsigned int in 7 bit groups, least significant group first.
+     */
+    private static void writeVarint(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarint(ByteBuffer buffer) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IOException(FORMAT_ERROR);
+    }
+}
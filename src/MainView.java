@@ -2,18 +2,44 @@ import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
 import javax.swing.event.*;
+import javax.swing.text.JTextComponent;
 import javax.swing.tree.TreePath;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The main user interface of the application
  */
 public class MainView extends JFrame {
 
+    /**
+     * Minimum interval between two progress updates of a background computation
+     */
+    private static final long PROGRESS_INTERVAL_MS = 100;
+
+    /**
+     * Number of routers computed between two progress updates of All Routers, per thread
+     */
+    private static final int ROUTERS_PER_BLOCK = 64;
+
+    /**
+     * Maximum number of lines kept in the status log
+     */
+    private static final int STATUS_LOG_LINES = 100000;
+
     private JComboBox<String> sourceSelection;
+    private SourceSelectionModel sourceModel;
     private GraphTreeModel graphModel;
     private JTree topologyTree;
     private HashSet<String> expandedNode = new HashSet<>();
@@ -24,13 +50,25 @@ public class MainView extends JFrame {
     private Button loadBtn;
     private Button saveBtn;
     private Button clearBtn;
+    private Button singleStepBtn;
+    private Button computeAllBtn;
+    private Button allRoutersBtn;
+    private Button liveRoutersBtn;
+    private Button cancelBtn;
+    private JProgressBar progressBar;
 
-    private JTextArea statusArea;
+    private StatusLog statusLog;
+    private JList<String> statusList;
 
     private DijkstraAlgorithm dijkstra;
     private int computeStep = 0;
     private boolean computing = false;
 
+    /**
+     * The computation running in background; null if none
+     */
+    private ComputeWorker worker;
+
     /**
      * Constructs the main user interface for the application
      */
@@ -75,6 +113,8 @@ public class MainView extends JFrame {
 
         /* The graph editor*/
         graphModel = new GraphTreeModel();
+        sourceModel = new SourceSelectionModel(graphModel);
+        sourceSelection.setModel(sourceModel);
         topologyTree = new JTree(graphModel);
         topologyTree.setEditable(false);
         topologyTree.setRootVisible(false);
@@ -129,7 +169,6 @@ public class MainView extends JFrame {
             public void treeStructureChanged(TreeModelEvent e) {
                 addLinkBtn.setEnabled(false);
                 removeBtn.setEnabled(false);
-                refreshSourceSelection();
                 restoreTreeExpansion();
             }
         });
@@ -164,13 +203,32 @@ public class MainView extends JFrame {
         JPanel upperPanel = new JPanel();
         upperPanel.setLayout(new BoxLayout(upperPanel, BoxLayout.PAGE_AXIS));
         JPanel bottomPanel = new JPanel(new BorderLayout());
-        statusArea = new JTextArea(6, 28);
-        statusArea.setEditable(false);
-        statusArea.setFont(new Font("monospaced", Font.PLAIN, 12));
+        // Rows have a fixed height, so the list only measures and renders the visible ones
+        statusLog = new StatusLog(STATUS_LOG_LINES);
+        statusList = new JList<>(statusLog);
+        statusList.setFont(new Font("monospaced", Font.PLAIN, 12));
+        statusList.setFixedCellHeight(measureStatusCell(" ").height);
+        statusList.setVisibleRowCount(6);
+        statusLog.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                updateStatusCellWidth();
+                statusList.ensureIndexIsVisible(e.getIndex1());
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+                updateStatusCellWidth();
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+            }
+        });
         JLabel statusLbl = new JLabel("Status");
         statusLbl.setBorder(new EmptyBorder(0, 0, 3, 0));
         JScrollPane statusPane = new JScrollPane(
-                statusArea,
+                statusList,
                 JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED,
                 JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED
         );
@@ -182,14 +240,17 @@ public class MainView extends JFrame {
         saveBtn = new Button("Save File...");
         clearBtn = new Button("Clear Topology");
         Button clearMsgBtn = new Button("Clear Status");
+        Button exportMsgBtn = new Button("Export Status...");
         loadBtn.addActionListener(this::onLoadFileClicked);
         saveBtn.addActionListener(this::onSaveFileClicked);
         clearBtn.addActionListener(this::onClearClicked);
         clearMsgBtn.addActionListener(this::onClearMsgClicked);
+        exportMsgBtn.addActionListener(this::onExportMsgClicked);
         graphIOPanel.add(loadBtn);
         graphIOPanel.add(saveBtn);
         graphIOPanel.add(clearBtn);
         graphIOPanel.add(clearMsgBtn);
+        graphIOPanel.add(exportMsgBtn);
         upperPanel.add(graphIOPanel);
         upperPanel.setBorder(new EmptyBorder(19, 0, 0, 0));
         optionPanel.add(upperPanel, BorderLayout.NORTH);
@@ -208,19 +269,54 @@ public class MainView extends JFrame {
         rightBar.setBackground(Color.WHITE);
 
         /* Left control bar */
+        // The listed nodes are narrowed down to the typed prefix
         sourceSelection = new JComboBox<>();
+        sourceSelection.setEditable(true);
+        sourceSelection.setMaximumRowCount(16);
+        sourceSelection.setPrototypeDisplayValue("XXXXXXXXXXXXXXXX");
+        JTextComponent sourceEditor = (JTextComponent) sourceSelection.getEditor().getEditorComponent();
+        sourceEditor.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                SwingUtilities.invokeLater(() -> onSourceTyped(sourceEditor));
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                SwingUtilities.invokeLater(() -> onSourceTyped(sourceEditor));
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+            }
+        });
         leftBar.add(new JLabel("Select Source: "));
         leftBar.add(sourceSelection);
 
         /* Right control bar */
-        Button singleStepBtn = new Button("Single Step");
+        progressBar = new JProgressBar();
+        progressBar.setStringPainted(true);
+        progressBar.setString("");
+        progressBar.setPreferredSize(new Dimension(120, progressBar.getPreferredSize().height));
+        singleStepBtn = new Button("Single Step");
         singleStepBtn.addActionListener(this::onSingleStepClicked);
-        Button computeAllBtn = new Button("Compute All");
+        computeAllBtn = new Button("Compute All");
         computeAllBtn.addActionListener(this::onComputeAllClicked);
+        allRoutersBtn = new Button("All Routers");
+        allRoutersBtn.addActionListener(this::onAllRoutersClicked);
+        liveRoutersBtn = new Button("Live Routers");
+        liveRoutersBtn.addActionListener(this::onLiveRoutersClicked);
+        cancelBtn = new Button("Cancel");
+        cancelBtn.addActionListener(this::onCancelClicked);
+        cancelBtn.setEnabled(false);
         Button resetBtn = new Button("Reset");
         resetBtn.addActionListener(this::onResetClicked);
+        rightBar.add(progressBar);
         rightBar.add(singleStepBtn);
         rightBar.add(computeAllBtn);
+        rightBar.add(allRoutersBtn);
+        rightBar.add(liveRoutersBtn);
+        rightBar.add(cancelBtn);
         rightBar.add(resetBtn);
 
         /* Bindings */
@@ -231,9 +327,12 @@ public class MainView extends JFrame {
 
     private void onSelectTree(TreeSelectionEvent e) {
         addLinkBtn.setEnabled(false);
-        if (computing) return;
-        if (e.getPath().getLastPathComponent() instanceof GraphTreeModel.Node) addLinkBtn.setEnabled(true);
-        if (!(e.getPath().getLastPathComponent() instanceof GraphTreeModel.Root)) removeBtn.setEnabled(true);
+        removeBtn.setEnabled(false);
+        if (computing || worker != null) return;
+        TreePath path = topologyTree.getSelectionPath();
+        if (path == null) return;
+        if (path.getLastPathComponent() instanceof GraphTreeModel.Node) addLinkBtn.setEnabled(true);
+        if (!(path.getLastPathComponent() instanceof GraphTreeModel.Root)) removeBtn.setEnabled(true);
     }
 
     private void onSaveFileClicked(ActionEvent e) {
@@ -265,10 +364,9 @@ public class MainView extends JFrame {
         Object selected = path.getLastPathComponent();
         boolean successful = false;
         if (selected instanceof GraphTreeModel.Node) {
-            expandedNode.remove(path.toString());
+            expandedNode.remove(((GraphTreeModel.Node) selected).name);
             successful = graphModel.removeNode(((GraphTreeModel.Node) selected).name);
         } else if (selected instanceof GraphTreeModel.Edge) {
-            expandedNode.remove(path.toString());
             GraphTreeModel.Edge edge = (GraphTreeModel.Edge) selected;
             successful = graphModel.removeLink(edge.srcNodeName, edge.destNodeName);
         } else {
@@ -291,9 +389,7 @@ public class MainView extends JFrame {
         Object selected = path.getLastPathComponent();
         if (!(selected instanceof GraphTreeModel.Node)) return;
         String srcNodeName = ((GraphTreeModel.Node) selected).name;
-        List<String> nodes = new ArrayList<>(
-                Arrays.asList(((GraphTreeModel.Root) graphModel.getRoot()).nodes)
-        );
+        List<String> nodes = new ArrayList<>(((GraphTreeModel.Root) graphModel.getRoot()).nodes);
         nodes.remove(srcNodeName);
         if (nodes.isEmpty()) {
             JOptionPane.showMessageDialog(
@@ -340,21 +436,11 @@ public class MainView extends JFrame {
         }
         if (destNodeName == null) return;
         if (graphModel.addLink(srcNodeName, destNodeName, distance)) {
-            expandedNode.add(srcNodeName);
-            expandedNode.add(destNodeName);
-            restoreTreeExpansion();
-            for (int i = 0; i < topologyTree.getRowCount(); i++) {
-                Object object = topologyTree.getPathForRow(i).getLastPathComponent();
-                if (object instanceof GraphTreeModel.Edge) {
-                    GraphTreeModel.Edge edge = (GraphTreeModel.Edge) object;
-                    if (!edge.srcNodeName.equals(srcNodeName)) continue;
-                    if (!edge.destNodeName.equals(destNodeName)) continue;
-                    if (edge.distance != distance) continue;
-                    topologyTree.setSelectionRow(i);
-                    topologyTree.scrollRowToVisible(i);
-                    break;
-                }
-            }
+            topologyTree.expandPath(graphModel.getNodePath(srcNodeName));
+            topologyTree.expandPath(graphModel.getNodePath(destNodeName));
+            TreePath linkPath = graphModel.getLinkPath(srcNodeName, destNodeName);
+            topologyTree.setSelectionPath(linkPath);
+            topologyTree.scrollPathToVisible(linkPath);
         } else {
             JOptionPane.showMessageDialog(
                     null,
@@ -380,15 +466,9 @@ public class MainView extends JFrame {
                 null);
         if (result == JOptionPane.OK_OPTION && !nodeName.getText().isEmpty()) {
             if (graphModel.addNode(nodeName.getText())) {
-                for (int i = 0; i < topologyTree.getRowCount(); i++) {
-                    Object object = topologyTree.getPathForRow(i).getLastPathComponent();
-                    if (object instanceof GraphTreeModel.Node && nodeName.getText().equals(
-                            ((GraphTreeModel.Node) object).name
-                    )) {
-                        topologyTree.setSelectionRow(i);
-                        topologyTree.scrollRowToVisible(i);
-                    }
-                }
+                TreePath nodePath = graphModel.getNodePath(nodeName.getText());
+                topologyTree.setSelectionPath(nodePath);
+                topologyTree.scrollPathToVisible(nodePath);
             } else {
                 JOptionPane.showMessageDialog(
                         null,
@@ -401,9 +481,17 @@ public class MainView extends JFrame {
     }
 
     private void onResetClicked(ActionEvent e) {
+        if (worker != null) worker.requestCancel();
         dijkstra = null;
         setComputing(false);
-        statusArea.setText(statusArea.getText() + "===== RESET ===== \n\n");
+        appendStatus("===== RESET ===== \n\n");
+    }
+
+    private void onCancelClicked(ActionEvent e) {
+        if (worker == null) return;
+        worker.requestCancel();
+        cancelBtn.setEnabled(false);
+        progressBar.setString("Cancelling...");
     }
 
     private void onLoadFileClicked(ActionEvent e) {
@@ -436,125 +524,332 @@ public class MainView extends JFrame {
     }
 
     private void setComputing(boolean enabled) {
-        if (enabled) {
-            addNodeBtn.setEnabled(false);
+        if (!enabled) topologyTree.clearSelection();
+        computing = enabled;
+        updateControls();
+    }
+
+    /**
+     * Lock the editing controls while computing or while a computation runs in background,
+     * and the computing controls while a computation runs in background
+     */
+    private void updateControls() {
+        boolean editable = !computing && worker == null;
+        if (!editable) {
             addLinkBtn.setEnabled(false);
             removeBtn.setEnabled(false);
-            loadBtn.setEnabled(false);
-            saveBtn.setEnabled(false);
-            clearBtn.setEnabled(false);
-            sourceSelection.setEnabled(false);
-        } else {
-            topologyTree.clearSelection();
-            loadBtn.setEnabled(true);
-            saveBtn.setEnabled(true);
-            clearBtn.setEnabled(true);
-            addNodeBtn.setEnabled(true);
-            sourceSelection.setEnabled(true);
         }
-        computing = enabled;
+        addNodeBtn.setEnabled(editable);
+        loadBtn.setEnabled(editable);
+        saveBtn.setEnabled(editable);
+        clearBtn.setEnabled(editable);
+        sourceSelection.setEnabled(editable);
+
+        boolean idle = worker == null;
+        singleStepBtn.setEnabled(idle);
+        computeAllBtn.setEnabled(idle);
+        allRoutersBtn.setEnabled(idle && !computing);
+        liveRoutersBtn.setEnabled(idle && !computing);
+        cancelBtn.setEnabled(!idle);
+    }
+
+    private void startWorker(ComputeWorker newWorker) {
+        worker = newWorker;
+        progressBar.setIndeterminate(true);
+        progressBar.setString("Computing...");
+        updateControls();
+        newWorker.execute();
     }
 
     private void onSingleStepClicked(ActionEvent e) {
+        if (worker != null) return;
         if (!computing) {
             if (!tryInitCompute()) return;
             computeStep = 0;
             setComputing(true);
         }
-        Iterator<VisitedNodeInfo> iterator = dijkstra.iterator();
-        if (iterator.hasNext()) {
-            VisitedNodeInfo info = iterator.next();
-            StringBuilder status = new StringBuilder(statusArea.getText());
-            status.append(String.format("Single Step %d:\n    [Visiting node: %s]\n",
-                    computeStep,
-                    info.getNewVisitedNode()
-            ));
-            for (String node : info.getNewDiscoverNodes().toArray(new String[0])) {
-                status.append(String.format("    > Found %s: Path: %s Cost: %d\n",
-                        node,
-                        String.join(" > ", info.getChain(node)),
-                        info.distance(node)
+        DijkstraAlgorithm algorithm = dijkstra;
+        int step = computeStep;
+        startWorker(new ComputeWorker() {
+            private boolean finished;
+
+            @Override
+            protected String doInBackground() {
+                Iterator<VisitedNodeInfo> iterator = algorithm.iterator();
+                if (!iterator.hasNext()) {
+                    finished = true;
+                    return formatFinalResult(algorithm.getFinalResult().toShortestPathTree());
+                }
+                VisitedNodeInfo info = iterator.next();
+                StringBuilder status = new StringBuilder();
+                status.append(String.format("Single Step %d:\n    [Visiting node: %s]\n",
+                        step,
+                        info.getNewVisitedNode()
                 ));
+                for (String node : info.getNewDiscoverNodes().toArray(new String[0])) {
+                    status.append(String.format("    > Found %s: Path: %s Cost: %d\n",
+                            node,
+                            String.join(" > ", info.getChain(node)),
+                            info.distance(node)
+                    ));
+                }
+                status.append("\n");
+                return status.toString();
             }
-            status.append("\n");
-            statusArea.setText(status.toString());
-            computeStep++;
-        } else {
-            printFinalResult();
-        }
+
+            @Override
+            void onCompleted(String report) {
+                if (finished) {
+                    printFinalResult(report);
+                } else {
+                    appendStatus(report);
+                    computeStep++;
+                }
+            }
+        });
     }
 
     private void onComputeAllClicked(ActionEvent e) {
-        if (!computing) {
-            if (!tryInitCompute()) return;
-        }
-        for (VisitedNodeInfo info : dijkstra) {
-            // For side effects only
-            assert true;
+        if (worker != null) return;
+        boolean newSession = !computing;
+        ShortestPathTree cachedResult = null;
+        if (newSession) {
+            String sourceNode = getSelectedSource();
+            if (sourceNode == null) return;
+            // Results of an unchanged topology are served from the cache
+            cachedResult = graphModel.getRouteCache().getIfPresent(graphModel.getGraph(), sourceNode);
+            if (cachedResult == null) {
+                if (!tryInitCompute()) return;
+                computeStep = 0;
+                setComputing(true);
+            }
         }
-        printFinalResult();
+
+        Graph graph = graphModel.getGraph();
+        DijkstraAlgorithm algorithm = dijkstra;
+        ShortestPathTree result = cachedResult;
+        startWorker(new ComputeWorker() {
+            private ShortestPathTree computedResult;
+
+            @Override
+            protected String doInBackground() {
+                if (result != null) return formatFinalResult(result);
+
+                Iterator<VisitedNodeInfo> iterator = algorithm.iterator();
+                while (iterator.hasNext()) {
+                    if (isCancelRequested()) return null;
+                    iterator.next();
+                    reportProgress(algorithm.getVisitedCount(), algorithm.getDiscoveredCount());
+                }
+                // Only the detached tree is cached, the step records stay with the stepping session
+                computedResult = algorithm.getFinalResult().toShortestPathTree();
+                return formatFinalResult(computedResult);
+            }
+
+            @Override
+            void onCompleted(String report) {
+                // The topology is locked during the computation, so the result is still up to date
+                if (computedResult != null) {
+                    GraphSnapshot snapshot = computedResult.getGraph();
+                    graphModel.getRouteCache().put(graph, snapshot.getName(computedResult.getSourceNode()), computedResult);
+                }
+                printFinalResult(report);
+            }
+
+            @Override
+            void onCancelled() {
+                super.onCancelled();
+                // A computation started by Compute All is dropped, a stepping one can be continued
+                if (newSession && result == null && dijkstra == algorithm) {
+                    dijkstra = null;
+                    setComputing(false);
+                }
+            }
+        });
+    }
+
+    private void onAllRoutersClicked(ActionEvent e) {
+        if (worker != null || computing) return;
+        GraphSnapshot graph = graphModel.getGraph().snapshot();
+        int threads = Runtime.getRuntime().availableProcessors();
+        startWorker(new ComputeWorker() {
+            @Override
+            protected String doInBackground() {
+                String[] sources = new String[graph.size()];
+                int count = 0;
+                for (int node = 0; node < graph.size(); node++) {
+                    if (graph.getName(node) != null) sources[count++] = graph.getName(node);
+                }
+                sources = Arrays.copyOf(sources, count);
+                Arrays.sort(sources);
+                int[] nodes = new int[count];
+                for (int i = 0; i < count; i++) {
+                    nodes[i] = graph.indexOf(sources[i]);
+                }
+
+                StringBuilder status = new StringBuilder();
+                status.append("=================\n");
+                status.append("  Routing Table  \n");
+                status.append("=================\n");
+
+                // Routers are computed block by block, to report progress and stop when cancelled
+                int blockSize = threads * ROUTERS_PER_BLOCK;
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                try {
+                    for (int start = 0; start < sources.length; start += blockSize) {
+                        if (isCancelRequested()) return null;
+                        int[] block = Arrays.copyOfRange(nodes, start, Math.min(nodes.length, start + blockSize));
+                        RoutingTable table = RoutingTable.compute(graph, block, pool, IndexedDaryHeap::new);
+                        for (int row = 0; row < table.getSourceCount(); row++) {
+                            try {
+                                table.writeRow(status, row, nodes, false);
+                            } catch (IOException ex) {
+                                // A StringBuilder never fails
+                                throw new UncheckedIOException(ex);
+                            }
+                        }
+                        reportProgress(start + block.length, sources.length);
+                    }
+                } finally {
+                    pool.shutdown();
+                }
+                status.append("\n");
+                return status.toString();
+            }
+
+            @Override
+            void onCompleted(String report) {
+                appendStatus(report);
+            }
+        });
+    }
+
+    private void onLiveRoutersClicked(ActionEvent e) {
+        if (worker != null || computing) return;
+        Graph graph = graphModel.getGraph();
+        startWorker(new ComputeWorker() {
+            private int listed;
+
+            @Override
+            protected String doInBackground() throws InterruptedException {
+                // Every router floods and computes on its own virtual thread, the worker only watches
+                try (RouterActors actors = new RouterActors(graph, RouterActors.DEFAULT_MAILBOX_CAPACITY)) {
+                    appendStatus("=================\n");
+                    appendStatus("  Live Routers   \n");
+                    appendStatus("=================\n");
+                    actors.start();
+                    while (!actors.awaitConvergence(PROGRESS_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                        if (isCancelRequested()) return null;
+                        listConverged(actors);
+                        reportProgress(actors.getConvergedCount(), actors.getRouterCount());
+                    }
+                    listConverged(actors);
+
+                    // Routers cut off from others go quiet without ever knowing every router
+                    StringBuilder status = new StringBuilder();
+                    status.append(String.format("%d of %d routers converged, %d LSAs sent\n",
+                            actors.getConvergedCount(),
+                            actors.getRouterCount(),
+                            actors.getMessageCount()
+                    ));
+                    // Only the live routers, the node table keeps the indexes of removed ones empty
+                    List<String> routers = new ArrayList<>(graph.getAllNodes());
+                    Collections.sort(routers);
+                    for (String router : routers) {
+                        if (isCancelRequested()) return null;
+                        if (actors.getConvergenceTime(router) < 0) {
+                            status.append(String.format("    %s: Not converged\n", router));
+                        }
+                    }
+                    status.append("\n");
+                    return status.toString();
+                }
+            }
+
+            /**
+             * Append the convergence time of the routers converged since the last call, as they converge
+             */
+            private void listConverged(RouterActors actors) {
+                StringBuilder status = new StringBuilder();
+                String router;
+                while (listed < actors.getConvergedCount() && (router = actors.getConvergedRouter(listed)) != null) {
+                    status.append(String.format("    %s: Converged in %.3f ms\n",
+                            router,
+                            actors.getConvergenceTime(router) / 1e6
+                    ));
+                    listed++;
+                }
+                if (status.length() > 0) appendStatus(status.toString());
+            }
+
+            @Override
+            void onCompleted(String report) {
+                appendStatus(report);
+            }
+        });
     }
 
     private void onClearMsgClicked(ActionEvent actionEvent) {
-        statusArea.setText("");
+        statusLog.clear();
     }
 
-    private void refreshSourceSelection() {
-        sourceSelection.setModel(new DefaultComboBoxModel<>(
-                ((GraphTreeModel.Root) graphModel.getRoot()).nodes
-        ));
+    private void onExportMsgClicked(ActionEvent actionEvent) {
+        FileDialog fd = new FileDialog(this, "Export Status To...", FileDialog.SAVE);
+        fd.setFile("status.log");
+        fd.setVisible(true);
+        String filename = fd.getFile();
+        if (filename == null) return;
+        try (Writer writer = Files.newBufferedWriter(Paths.get(fd.getDirectory() + filename), StandardCharsets.UTF_8)) {
+            statusLog.writeTo(writer);
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(
+                    null,
+                    "Status could not be exported at this location.",
+                    "Export Failed",
+                    JOptionPane.WARNING_MESSAGE
+            );
+        }
+    }
+
+    private void onSourceTyped(JTextComponent sourceEditor) {
+        sourceModel.setPrefix(sourceEditor.getText());
+        if (!sourceEditor.isFocusOwner() || !sourceSelection.isShowing()) return;
+        // The popup is shown again to fit the new number of nodes
+        sourceSelection.hidePopup();
+        if (sourceModel.getSize() > 0) sourceSelection.showPopup();
     }
 
     private void restoreTreeExpansion() {
-        for (int i = 0; i < topologyTree.getRowCount(); i++) {
-            Object object = topologyTree.getPathForRow(i).getLastPathComponent();
-            if (object instanceof GraphTreeModel.Node && expandedNode.contains(((GraphTreeModel.Node) object).name)) {
-                topologyTree.expandRow(i);
-            }
+        for (String node : expandedNode) {
+            TreePath path = graphModel.getNodePath(node);
+            if (path != null) topologyTree.expandPath(path);
         }
     }
 
     private boolean tryInitCompute() {
-        String sourceNode = (String) sourceSelection.getSelectedItem();
-        boolean invalid = false;
-        if (sourceNode != null) {
-            try {
-                dijkstra = new DijkstraAlgorithm(graphModel.getGraph(), sourceNode);
-            } catch (IllegalArgumentException ex) {
-                invalid = true;
-            }
-        } else {
-            invalid = true;
-        }
-        if (invalid) {
+        String sourceNode = getSelectedSource();
+        if (sourceNode == null) return false;
+        dijkstra = new DijkstraAlgorithm(graphModel.getGraph(), sourceNode);
+        return true;
+    }
+
+    private String getSelectedSource() {
+        Object item = sourceSelection.getEditor().getItem();
+        String sourceNode = item == null ? null : item.toString();
+        if (sourceNode == null || !graphModel.getGraph().hasNode(sourceNode)) {
             JOptionPane.showMessageDialog(
                     null,
                     "Please select a valid source node",
                     "Invalid Source Node",
                     JOptionPane.WARNING_MESSAGE
             );
-            return false;
+            return null;
         }
-        return true;
+        return sourceNode;
     }
 
-    private void printFinalResult() {
-        VisitedNodeInfo info = dijkstra.getFinalResult();
-        StringBuilder status = new StringBuilder(statusArea.getText());
-        status.append("=================\n");
-        status.append("  Summary Table  \n");
-        status.append("=================\n");
-        status.append(String.format("Source %s:\n", info.getSourceNode()));
-        for (String node : info.getAllVisitedNodes()) {
-            if (node.equals(info.getSourceNode())) continue;
-            status.append(String.format("    %s: Path: %s Cost: %d\n",
-                    node,
-                    String.join(" > ", info.getChain(node)),
-                    info.distance(node)
-            ));
-        }
-        status.append("\n");
-        statusArea.setText(status.toString());
+    private void printFinalResult(String summary) {
+        appendStatus(summary);
         if (computing) setComputing(false);
         JOptionPane.showMessageDialog(
                 null,
@@ -564,4 +859,126 @@ public class MainView extends JFrame {
         );
     }
 
+    private Dimension measureStatusCell(String line) {
+        return statusList.getCellRenderer()
+                .getListCellRendererComponent(statusList, line, 0, false, false)
+                .getPreferredSize();
+    }
+
+    /**
+     * Cells are as wide as the longest line, so that the list can scroll to the end of any line
+     */
+    private void updateStatusCellWidth() {
+        int width = measureStatusCell(statusLog.getLongestLine()).width;
+        if (width != statusList.getFixedCellWidth()) statusList.setFixedCellWidth(width);
+    }
+
+    private void appendStatus(String text) {
+        statusLog.append(text);
+    }
+
+    /**
+     * A computation run in background, off the event dispatch thread.
+     * <p>
+     * The report returned by doInBackground() is handled on the event dispatch thread once the
+     * computation is done. A cancelled computation stops at its next check and returns null.
+     * Progress is shown as done / total, at most once every PROGRESS_INTERVAL_MS.
+     */
+    private abstract class ComputeWorker extends SwingWorker<String, int[]> {
+
+        private volatile boolean cancelRequested;
+        private long lastProgressTime;
+
+        void requestCancel() {
+            cancelRequested = true;
+        }
+
+        boolean isCancelRequested() {
+            return cancelRequested;
+        }
+
+        void reportProgress(int done, int total) {
+            long now = System.currentTimeMillis();
+            if (now - lastProgressTime < PROGRESS_INTERVAL_MS) return;
+            lastProgressTime = now;
+            publish(new int[]{done, total});
+        }
+
+        /**
+         * Format the summary table of a final result.
+         *
+         * @return the summary; Null if cancelled.
+         */
+        String formatFinalResult(ShortestPathTree tree) {
+            GraphSnapshot graph = tree.getGraph();
+            StringBuilder status = new StringBuilder();
+            status.append("=================\n");
+            status.append("  Summary Table  \n");
+            status.append("=================\n");
+            status.append(String.format("Source %s:\n", graph.getName(tree.getSourceNode())));
+            // Paths are listed in visiting order, each one rebuilt into the buffer of the cursor
+            ShortestPathTree.PathCursor paths = tree.paths();
+            paths.next();
+            while (paths.next()) {
+                if (isCancelRequested()) return null;
+                status.append("    ").append(graph.getName(paths.getNode())).append(": Path: ");
+                for (int i = 0; i < paths.getLength(); i++) {
+                    if (i > 0) status.append(" > ");
+                    status.append(graph.getName(paths.getPathNode(i)));
+                }
+                status.append(" Cost: ").append(paths.getDistance()).append('\n');
+            }
+            status.append("\n");
+            return status.toString();
+        }
+
+        @Override
+        protected void process(List<int[]> chunks) {
+            if (cancelRequested) return;
+            int[] progress = chunks.get(chunks.size() - 1);
+            progressBar.setIndeterminate(false);
+            progressBar.setMaximum(progress[1]);
+            progressBar.setValue(progress[0]);
+            progressBar.setString(progress[0] + " / " + progress[1]);
+        }
+
+        @Override
+        protected void done() {
+            worker = null;
+            progressBar.setIndeterminate(false);
+            progressBar.setValue(0);
+            progressBar.setString("");
+            updateControls();
+
+            String report;
+            try {
+                report = get();
+            } catch (InterruptedException | ExecutionException ex) {
+                JOptionPane.showMessageDialog(
+                        null,
+                        "The computation failed: " + ex.getCause(),
+                        "Computation Failed",
+                        JOptionPane.ERROR_MESSAGE
+                );
+                return;
+            }
+            if (cancelRequested || report == null) {
+                onCancelled();
+            } else {
+                onCompleted(report);
+            }
+        }
+
+        /**
+         * Handle the report on the event dispatch thread.
+         */
+        abstract void onCompleted(String report);
+
+        /**
+         * Handle the cancellation on the event dispatch thread.
+         */
+        void onCancelled() {
+            appendStatus("===== CANCELLED ===== \n\n");
+        }
+    }
 }
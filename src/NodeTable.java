@@ -0,0 +1,116 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A symbol table which interns node names into dense integer indexes.
+ * <p>
+ * Indexes are in range [0, capacity). The index of a released node is handed out again to
+ * the next new node, so that arrays indexed by node index stay compact while the graph is
+ * being edited. Names are only needed when entering or leaving the engine, everything in
+ * between works with indexes.
+ */
+public class NodeTable {
+
+    private final Map<String, Integer> indexes;
+    private String[] names;
+    private int capacity;
+    private int[] freeIndexes;
+    private int freeCount;
+
+    /**
+     * Create an empty node table.
+     */
+    public NodeTable() {
+        this(16);
+    }
+
+    /**
+     * Create an empty node table which holds a number of nodes without resizing.
+     *
+     * @param expectedSize number of nodes expected
+     */
+    public NodeTable(int expectedSize) {
+        indexes = new HashMap<>(Math.max(16, expectedSize * 4 / 3 + 1));
+        names = new String[Math.max(16, expectedSize)];
+        freeIndexes = new int[16];
+    }
+
+    /**
+     * Get the index of a node, assigning a new one if the node is not in the table yet.
+     *
+     * @param node name of the node
+     * @return the index of the node
+     */
+    public int intern(String node) {
+        Integer index = indexes.get(node);
+        if (index != null) return index;
+
+        int newIndex;
+        if (freeCount > 0) {
+            newIndex = freeIndexes[--freeCount];
+        } else {
+            if (capacity == names.length) names = Arrays.copyOf(names, capacity * 2);
+            newIndex = capacity++;
+        }
+        names[newIndex] = node;
+        indexes.put(node, newIndex);
+        return newIndex;
+    }
+
+    /**
+     * Remove a node from the table, its index may be reused by a new node afterwards.
+     *
+     * @param index index of the node
+     */
+    public void release(int index) {
+        indexes.remove(names[index]);
+        names[index] = null;
+        if (freeCount == freeIndexes.length) freeIndexes = Arrays.copyOf(freeIndexes, freeCount * 2);
+        freeIndexes[freeCount++] = index;
+    }
+
+    /**
+     * Get the index of a node.
+     *
+     * @param node name of the node
+     * @return the index of the node; -1 if the node does not exist.
+     */
+    public int indexOf(String node) {
+        Integer index = indexes.get(node);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Get the name of a node.
+     *
+     * @param index index of the node
+     * @return the name of the node; Null if no node holds this index.
+     */
+    public String nameOf(int index) {
+        return names[index];
+    }
+
+    /**
+     * @return the number of nodes in the table.
+     */
+    public int size() {
+        return indexes.size();
+    }
+
+    /**
+     * @return the upper bound of all indexes, which is the length required by an array indexed by node index.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Copy the names of all indexes.
+     *
+     * @return an array of length capacity(), with null at the unused indexes
+     */
+    public String[] toArray() {
+        return Arrays.copyOf(names, capacity);
+    }
+}
@@ -0,0 +1,203 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A shortest path query between two nodes, which only visits the nodes needed to answer it.
+ * <p>
+ * The unidirectional search is Dijkstra's algorithm from the source node, stopped as soon as the
+ * target node is visited. The bidirectional search runs one search from each end, always stepping
+ * the one whose next node is nearer, and keeps the shortest path found over a link between the two
+ * searches. It stops once the next nodes of both searches are together at least as far as that
+ * path, so each search only covers about half of the distance. As the graph is bidirectional, the
+ * search from the target node runs on the same snapshot.
+ * <p>
+ * A search can be reused for other queries without reallocating its arrays. It is not thread safe.
+ */
+public class PointToPointSearch {
+
+    private final GraphSnapshot graph;
+    private final ShortestPathSearch forward;
+    private final ShortestPathSearch backward;
+    private boolean bidirectional;
+
+    private int distance = -1;
+
+    /**
+     * The link where the two searches meet: meetFrom is reached by the forward search, meetTo by
+     * the backward search. Both are the target node for a unidirectional search.
+     */
+    private int meetFrom = -1;
+    private int meetTo = -1;
+
+    /**
+     * Create a search over a graph snapshot
+     *
+     * @param graph           the graph snapshot
+     * @param frontierFactory Creates the priority queue used by each direction
+     */
+    public PointToPointSearch(GraphSnapshot graph, Frontier.Factory frontierFactory) {
+        this.graph = graph;
+        forward = new ShortestPathSearch(graph, frontierFactory, false);
+        backward = new ShortestPathSearch(graph, frontierFactory, false);
+    }
+
+    /**
+     * Find the shortest path between two nodes, stopping as soon as the target node is visited
+     *
+     * @param graph      the graph snapshot
+     * @param sourceNode the source node
+     * @param targetNode the target node
+     * @return the finished search
+     * @throws IllegalArgumentException Exception throws when a node does not exist in graph
+     */
+    public static PointToPointSearch shortestPath(GraphSnapshot graph, String sourceNode, String targetNode)
+            throws IllegalArgumentException {
+        PointToPointSearch search = new PointToPointSearch(graph, IndexedDaryHeap::new);
+        search.search(indexOf(graph, sourceNode), indexOf(graph, targetNode));
+        return search;
+    }
+
+    /**
+     * Find the shortest path between two nodes, searching from both of them
+     *
+     * @param graph      the graph snapshot
+     * @param sourceNode the source node
+     * @param targetNode the target node
+     * @return the finished search
+     * @throws IllegalArgumentException Exception throws when a node does not exist in graph
+     */
+    public static PointToPointSearch bidirectionalShortestPath(GraphSnapshot graph, String sourceNode,
+                                                               String targetNode) throws IllegalArgumentException {
+        PointToPointSearch search = new PointToPointSearch(graph, IndexedDaryHeap::new);
+        search.searchBidirectional(indexOf(graph, sourceNode), indexOf(graph, targetNode));
+        return search;
+    }
+
+    private static int indexOf(GraphSnapshot graph, String node) throws IllegalArgumentException {
+        int index = graph.indexOf(node);
+        if (index < 0) throw new IllegalArgumentException("Node " + node + " does not exist in graph.");
+        return index;
+    }
+
+    /**
+     * Search from the source node until the target node is visited
+     *
+     * @param sourceNode index of the source node
+     * @param targetNode index of the target node
+     * @return True if the target node is reachable; otherwise false
+     */
+    public boolean search(int sourceNode, int targetNode) {
+        bidirectional = false;
+        forward.reset(sourceNode);
+        if (forward.run(targetNode)) {
+            distance = forward.getDistance(targetNode);
+            meetFrom = targetNode;
+            meetTo = targetNode;
+        } else {
+            distance = -1;
+            meetFrom = -1;
+            meetTo = -1;
+        }
+        return distance >= 0;
+    }
+
+    /**
+     * Search from both the source node and the target node until the searches meet on the shortest path
+     *
+     * @param sourceNode index of the source node
+     * @param targetNode index of the target node
+     * @return True if the target node is reachable; otherwise false
+     */
+    public boolean searchBidirectional(int sourceNode, int targetNode) {
+        bidirectional = true;
+        forward.reset(sourceNode);
+        backward.reset(targetNode);
+        long best = sourceNode == targetNode ? 0 : Long.MAX_VALUE;
+        meetFrom = sourceNode == targetNode ? sourceNode : -1;
+        meetTo = meetFrom;
+
+        while (forward.hasNextStep() && backward.hasNextStep()) {
+            // No path through an unvisited node is shorter than the nearest unvisited nodes of both sides
+            long nextForward = forward.getNextDistance();
+            long nextBackward = backward.getNextDistance();
+            if (nextForward + nextBackward >= best) break;
+
+            boolean isForward = nextForward <= nextBackward;
+            ShortestPathSearch side = isForward ? forward : backward;
+            ShortestPathSearch other = isForward ? backward : forward;
+            int node = side.step();
+            long nodeDistance = side.getDistance(node);
+
+            // Join the two searches over each link to a node already reached by the other side
+            for (int e = graph.edgeStart(node), end = graph.edgeEnd(node); e < end; e++) {
+                int linked = graph.edgeTarget(e);
+                if (other.getParent(linked) < 0) continue;
+                long total = nodeDistance + graph.edgeDistance(e) + other.getDistance(linked);
+                if (total < best) {
+                    best = total;
+                    meetFrom = isForward ? node : linked;
+                    meetTo = isForward ? linked : node;
+                }
+            }
+        }
+
+        distance = best == Long.MAX_VALUE ? -1 : (int) best;
+        return distance >= 0;
+    }
+
+    /**
+     * @return the distance of the shortest path; -1 if the target node is not reachable.
+     */
+    public int getDistance() {
+        return distance;
+    }
+
+    /**
+     * @return indexes of the nodes of the shortest path, from the source node to the target node; Empty if not reachable.
+     */
+    public int[] getPath() {
+        if (distance < 0) return new int[0];
+
+        int forwardLength = 1;
+        for (int node = meetFrom; forward.getParent(node) != node; node = forward.getParent(node)) {
+            forwardLength++;
+        }
+        int backwardLength = 0;
+        if (bidirectional && meetTo != meetFrom) {
+            for (int node = meetTo; ; node = backward.getParent(node)) {
+                backwardLength++;
+                if (backward.getParent(node) == node) break;
+            }
+        }
+
+        int[] path = new int[forwardLength + backwardLength];
+        int index = forwardLength;
+        for (int node = meetFrom; index > 0; node = forward.getParent(node)) {
+            path[--index] = node;
+        }
+        index = forwardLength;
+        for (int node = meetTo; index < path.length; node = backward.getParent(node)) {
+            path[index++] = node;
+        }
+        return path;
+    }
+
+    /**
+     * @return names of the nodes of the shortest path, from the source node to the target node; Empty if not reachable.
+     */
+    public List<String> getChain() {
+        int[] path = getPath();
+        List<String> chain = new ArrayList<>(path.length);
+        for (int node : path) {
+            chain.add(graph.getName(node));
+        }
+        return chain;
+    }
+
+    /**
+     * @return the number of nodes visited by the last query, in both directions.
+     */
+    public int getVisitedCount() {
+        return forward.getStepCount() + (bidirectional ? backward.getStepCount() : 0);
+    }
+}
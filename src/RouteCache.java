@@ -0,0 +1,152 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A size bounded LRU cache of computed shortest path trees, keyed by graph version and source node.
+ * <p>
+ * The cache holds the results of one graph at a time. Asking for another graph, or for a graph
+ * which has been modified since (See Graph#getVersion), drops all cached results first, so a stale
+ * result is never returned. The owner of the graph may also invalidate the cache explicitly.
+ * <p>
+ * Only detached trees are kept (See ShortestPathTree), never the search state which computed them,
+ * so a cached result costs a few int arrays whatever the way it was computed.
+ */
+public class RouteCache {
+
+    private final int maxEntries;
+    private final Map<Key, ShortestPathTree> entries;
+    private Graph graph;
+    private long version;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * Cache key of a shortest path tree
+     */
+    private static class Key {
+        private final long version;
+        private final String sourceNode;
+
+        private Key(long version, String sourceNode) {
+            this.version = version;
+            this.sourceNode = sourceNode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return version == key.version && sourceNode.equals(key.sourceNode);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(version, sourceNode);
+        }
+    }
+
+    /**
+     * Create an empty cache
+     *
+     * @param maxEntries maximum number of results kept, the least recently used one is evicted first
+     * @throws IllegalArgumentException Exception throws when maxEntries is not positive
+     */
+    public RouteCache(int maxEntries) throws IllegalArgumentException {
+        if (maxEntries <= 0) throw new IllegalArgumentException("Cache size must be positive.");
+        this.maxEntries = maxEntries;
+        entries = new LinkedHashMap<Key, ShortestPathTree>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, ShortestPathTree> eldest) {
+                return size() > RouteCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Get the final result of Dijkstra's algorithm from a source node, computing it on a miss.
+     *
+     * @param graph      the graph
+     * @param sourceNode Source node of graph
+     * @return the final result
+     * @throws IllegalArgumentException Exception throws when source node does not exist in graph
+     */
+    public synchronized ShortestPathTree get(Graph graph, String sourceNode) throws IllegalArgumentException {
+        ShortestPathTree result = getIfPresent(graph, sourceNode);
+        if (result != null) return result;
+
+        result = new DijkstraAlgorithm(graph, sourceNode).computeFinalResult().toShortestPathTree();
+        put(graph, sourceNode, result);
+        return result;
+    }
+
+    /**
+     * Get the cached final result of Dijkstra's algorithm from a source node, without computing it.
+     *
+     * @param graph      the graph
+     * @param sourceNode Source node of graph
+     * @return the final result; Null if it is not cached.
+     */
+    public synchronized ShortestPathTree getIfPresent(Graph graph, String sourceNode) {
+        bind(graph);
+        ShortestPathTree result = entries.get(new Key(version, sourceNode));
+        if (result != null) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+        return result;
+    }
+
+    /**
+     * Cache a final result computed elsewhere, for the current version of the graph.
+     *
+     * @param graph      the graph
+     * @param sourceNode Source node of graph
+     * @param result     the final result of Dijkstra's algorithm from the source node
+     */
+    public synchronized void put(Graph graph, String sourceNode, ShortestPathTree result) {
+        bind(graph);
+        entries.put(new Key(version, sourceNode), result);
+    }
+
+    /**
+     * Drop all cached results.
+     */
+    public synchronized void invalidate() {
+        entries.clear();
+        graph = null;
+    }
+
+    /**
+     * Drop the cached results of another graph, or of an older version of the graph.
+     */
+    private void bind(Graph graph) {
+        if (graph != this.graph || graph.getVersion() != version) {
+            invalidate();
+            this.graph = graph;
+            version = graph.getVersion();
+        }
+    }
+
+    /**
+     * @return the number of cached results.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of requests served from the cache.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return the number of requests which needed a computation.
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+}
@@ -0,0 +1,345 @@
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A live simulation of link state routing where every router is an actor on its own virtual thread.
+ * <p>
+ * Each router originates its LSA, then takes LSAs from its bounded mailbox, installs the newer ones
+ * in its own LSDB, floods them to its other neighbors and runs Dijkstra's algorithm (See
+ * ShortestPathSearch) over its own view SPF_DELAY_NANOS after the first LSA it installs. Sending never blocks: when the
+ * mailbox of a neighbor is full, the message waits in the outbox of the sender, which keeps retrying
+ * while it processes its own mailbox, so two flooding routers cannot wait on each other forever.
+ * <p>
+ * A virtual thread only holds a carrier thread while it computes, so the number of routers is not
+ * limited by platform threads. Each LSDB holds an entry per router, so the memory use still grows
+ * with the square of the number of routers.
+ */
+public class RouterActors implements AutoCloseable {
+
+    /**
+     * Number of messages a mailbox holds when none is specified
+     */
+    public static final int DEFAULT_MAILBOX_CAPACITY = 64;
+
+    /**
+     * Time an actor with a waiting outbox waits for its mailbox before retrying
+     */
+    private static final long RETRY_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    /**
+     * Time between the first LSA installed and the SPF run, so that several LSAs share one run
+     */
+    private static final long SPF_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final GraphSnapshot graph;
+    private final String[] names;
+    private final Router[] routers;
+    private final int routerCount;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong messageCount = new AtomicLong();
+    private final AtomicInteger convergedCount = new AtomicInteger();
+
+    /**
+     * Routers in order of convergence, -1 for a rank taken but not written yet
+     */
+    private final AtomicIntegerArray convergedOrder;
+    private final CountDownLatch quiescent = new CountDownLatch(1);
+    private Thread[] threads;
+    private long startTime;
+
+    /**
+     * A link state advertisement, listing the links of its origin router sorted by linked router
+     */
+    private record Lsa(int origin, int sequence, int[] neighbors, int[] distances) {
+        private boolean hasLink(int node) {
+            return Arrays.binarySearch(neighbors, node) >= 0;
+        }
+    }
+
+    private record Message(int from, Lsa lsa) {
+    }
+
+    /**
+     * Create the actors of all routers of a graph, which do not run yet
+     *
+     * @param graph           the topology, copied so that later modifications do not affect the actors
+     * @param mailboxCapacity number of messages each mailbox holds
+     * @throws IllegalArgumentException Exception throws when mailboxCapacity is not positive
+     */
+    public RouterActors(Graph graph, int mailboxCapacity) throws IllegalArgumentException {
+        if (mailboxCapacity <= 0) throw new IllegalArgumentException("Mailbox capacity must be positive.");
+        this.graph = graph.snapshot();
+        names = new String[this.graph.size()];
+        routers = new Router[this.graph.size()];
+        int count = 0;
+        for (int node = 0; node < routers.length; node++) {
+            names[node] = this.graph.getName(node);
+            if (names[node] == null) continue;
+            routers[node] = new Router(node, mailboxCapacity);
+            count++;
+        }
+        routerCount = count;
+        convergedOrder = new AtomicIntegerArray(count);
+        for (int rank = 0; rank < count; rank++) {
+            convergedOrder.set(rank, -1);
+        }
+    }
+
+    /**
+     * Start a virtual thread per router, each router originates its LSA.
+     *
+     * @throws IllegalStateException Exception throws when the actors are already started
+     */
+    public synchronized void start() throws IllegalStateException {
+        if (threads != null) throw new IllegalStateException("Actors are already started.");
+        startTime = System.nanoTime();
+        threads = new Thread[routers.length];
+        pending.set(routerCount + 1);
+        for (Router router : routers) {
+            if (router == null) continue;
+            threads[router.node] = Thread.ofVirtual().name("router-" + graph.getName(router.node)).start(router::run);
+        }
+        release();
+    }
+
+    /**
+     * Wait until no message is in flight and every router has run SPF over its final view.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the unit of timeout
+     * @return True if converged; False if the time elapsed before
+     * @throws InterruptedException Exception throws when the waiting thread is interrupted
+     */
+    public boolean awaitConvergence(long timeout, TimeUnit unit) throws InterruptedException {
+        return quiescent.await(timeout, unit);
+    }
+
+    /**
+     * Stop all actors.
+     */
+    @Override
+    public synchronized void close() {
+        if (threads == null) return;
+        for (Thread thread : threads) {
+            if (thread != null) thread.interrupt();
+        }
+    }
+
+    /**
+     * @return the number of routers.
+     */
+    public int getRouterCount() {
+        return routerCount;
+    }
+
+    /**
+     * @return the number of routers which know the LSA of every router and have run SPF over it.
+     */
+    public int getConvergedCount() {
+        return convergedCount.get();
+    }
+
+    /**
+     * Get the routers in the order they converged, so that they can be listed while the actors run.
+     *
+     * @param rank a rank in range [0, getConvergedCount())
+     * @return the router which converged at the rank; Null if it is not recorded yet
+     */
+    public String getConvergedRouter(int rank) {
+        int node = convergedOrder.get(rank);
+        return node < 0 ? null : names[node];
+    }
+
+    /**
+     * @return the number of LSA messages sent.
+     */
+    public long getMessageCount() {
+        return messageCount.get();
+    }
+
+    /**
+     * Get the time a router took to compute its final routing table
+     *
+     * @param router the router
+     * @return the time since start in nanoseconds; -1 if it has not converged yet
+     * @throws IllegalArgumentException Exception throws when the router does not exist in graph
+     */
+    public long getConvergenceTime(String router) throws IllegalArgumentException {
+        long convergedAt = routerOf(router).convergedAt;
+        return convergedAt < 0 ? -1 : convergedAt - startTime;
+    }
+
+    /**
+     * Get the distance from a router to another, in the view of the first router's LSDB.
+     * It must be called once the actors are converged (See awaitConvergence).
+     *
+     * @param router      the router
+     * @param destination the destination router
+     * @return the distance; -1 if the destination is not reachable in the view of the router
+     * @throws IllegalArgumentException Exception throws when a router does not exist in graph
+     */
+    public int getDistance(String router, String destination) throws IllegalArgumentException {
+        int target = routerOf(destination).node;
+        ShortestPathSearch search = routerOf(router).search();
+        return search.isVisited(target) ? search.getDistance(target) : -1;
+    }
+
+    private Router routerOf(String name) throws IllegalArgumentException {
+        int node = graph.indexOf(name);
+        if (node < 0) throw new IllegalArgumentException("Router " + name + " does not exist in graph.");
+        return routers[node];
+    }
+
+    /**
+     * Mark a unit of work as done, the actors are converged once all are done.
+     */
+    private void release() {
+        if (pending.decrementAndGet() == 0) quiescent.countDown();
+    }
+
+    /**
+     * A router and its LSDB, only modified by its own thread
+     */
+    private class Router {
+        private final int node;
+        private final BlockingQueue<Message> mailbox;
+        private final ArrayDeque<Message> outbox = new ArrayDeque<>();
+        private final ArrayDeque<Router> outboxTargets = new ArrayDeque<>();
+        private final Lsa[] lsdb;
+        private int known;
+        private boolean dirty;
+        private long spfDue;
+        private boolean converged;
+        private volatile long convergedAt = -1;
+
+        private Router(int node, int mailboxCapacity) {
+            this.node = node;
+            mailbox = new ArrayBlockingQueue<>(mailboxCapacity);
+            lsdb = new Lsa[routers.length];
+        }
+
+        private void run() {
+            int degree = graph.degree(node);
+            int[] neighbors = new int[degree];
+            int[] linkDistances = new int[degree];
+            for (int i = 0; i < degree; i++) {
+                neighbors[i] = graph.edgeTarget(graph.edgeStart(node) + i);
+                linkDistances[i] = graph.edgeDistance(graph.edgeStart(node) + i);
+            }
+            install(new Lsa(node, 1, neighbors, linkDistances), -1);
+            release();
+
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    if (dirty && System.nanoTime() - spfDue >= 0) runSpf();
+                    flushOutbox();
+
+                    // Wait for a message, until the outbox is retried or SPF is due
+                    long wait = outbox.isEmpty() ? Long.MAX_VALUE : RETRY_NANOS;
+                    if (dirty) wait = Math.min(wait, Math.max(0, spfDue - System.nanoTime()));
+                    Message message = wait == Long.MAX_VALUE
+                            ? mailbox.take()
+                            : mailbox.poll(wait, TimeUnit.NANOSECONDS);
+                    if (message == null) continue;
+
+                    Lsa installed = lsdb[message.lsa().origin()];
+                    if (installed == null || installed.sequence() < message.lsa().sequence()) {
+                        install(message.lsa(), message.from());
+                    }
+                    release();
+                }
+            } catch (InterruptedException ignored) {
+                // Stopped by close()
+            }
+        }
+
+        private void install(Lsa lsa, int from) {
+            if (lsdb[lsa.origin()] == null) known++;
+            lsdb[lsa.origin()] = lsa;
+            for (int edge = graph.edgeStart(node); edge < graph.edgeEnd(node); edge++) {
+                int neighbor = graph.edgeTarget(edge);
+                if (neighbor == from) continue;
+                pending.incrementAndGet();
+                messageCount.incrementAndGet();
+                send(routers[neighbor], new Message(node, lsa));
+            }
+            if (!dirty) {
+                dirty = true;
+                spfDue = System.nanoTime() + SPF_DELAY_NANOS;
+                pending.incrementAndGet();
+            }
+        }
+
+        private void send(Router target, Message message) {
+            if (!outbox.isEmpty() || !target.mailbox.offer(message)) {
+                outbox.add(message);
+                outboxTargets.add(target);
+            }
+        }
+
+        /**
+         * Retry the waiting messages in order, until a mailbox is full again.
+         */
+        private void flushOutbox() {
+            while (!outbox.isEmpty() && outboxTargets.peek().mailbox.offer(outbox.peek())) {
+                outbox.poll();
+                outboxTargets.poll();
+            }
+        }
+
+        private void runSpf() {
+            dirty = false;
+            search();
+            if (!converged && known == routerCount) {
+                converged = true;
+                convergedAt = System.nanoTime();
+                convergedOrder.set(convergedCount.getAndIncrement(), node);
+            }
+            release();
+        }
+
+        /**
+         * Run Dijkstra's algorithm over the view of the router
+         */
+        private ShortestPathSearch search() {
+            ShortestPathSearch search = new ShortestPathSearch(buildView(), IndexedDaryHeap::new, false);
+            search.reset(node);
+            search.run();
+            return search;
+        }
+
+        /**
+         * Build the graph known by the router, a link is used only if advertised by both of its routers.
+         */
+        private GraphSnapshot buildView() {
+            int[] offsets = new int[lsdb.length + 1];
+            int slots = 0;
+            for (Lsa lsa : lsdb) {
+                if (lsa != null) slots += lsa.neighbors().length;
+            }
+            int[] targets = new int[slots];
+            int[] linkDistances = new int[slots];
+            int slot = 0;
+            for (int origin = 0; origin < lsdb.length; origin++) {
+                Lsa lsa = lsdb[origin];
+                if (lsa != null) {
+                    for (int i = 0; i < lsa.neighbors().length; i++) {
+                        Lsa linked = lsdb[lsa.neighbors()[i]];
+                        if (linked == null || !linked.hasLink(origin)) continue;
+                        targets[slot] = lsa.neighbors()[i];
+                        linkDistances[slot++] = lsa.distances()[i];
+                    }
+                }
+                offsets[origin + 1] = slot;
+            }
+            return new GraphSnapshot(names, offsets, Arrays.copyOf(targets, slot), Arrays.copyOf(linkDistances, slot));
+        }
+    }
+}
@@ -0,0 +1,327 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The routing tables of a set of source nodes (routers).
+ * <p>
+ * For every source node, the table stores the distance and the next hop towards every node
+ * of the graph, indexed by node index. The tables are computed by running Dijkstra's algorithm
+ * from each source node in parallel over one shared read-only GraphSnapshot.
+ * <p>
+ * Rows are packed with as few bytes per entry as their values need. A next hop is stored as the
+ * rank of the link among the links of the source node, so it takes one byte unless the source
+ * has 254 links or more. A distance is stored relative to the smallest distance of the row, in
+ * as many bytes as the spread of the row needs. A row takes V * (1 + 2) bytes on most graphs,
+ * instead of V * 8 bytes for two int arrays.
+ */
+public class RoutingTable {
+
+    /**
+     * Next hop codes: unreachable, the source node itself, then the rank of a link of the source node
+     */
+    private static final int UNREACHABLE = 0;
+    private static final int SELF = 1;
+    private static final int FIRST_LINK = 2;
+
+    private final GraphSnapshot graph;
+    private final int[] sources;
+    private final int[] rowOfNode;
+    private final PackedRow[] distances;
+    private final PackedRow[] nextHops;
+
+    /**
+     * Values of a row packed in 1 to 4 bytes each, least significant byte first, relative to a base
+     */
+    private static class PackedRow {
+        private final byte[] bytes;
+        private final int width;
+        private final int base;
+
+        /**
+         * Pack values in range [base, base + spread]
+         */
+        private PackedRow(int[] values, int base, long spread) {
+            int width = 1;
+            while (width < Integer.BYTES && spread >>> (8 * width) != 0) width++;
+            this.width = width;
+            this.base = base;
+            bytes = new byte[Math.multiplyExact(values.length, width)];
+            for (int i = 0, offset = 0; i < values.length; i++) {
+                int value = values[i] - base;
+                for (int b = 0; b < width; b++) {
+                    bytes[offset++] = (byte) (value >>> (8 * b));
+                }
+            }
+        }
+
+        private int get(int index) {
+            int offset = index * width;
+            int value = 0;
+            for (int b = 0; b < width; b++) {
+                value |= (bytes[offset + b] & 0xFF) << (8 * b);
+            }
+            return base + value;
+        }
+    }
+
+    private RoutingTable(GraphSnapshot graph, int[] sources) {
+        this.graph = graph;
+        this.sources = sources;
+        rowOfNode = new int[graph.size()];
+        distances = new PackedRow[sources.length];
+        nextHops = new PackedRow[sources.length];
+        Arrays.fill(rowOfNode, -1);
+        for (int row = 0; row < sources.length; row++) {
+            rowOfNode[sources[row]] = row;
+        }
+    }
+
+    /**
+     * Compute the routing tables of all nodes
+     *
+     * @param graph       the graph snapshot
+     * @param parallelism number of threads to be used
+     * @return the routing tables
+     */
+    public static RoutingTable computeAll(GraphSnapshot graph, int parallelism) {
+        int[] sources = new int[graph.size()];
+        int count = 0;
+        for (int node = 0; node < graph.size(); node++) {
+            if (graph.getName(node) != null) sources[count++] = node;
+        }
+        return compute(graph, Arrays.copyOf(sources, count), parallelism);
+    }
+
+    /**
+     * Compute the routing tables of some source nodes
+     *
+     * @param graph       the graph snapshot
+     * @param sources     names of the source nodes
+     * @param parallelism number of threads to be used
+     * @return the routing tables
+     * @throws IllegalArgumentException Exception throws when a source node does not exist in graph
+     */
+    public static RoutingTable compute(GraphSnapshot graph, List<String> sources, int parallelism)
+            throws IllegalArgumentException {
+        int[] indexes = new int[sources.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = graph.indexOf(sources.get(i));
+            if (indexes[i] < 0) {
+                throw new IllegalArgumentException("Source node " + sources.get(i) + " does not exist in graph.");
+            }
+        }
+        return compute(graph, indexes, parallelism);
+    }
+
+    /**
+     * Compute the routing tables of some source nodes
+     *
+     * @param graph       the graph snapshot
+     * @param sources     indexes of the source nodes, without duplicates
+     * @param parallelism number of threads to be used
+     * @return the routing tables
+     */
+    public static RoutingTable compute(GraphSnapshot graph, int[] sources, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return compute(graph, sources, pool, IndexedDaryHeap::new);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Compute the routing tables of some source nodes with an existing pool.
+     * <p>
+     * One worker per thread of the pool is started. Each worker owns its search state and
+     * takes the next source node to be computed until none is left.
+     *
+     * @param graph           the graph snapshot
+     * @param sources         indexes of the source nodes, without duplicates
+     * @param pool            the pool running the workers
+     * @param frontierFactory Creates the priority queue used by each worker
+     * @return the routing tables
+     */
+    public static RoutingTable compute(GraphSnapshot graph, int[] sources, ForkJoinPool pool,
+                                       Frontier.Factory frontierFactory) {
+        RoutingTable table = new RoutingTable(graph, sources.clone());
+        AtomicInteger nextRow = new AtomicInteger();
+
+        List<Callable<Void>> workers = new ArrayList<>();
+        int workerCount = Math.max(1, Math.min(pool.getParallelism(), sources.length));
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(() -> {
+                ShortestPathSearch search = new ShortestPathSearch(graph, frontierFactory, false);
+                int[] distance = new int[graph.size()];
+                int[] nextHop = new int[graph.size()];
+                for (int row = nextRow.getAndIncrement(); row < sources.length; row = nextRow.getAndIncrement()) {
+                    search.reset(sources[row]);
+                    search.run();
+                    table.fillRow(row, search, distance, nextHop);
+                }
+                return null;
+            });
+        }
+
+        try {
+            for (Future<Void> result : pool.invokeAll(workers)) {
+                result.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Routing table computation is interrupted.", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Routing table computation failed.", ex.getCause());
+        }
+        return table;
+    }
+
+    /**
+     * Pack the result of a finished search into a row, through the buffers of the worker.
+     * Nodes are visited after their parent, so the next hop is inherited in visiting order.
+     */
+    private void fillRow(int row, ShortestPathSearch search, int[] distance, int[] nextHop) {
+        int source = sources[row];
+        int firstEdge = graph.edgeStart(source);
+        Arrays.fill(distance, 0);
+        Arrays.fill(nextHop, UNREACHABLE);
+
+        nextHop[source] = SELF;
+        int minDistance = 0;
+        int maxDistance = 0;
+        for (int step = 1; step < search.getStepCount(); step++) {
+            int node = search.getVisitedNode(step);
+            int parent = search.getParent(node);
+            distance[node] = search.getDistance(node);
+            nextHop[node] = parent == source ? FIRST_LINK + graph.findEdge(source, node) - firstEdge : nextHop[parent];
+            minDistance = Math.min(minDistance, distance[node]);
+            maxDistance = Math.max(maxDistance, distance[node]);
+        }
+        distances[row] = new PackedRow(distance, minDistance, (long) maxDistance - minDistance);
+        nextHops[row] = new PackedRow(nextHop, 0, FIRST_LINK + graph.degree(source) - 1);
+    }
+
+    /**
+     * @return the graph snapshot the tables are computed on.
+     */
+    public GraphSnapshot getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return the number of source nodes.
+     */
+    public int getSourceCount() {
+        return sources.length;
+    }
+
+    /**
+     * @param row a row in range [0, getSourceCount())
+     * @return index of the source node of the row.
+     */
+    public int getSource(int row) {
+        return sources[row];
+    }
+
+    /**
+     * Get the row of a source node.
+     *
+     * @param source name of the source node
+     * @return the row of the source node; -1 if the node is not a computed source.
+     */
+    public int rowOf(String source) {
+        int node = graph.indexOf(source);
+        return node < 0 ? -1 : rowOfNode[node];
+    }
+
+    /**
+     * Get the distance from the source node of a row to a node.
+     *
+     * @param row  a row in range [0, getSourceCount())
+     * @param node index of the destination node
+     * @return the distance; -1 if the node is unreachable.
+     */
+    public int getDistance(int row, int node) {
+        return nextHops[row].get(node) == UNREACHABLE ? -1 : distances[row].get(node);
+    }
+
+    /**
+     * Get the next hop from the source node of a row towards a node.
+     *
+     * @param row  a row in range [0, getSourceCount())
+     * @param node index of the destination node
+     * @return index of the next hop; the source node itself if the destination is the source; -1 if the node is unreachable.
+     */
+    public int getNextHop(int row, int node) {
+        int code = nextHops[row].get(node);
+        if (code == UNREACHABLE) return -1;
+        int source = sources[row];
+        return code == SELF ? source : graph.edgeTarget(graph.edgeStart(source) + code - FIRST_LINK);
+    }
+
+    /**
+     * Get the distance between two nodes.
+     *
+     * @param source      name of a computed source node
+     * @param destination name of the destination node
+     * @return the distance; -1 if the source is not computed, or the destination does not exist or is unreachable.
+     */
+    public int getDistance(String source, String destination) {
+        int row = rowOf(source);
+        int node = graph.indexOf(destination);
+        if (row < 0 || node < 0) return -1;
+        return getDistance(row, node);
+    }
+
+    /**
+     * Get the next hop from a source node towards a destination node.
+     *
+     * @param source      name of a computed source node
+     * @param destination name of the destination node
+     * @return the name of the next hop; Null if the source is not computed, or the destination does not exist or is unreachable.
+     */
+    public String getNextHop(String source, String destination) {
+        int row = rowOf(source);
+        int node = graph.indexOf(destination);
+        if (row < 0 || node < 0) return null;
+        int nextHop = getNextHop(row, node);
+        return nextHop < 0 ? null : graph.getName(nextHop);
+    }
+
+    /**
+     * Write the routes of a row, skipping the source node and the unreachable nodes.
+     * In text, a "Router" line is followed by one indented line per route; in CSV, each route is
+     * a "source,destination,next_hop,cost" line.
+     *
+     * @param out   receives the lines
+     * @param row   a row in range [0, getSourceCount())
+     * @param nodes indexes of the destination nodes, in the order they are listed
+     * @param csv   True to write CSV lines; False to write text
+     * @throws IOException Occurs when error occurs while writing
+     */
+    public void writeRow(Appendable out, int row, int[] nodes, boolean csv) throws IOException {
+        int source = sources[row];
+        String sourceName = graph.getName(source);
+        if (!csv) out.append("Router ").append(sourceName).append(":\n");
+
+        for (int node : nodes) {
+            int nextHop = getNextHop(row, node);
+            if (node == source || nextHop < 0) continue;
+            String cost = Integer.toString(getDistance(row, node));
+            if (csv) {
+                out.append(sourceName).append(',').append(graph.getName(node)).append(',')
+                        .append(graph.getName(nextHop)).append(',').append(cost).append('\n');
+            } else {
+                out.append("    ").append(graph.getName(node)).append(": Next hop: ")
+                        .append(graph.getName(nextHop)).append(" Cost: ").append(cost).append('\n');
+            }
+        }
+    }
+}
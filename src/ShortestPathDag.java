@@ -0,0 +1,265 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * All shortest paths from a source node, as a directed acyclic graph of predecessors.
+ * <p>
+ * A search keeps a single parent per node and drops the other links on a shortest path of equal
+ * cost. The DAG keeps all of them: the predecessors of node i are stored in the slots
+ * [predecessorStart(i), predecessorEnd(i)) of one flat array, like the links of a GraphSnapshot.
+ * Path counts and first hop sets are then propagated once over the nodes in visiting order, so
+ * nothing is proportional to the number of paths, which grows exponentially on symmetric fabrics.
+ * <p>
+ * The first hops of a node are the linked nodes of the source node through which one of its
+ * shortest paths goes, that is the equal cost multipath (ECMP) next hops towards it. They are
+ * stored as one bitset per node, with one bit per link of the source node. They take
+ * V * ceil(deg(source) / 64) longs, which is one long per node for most routers, but grows with
+ * the degree of the source node: a source of 10k links on a 1M node graph needs about 1.3 GB.
+ * <p>
+ * A predecessor must be visited before its node, so that links of zero cost never form a cycle:
+ * of two nodes at the same distance joined by such a link, only the one visited first is kept
+ * as a predecessor of the other.
+ */
+public class ShortestPathDag {
+
+    private final GraphSnapshot graph;
+    private final int sourceNode;
+    private final int[] distance;
+
+    private final int[] predecessorOffsets;
+    private final int[] predecessors;
+
+    /**
+     * Number of shortest paths of each node, Long.MAX_VALUE once it overflows
+     */
+    private final long[] pathCounts;
+
+    /**
+     * Bitsets of first hops, words [node * words, (node + 1) * words) belong to the node
+     */
+    private final long[] firstHops;
+    private final int words;
+
+    /**
+     * Build the DAG from a search which has visited all reachable nodes
+     *
+     * @param search the finished search
+     * @throws IllegalArgumentException Exception throws when the search is not finished, or when the first hop sets
+     *                                  do not fit in an array
+     */
+    public ShortestPathDag(ShortestPathSearch search) throws IllegalArgumentException {
+        if (search.hasNextStep()) throw new IllegalArgumentException("Search is not finished.");
+        graph = search.getGraph();
+        sourceNode = search.getSourceNode();
+        int nodeCount = graph.size();
+        int visitCount = search.getStepCount();
+
+        int[] visitRank = new int[nodeCount];
+        Arrays.fill(visitRank, -1);
+        for (int step = 0; step < visitCount; step++) {
+            visitRank[search.getVisitedNode(step)] = step;
+        }
+        distance = new int[nodeCount];
+        Arrays.fill(distance, -1);
+        for (int step = 0; step < visitCount; step++) {
+            int node = search.getVisitedNode(step);
+            distance[node] = search.getDistance(node);
+        }
+
+        predecessorOffsets = new int[nodeCount + 1];
+        int count = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            if (visitRank[node] >= 0) count += countPredecessors(node, visitRank);
+            predecessorOffsets[node + 1] = count;
+        }
+        predecessors = new int[count];
+        for (int node = 0, slot = 0; node < nodeCount; node++) {
+            if (visitRank[node] < 0) continue;
+            for (int e = graph.edgeStart(node), end = graph.edgeEnd(node); e < end; e++) {
+                if (isPredecessorLink(node, e, visitRank)) predecessors[slot++] = graph.edgeTarget(e);
+            }
+        }
+
+        // Predecessors are visited first, so one pass in visiting order sees their final values
+        pathCounts = new long[nodeCount];
+        words = (graph.degree(sourceNode) + 63) >>> 6;
+        try {
+            firstHops = new long[Math.multiplyExact(nodeCount, words)];
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("First hop sets of " + nodeCount + " nodes and "
+                    + graph.degree(sourceNode) + " source links are too large.", ex);
+        }
+        pathCounts[sourceNode] = 1;
+        for (int step = 1; step < visitCount; step++) {
+            int node = search.getVisitedNode(step);
+            long paths = 0;
+            for (int slot = predecessorOffsets[node]; slot < predecessorOffsets[node + 1]; slot++) {
+                int predecessor = predecessors[slot];
+                paths += pathCounts[predecessor];
+                if (paths < 0) paths = Long.MAX_VALUE;
+                if (predecessor == sourceNode) {
+                    int bit = linkIndex(node);
+                    firstHops[node * words + (bit >>> 6)] |= 1L << bit;
+                } else {
+                    for (int word = 0; word < words; word++) {
+                        firstHops[node * words + word] |= firstHops[predecessor * words + word];
+                    }
+                }
+            }
+            pathCounts[node] = paths;
+        }
+    }
+
+    private int countPredecessors(int node, int[] visitRank) {
+        int count = 0;
+        for (int e = graph.edgeStart(node), end = graph.edgeEnd(node); e < end; e++) {
+            if (isPredecessorLink(node, e, visitRank)) count++;
+        }
+        return count;
+    }
+
+    private boolean isPredecessorLink(int node, int edge, int[] visitRank) {
+        int linked = graph.edgeTarget(edge);
+        return visitRank[linked] >= 0 && visitRank[linked] < visitRank[node]
+                && distance[linked] + graph.edgeDistance(edge) == distance[node];
+    }
+
+    /**
+     * @return the position of a node among the links of the source node.
+     */
+    private int linkIndex(int node) {
+        int low = graph.edgeStart(sourceNode);
+        int high = graph.edgeEnd(sourceNode) - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (graph.edgeTarget(middle) < node) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low - graph.edgeStart(sourceNode);
+    }
+
+    /**
+     * @return the graph snapshot the DAG is built on.
+     */
+    public GraphSnapshot getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return index of the source node.
+     */
+    public int getSourceNode() {
+        return sourceNode;
+    }
+
+    /**
+     * @param node index of the node
+     * @return the distance from the source node; -1 if not reachable.
+     */
+    public int getDistance(int node) {
+        return distance[node];
+    }
+
+    /**
+     * @param node index of the node
+     * @return the first predecessor slot of the node.
+     */
+    public int predecessorStart(int node) {
+        return predecessorOffsets[node];
+    }
+
+    /**
+     * @param node index of the node
+     * @return the slot after the last predecessor slot of the node.
+     */
+    public int predecessorEnd(int node) {
+        return predecessorOffsets[node + 1];
+    }
+
+    /**
+     * @param slot a predecessor slot
+     * @return index of the predecessor stored in the slot.
+     */
+    public int predecessor(int slot) {
+        return predecessors[slot];
+    }
+
+    /**
+     * Get the number of shortest paths from the source node
+     *
+     * @param node index of the node
+     * @return the number of paths, 1 for the source node; 0 if not reachable; Long.MAX_VALUE if it overflows.
+     */
+    public long getPathCount(int node) {
+        return pathCounts[node];
+    }
+
+    /**
+     * Get the ECMP next hops towards a node
+     *
+     * @param node index of the node
+     * @return indexes of the first hops of all shortest paths, in ascending order; Empty for the source node or if not reachable.
+     */
+    public int[] getFirstHops(int node) {
+        int[] hops = new int[getFirstHopCount(node)];
+        int count = 0;
+        for (int word = 0; word < words; word++) {
+            long bits = firstHops[node * words + word];
+            while (bits != 0) {
+                int bit = (word << 6) + Long.numberOfTrailingZeros(bits);
+                hops[count++] = graph.edgeTarget(graph.edgeStart(sourceNode) + bit);
+                bits &= bits - 1;
+            }
+        }
+        return hops;
+    }
+
+    /**
+     * @param node index of the node
+     * @return the number of ECMP next hops towards the node.
+     */
+    public int getFirstHopCount(int node) {
+        int count = 0;
+        for (int word = 0; word < words; word++) {
+            count += Long.bitCount(firstHops[node * words + word]);
+        }
+        return count;
+    }
+
+    /**
+     * Get the number of shortest paths from the source node
+     *
+     * @param destination the destination node
+     * @return the number of paths; 0 if not reachable; Long.MAX_VALUE if it overflows.
+     * @throws IllegalArgumentException Exception throws when destination does not exist in graph
+     */
+    public long getPathCount(String destination) throws IllegalArgumentException {
+        return pathCounts[indexOf(destination)];
+    }
+
+    /**
+     * Get the ECMP next hops towards a node
+     *
+     * @param destination the destination node
+     * @return names of the first hops of all shortest paths; Empty for the source node or if not reachable.
+     * @throws IllegalArgumentException Exception throws when destination does not exist in graph
+     */
+    public List<String> getNextHops(String destination) throws IllegalArgumentException {
+        int[] hops = getFirstHops(indexOf(destination));
+        List<String> names = new ArrayList<>(hops.length);
+        for (int hop : hops) {
+            names.add(graph.getName(hop));
+        }
+        return names;
+    }
+
+    private int indexOf(String node) throws IllegalArgumentException {
+        int index = graph.indexOf(node);
+        if (index < 0) throw new IllegalArgumentException("Node " + node + " does not exist in graph.");
+        return index;
+    }
+}
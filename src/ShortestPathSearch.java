@@ -0,0 +1,320 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * The working state of a single source Dijkstra's search over a GraphSnapshot.
+ * <p>
+ * Each step visits the nearest discovered node and relaxes its links. When steps are recorded,
+ * only the delta of each step is kept: the visited node, plus the node, the previous chain and
+ * the new distance of every relaxed link. The parent and distance arrays can then be moved back
+ * and forth to the state after any step with {@link #seek(int)}, so a view of an old step does
+ * not need its own copy of the whole state.
+ * <p>
+ * A search can be reset and reused for another source node without reallocating its arrays.
+ * It is not thread safe.
+ */
+public class ShortestPathSearch {
+
+    private final GraphSnapshot graph;
+    private final Frontier frontier;
+    private final boolean recordSteps;
+
+    /**
+     * The chain of the path routed, indexed by node index.
+     * <p>
+     * parent: the previous node in the chain, -1 if not discovered yet
+     * distance: the total distance from the source node
+     */
+    private final int[] parent;
+    private final int[] distance;
+    private final boolean[] visited;
+
+    /**
+     * Visited nodes in visiting order, which is also the visited node of each step
+     */
+    private final int[] visitOrder;
+    private int visitCount;
+
+    /**
+     * Nodes which have been discovered since the last reset
+     */
+    private final int[] touched;
+    private int touchedCount;
+
+    private int sourceNode = -1;
+    private int nextNode = -1;
+
+    /**
+     * Step records: relaxations of step s are stored in [relaxEnd[s - 1], relaxEnd[s])
+     */
+    private int[] relaxEnd;
+    private int[] relaxNode;
+    private int[] relaxOldParent;
+    private int[] relaxOldDistance;
+    private int[] relaxNewDistance;
+    private int relaxCount;
+
+    /**
+     * Number of steps applied to parent and distance arrays
+     */
+    private int position;
+
+    /**
+     * Create a search over a graph snapshot
+     *
+     * @param graph           the graph snapshot
+     * @param frontierFactory Creates the priority queue used to pick the next node to be visited
+     * @param recordSteps     True to record the delta of each step so that old steps can be viewed
+     */
+    public ShortestPathSearch(GraphSnapshot graph, Frontier.Factory frontierFactory, boolean recordSteps) {
+        this.graph = graph;
+        this.recordSteps = recordSteps;
+        frontier = frontierFactory.create(graph.size());
+
+        parent = new int[graph.size()];
+        distance = new int[graph.size()];
+        visited = new boolean[graph.size()];
+        visitOrder = new int[graph.size()];
+        touched = new int[graph.size()];
+        Arrays.fill(parent, -1);
+        Arrays.fill(distance, Integer.MAX_VALUE);
+
+        if (recordSteps) {
+            relaxEnd = new int[16];
+            relaxNode = new int[16];
+            relaxOldParent = new int[16];
+            relaxOldDistance = new int[16];
+            relaxNewDistance = new int[16];
+        }
+    }
+
+    /**
+     * Clear the state of previous search and start from a new source node.
+     * The cost is proportional to the number of nodes discovered by the previous search.
+     *
+     * @param sourceNode index of the source node
+     */
+    public void reset(int sourceNode) {
+        for (int i = 0; i < touchedCount; i++) {
+            int node = touched[i];
+            parent[node] = -1;
+            distance[node] = Integer.MAX_VALUE;
+            visited[node] = false;
+        }
+        frontier.clear();
+        touchedCount = 0;
+        visitCount = 0;
+        relaxCount = 0;
+        position = 0;
+
+        this.sourceNode = sourceNode;
+        nextNode = sourceNode;
+        parent[sourceNode] = sourceNode;
+        distance[sourceNode] = 0;
+        touched[touchedCount++] = sourceNode;
+    }
+
+    /**
+     * @return True if there are discovered nodes not visited yet; otherwise false
+     */
+    public boolean hasNextStep() {
+        return nextNode >= 0;
+    }
+
+    /**
+     * Visit the nearest discovered node and relax its links.
+     *
+     * @return index of the visited node
+     * @throws NoSuchElementException Exception throws when all reachable nodes are visited
+     */
+    public int step() {
+        if (!hasNextStep()) throw new NoSuchElementException("All reachable nodes are visited.");
+        seek(visitCount);
+
+        int node = nextNode;
+        visited[node] = true;
+        visitOrder[visitCount++] = node;
+
+        int nodeDistance = distance[node];
+        for (int e = graph.edgeStart(node), end = graph.edgeEnd(node); e < end; e++) {
+            int target = graph.edgeTarget(e);
+            if (visited[target]) continue;
+
+            int newDistance = nodeDistance + graph.edgeDistance(e);
+            if (distance[target] > newDistance) {
+                if (recordSteps) record(target, newDistance);
+                if (parent[target] < 0) touched[touchedCount++] = target;
+                parent[target] = node;
+                distance[target] = newDistance;
+                frontier.offer(target, newDistance);
+            }
+        }
+
+        if (recordSteps) {
+            if (visitCount > relaxEnd.length) relaxEnd = Arrays.copyOf(relaxEnd, relaxEnd.length * 2);
+            relaxEnd[visitCount - 1] = relaxCount;
+        }
+        position = visitCount;
+
+        // The frontier holds the discovered nodes which are not visited yet, shortest first
+        nextNode = frontier.isEmpty() ? -1 : frontier.poll();
+        return node;
+    }
+
+    /**
+     * Keep stepping until all reachable nodes are visited.
+     */
+    public void run() {
+        while (hasNextStep()) step();
+    }
+
+    /**
+     * Keep stepping until a target node is visited, the nodes farther than it are left unvisited.
+     *
+     * @param targetNode index of the target node
+     * @return True if the target node is visited; False if it is not reachable
+     */
+    public boolean run(int targetNode) {
+        if (visited[targetNode]) return true;
+        while (hasNextStep()) {
+            if (step() == targetNode) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Move the parent and distance arrays to the state right after a number of steps.
+     *
+     * @param steps number of steps, in range [0, getStepCount()]
+     * @throws IllegalStateException Exception throws when steps are not recorded and the state is not the latest one
+     */
+    public void seek(int steps) throws IllegalStateException {
+        if (steps == position) return;
+        if (!recordSteps) throw new IllegalStateException("Steps are not recorded.");
+
+        // Undo steps backward
+        while (position > steps) {
+            position--;
+            for (int i = relaxEnd[position] - 1; i >= relaxStart(position); i--) {
+                parent[relaxNode[i]] = relaxOldParent[i];
+                distance[relaxNode[i]] = relaxOldDistance[i];
+            }
+        }
+        // Redo steps forward
+        while (position < steps) {
+            for (int i = relaxStart(position); i < relaxEnd[position]; i++) {
+                parent[relaxNode[i]] = visitOrder[position];
+                distance[relaxNode[i]] = relaxNewDistance[i];
+            }
+            position++;
+        }
+    }
+
+    /**
+     * @return the graph snapshot being searched.
+     */
+    public GraphSnapshot getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return index of the source node.
+     */
+    public int getSourceNode() {
+        return sourceNode;
+    }
+
+    /**
+     * @return True if the delta of each step is recorded; otherwise false
+     */
+    public boolean isRecordingSteps() {
+        return recordSteps;
+    }
+
+    /**
+     * @return the number of steps done, which is also the number of visited nodes.
+     */
+    public int getStepCount() {
+        return visitCount;
+    }
+
+    /**
+     * @return the number of nodes discovered so far, visited or not.
+     */
+    public int getDiscoveredCount() {
+        return touchedCount;
+    }
+
+    /**
+     * @param step a step in range [0, getStepCount())
+     * @return index of the node visited at the step.
+     */
+    public int getVisitedNode(int step) {
+        return visitOrder[step];
+    }
+
+    /**
+     * Get the nodes whose chain is changed by a step.
+     *
+     * @param step a recorded step in range [0, getStepCount())
+     * @return the nodes relaxed at the step, in link order; Empty if steps are not recorded.
+     */
+    public int[] getRelaxedNodes(int step) {
+        if (!recordSteps) return new int[0];
+        return Arrays.copyOfRange(relaxNode, relaxStart(step), relaxEnd[step]);
+    }
+
+    /**
+     * Get the previous node in the chain, in the state of the last seek or step.
+     *
+     * @param node index of the node
+     * @return index of the previous node; the node itself for the source node; -1 if not discovered.
+     */
+    public int getParent(int node) {
+        return parent[node];
+    }
+
+    /**
+     * Get the distance from the source node, in the state of the last seek or step.
+     *
+     * @param node index of the node
+     * @return the distance; Integer.MAX_VALUE if not discovered.
+     */
+    public int getDistance(int node) {
+        return distance[node];
+    }
+
+    /**
+     * @return the distance of the node visited by the next step; Integer.MAX_VALUE if all reachable nodes are visited.
+     */
+    public int getNextDistance() {
+        return nextNode < 0 ? Integer.MAX_VALUE : distance[nextNode];
+    }
+
+    /**
+     * @param node index of the node
+     * @return True if the node is visited in the latest state; otherwise false
+     */
+    public boolean isVisited(int node) {
+        return visited[node];
+    }
+
+    private int relaxStart(int step) {
+        return step == 0 ? 0 : relaxEnd[step - 1];
+    }
+
+    private void record(int node, int newDistance) {
+        if (relaxCount == relaxNode.length) {
+            int length = relaxCount * 2;
+            relaxNode = Arrays.copyOf(relaxNode, length);
+            relaxOldParent = Arrays.copyOf(relaxOldParent, length);
+            relaxOldDistance = Arrays.copyOf(relaxOldDistance, length);
+            relaxNewDistance = Arrays.copyOf(relaxNewDistance, length);
+        }
+        relaxNode[relaxCount] = node;
+        relaxOldParent[relaxCount] = parent[node];
+        relaxOldDistance[relaxCount] = distance[node];
+        relaxNewDistance[relaxCount] = newDistance;
+        relaxCount++;
+    }
+}
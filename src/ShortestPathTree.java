@@ -0,0 +1,244 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The final shortest path tree of a search, detached from the search state.
+ * <p>
+ * The parent, distance and depth of each node are copied into int arrays indexed by node index,
+ * so a path is rebuilt by following parents without any lookup. As the depth of the target node
+ * is known, the path is written backward straight into its place in the buffer, in O(length).
+ * All paths can be listed in visiting order with a PathCursor, reusing one buffer.
+ */
+public class ShortestPathTree {
+
+    private final GraphSnapshot graph;
+    private final int sourceNode;
+
+    /**
+     * Reached nodes in visiting order, so a parent always comes before its children
+     */
+    private final int[] order;
+
+    /**
+     * parent: the previous node in the chain, the source node itself for the source node, -1 if not reached
+     * distance: the total distance from the source node
+     * depth: the number of links from the source node
+     */
+    private final int[] parent;
+    private final int[] distance;
+    private final int[] depth;
+    private int maxDepth;
+
+    /**
+     * Copy the tree of the nodes visited by a search
+     *
+     * @param search the search, whose latest state is copied
+     */
+    public ShortestPathTree(ShortestPathSearch search) {
+        this(search, search.getStepCount());
+    }
+
+    /**
+     * Copy the tree of the nodes visited by a search after a number of steps
+     *
+     * @param search the search
+     * @param steps  number of steps, in range [0, getStepCount()]
+     * @throws IllegalStateException Exception throws when steps are not recorded and the state is not the latest one
+     */
+    ShortestPathTree(ShortestPathSearch search, int steps) throws IllegalStateException {
+        search.seek(steps);
+        graph = search.getGraph();
+        sourceNode = search.getSourceNode();
+        order = new int[steps];
+        parent = new int[graph.size()];
+        distance = new int[graph.size()];
+        depth = new int[graph.size()];
+        Arrays.fill(parent, -1);
+        Arrays.fill(distance, -1);
+        Arrays.fill(depth, -1);
+
+        for (int step = 0; step < steps; step++) {
+            int node = search.getVisitedNode(step);
+            order[step] = node;
+            parent[node] = search.getParent(node);
+            distance[node] = search.getDistance(node);
+            depth[node] = node == sourceNode ? 0 : depth[parent[node]] + 1;
+            maxDepth = Math.max(maxDepth, depth[node]);
+        }
+    }
+
+    /**
+     * @return the graph snapshot the tree is computed on.
+     */
+    public GraphSnapshot getGraph() {
+        return graph;
+    }
+
+    /**
+     * @return index of the source node.
+     */
+    public int getSourceNode() {
+        return sourceNode;
+    }
+
+    /**
+     * @return the number of reached nodes, including the source node.
+     */
+    public int getReachedCount() {
+        return order.length;
+    }
+
+    /**
+     * @param rank a rank in range [0, getReachedCount())
+     * @return index of the node reached at the rank, in visiting order.
+     */
+    public int getReachedNode(int rank) {
+        return order[rank];
+    }
+
+    /**
+     * Get the previous node in the chain
+     *
+     * @param node index of the node
+     * @return index of the previous node; the node itself for the source node; -1 if not reached.
+     */
+    public int getParent(int node) {
+        return parent[node];
+    }
+
+    /**
+     * @param node index of the node
+     * @return the distance from the source node; -1 if not reached.
+     */
+    public int getDistance(int node) {
+        return distance[node];
+    }
+
+    /**
+     * @param node index of the node
+     * @return the number of links from the source node; -1 if not reached.
+     */
+    public int getDepth(int node) {
+        return depth[node];
+    }
+
+    /**
+     * @return the largest number of links from the source node, a buffer of getMaxDepth() + 1 holds any path.
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Write the chain from the source node to a node into a buffer
+     *
+     * @param node   index of the node
+     * @param buffer receives the node indexes from index 0, at least getDepth(node) + 1 long
+     * @return the number of nodes written; 0 if not reached.
+     * @throws IllegalArgumentException Exception throws when the buffer is too short
+     */
+    public int getPath(int node, int[] buffer) throws IllegalArgumentException {
+        if (depth[node] < 0) return 0;
+        int length = depth[node] + 1;
+        if (buffer.length < length) throw new IllegalArgumentException("Buffer is too short for the path.");
+        for (int i = length - 1; i >= 0; i--) {
+            buffer[i] = node;
+            node = parent[node];
+        }
+        return length;
+    }
+
+    /**
+     * Get the distance from the source node to the target node.
+     *
+     * @param targetNode the node to be checked
+     * @return the distance; -1 if the target node is not reached.
+     */
+    public int distance(String targetNode) {
+        int target = graph.indexOf(targetNode);
+        return target < 0 ? -1 : distance[target];
+    }
+
+    /**
+     * Return a chain from source node to the target node.
+     *
+     * @param targetNode the node to be checked
+     * @return A list of node, which is the chain in order from source node to target node;
+     * An empty list if the target node is not reached.
+     */
+    public List<String> getChain(String targetNode) {
+        int target = graph.indexOf(targetNode);
+        if (target < 0 || depth[target] < 0) return new ArrayList<>();
+
+        int[] path = new int[depth[target] + 1];
+        getPath(target, path);
+        List<String> chain = new ArrayList<>(path.length);
+        for (int node : path) {
+            chain.add(graph.getName(node));
+        }
+        return chain;
+    }
+
+    /**
+     * @return a cursor over the paths of all reached nodes, in visiting order.
+     */
+    public PathCursor paths() {
+        return new PathCursor();
+    }
+
+    /**
+     * A cursor over the paths of all reached nodes in visiting order, the source node first.
+     * The path of the current node is kept in one buffer, overwritten by each call to next().
+     */
+    public class PathCursor {
+
+        private final int[] buffer = new int[maxDepth + 1];
+        private int rank = -1;
+        private int length;
+
+        private PathCursor() {
+        }
+
+        /**
+         * Move to the next reached node.
+         *
+         * @return True if moved; False if all nodes are listed
+         */
+        public boolean next() {
+            if (rank + 1 >= order.length) return false;
+            rank++;
+            length = getPath(order[rank], buffer);
+            return true;
+        }
+
+        /**
+         * @return index of the current node.
+         */
+        public int getNode() {
+            return order[rank];
+        }
+
+        /**
+         * @return the distance of the current node from the source node.
+         */
+        public int getDistance() {
+            return distance[order[rank]];
+        }
+
+        /**
+         * @return the number of nodes in the path of the current node.
+         */
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * @param index an index in range [0, getLength())
+         * @return index of the node at that position of the path, the source node at 0.
+         */
+        public int getPathNode(int index) {
+            return buffer[index];
+        }
+    }
+}
@@ -0,0 +1,144 @@
+import javax.swing.*;
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
+import java.util.List;
+
+/**
+ * The model of the source node selector, listing the nodes whose name starts with a typed prefix.
+ * <p>
+ * Names are read on demand from the sorted node names of a GraphTreeModel, in which the range of
+ * a prefix is found by binary search. Nothing is copied when the prefix or the graph changes, and
+ * the range is shifted on each added or removed node.
+ */
+public class SourceSelectionModel extends AbstractListModel<String> implements ComboBoxModel<String>, TreeModelListener {
+
+    private final List<String> nodes;
+    private String prefix = "";
+    private int from;
+    private int to;
+    private Object selectedItem;
+
+    /**
+     * Create the model of all nodes of a tree model, which is kept up to date
+     *
+     * @param graphModel the tree model of the graph
+     */
+    public SourceSelectionModel(GraphTreeModel graphModel) {
+        nodes = ((GraphTreeModel.Root) graphModel.getRoot()).nodes;
+        graphModel.addTreeModelListener(this);
+        updateRange();
+    }
+
+    /**
+     * Only list the nodes whose name starts with a prefix
+     *
+     * @param prefix the prefix, all nodes are listed if empty
+     */
+    public void setPrefix(String prefix) {
+        if (prefix.equals(this.prefix)) return;
+        this.prefix = prefix;
+        reload();
+    }
+
+    /**
+     * @return the prefix of the listed nodes.
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    @Override
+    public int getSize() {
+        return to - from;
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        return nodes.get(from + index);
+    }
+
+    @Override
+    public void setSelectedItem(Object item) {
+        if (item == null ? selectedItem == null : item.equals(selectedItem)) return;
+        selectedItem = item;
+        fireContentsChanged(this, -1, -1);
+    }
+
+    @Override
+    public Object getSelectedItem() {
+        return selectedItem;
+    }
+
+    @Override
+    public void treeNodesChanged(TreeModelEvent e) {
+    }
+
+    @Override
+    public void treeNodesInserted(TreeModelEvent e) {
+        if (e.getTreePath().getPathCount() != 1) return;
+        int index = e.getChildIndices()[0];
+        String name = ((GraphTreeModel.Node) e.getChildren()[0]).name;
+        if (name.startsWith(prefix)) {
+            to++;
+            fireIntervalAdded(this, index - from, index - from);
+        } else if (name.compareTo(prefix) < 0) {
+            from++;
+            to++;
+        }
+    }
+
+    @Override
+    public void treeNodesRemoved(TreeModelEvent e) {
+        if (e.getTreePath().getPathCount() != 1) return;
+        int index = e.getChildIndices()[0];
+        String name = ((GraphTreeModel.Node) e.getChildren()[0]).name;
+        if (name.startsWith(prefix)) {
+            to--;
+            fireIntervalRemoved(this, index - from, index - from);
+        } else if (name.compareTo(prefix) < 0) {
+            from--;
+            to--;
+        }
+    }
+
+    @Override
+    public void treeStructureChanged(TreeModelEvent e) {
+        reload();
+    }
+
+    private void reload() {
+        int oldSize = getSize();
+        to = from;
+        if (oldSize > 0) fireIntervalRemoved(this, 0, oldSize - 1);
+        updateRange();
+        if (getSize() > 0) fireIntervalAdded(this, 0, getSize() - 1);
+    }
+
+    /**
+     * Find the range of names starting with the prefix, which are consecutive in order.
+     */
+    private void updateRange() {
+        int low = 0;
+        int high = nodes.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (nodes.get(middle).compareTo(prefix) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        from = low;
+
+        high = nodes.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (nodes.get(middle).startsWith(prefix)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        to = low;
+    }
+}
@@ -0,0 +1,165 @@
+import javax.swing.*;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An append-only log of status lines, bounded by a ring buffer, used as the model of a JList.
+ * <p>
+ * Text may be appended from any thread. Complete lines are queued and added to the model once per
+ * frame on the event dispatch thread, with a single event for the whole batch, so the cost of an
+ * append does not depend on the size of the log. Once the log is full, the oldest lines are dropped.
+ * The longest line added since the last clear is kept, so that a view can size its cells without
+ * measuring every line.
+ */
+public class StatusLog extends AbstractListModel<String> {
+
+    /**
+     * Interval between two batches of appended lines, about one frame
+     */
+    private static final int FRAME_MS = 16;
+
+    private final String[] lines;
+    private int head;
+    private int size;
+    private String longestLine = "";
+
+    private final Object lock = new Object();
+    private final StringBuilder partialLine = new StringBuilder();
+    private List<String> pending = new ArrayList<>();
+    private final Timer timer;
+    private boolean flushScheduled;
+
+    /**
+     * Create an empty log
+     *
+     * @param capacity maximum number of lines kept
+     * @throws IllegalArgumentException Exception throws when capacity is not positive
+     */
+    public StatusLog(int capacity) throws IllegalArgumentException {
+        if (capacity <= 0) throw new IllegalArgumentException("Log capacity must be positive.");
+        lines = new String[capacity];
+        timer = new Timer(FRAME_MS, e -> flush());
+        timer.setRepeats(false);
+    }
+
+    /**
+     * Append text to the log. It is shown once its line is terminated by a line feed.
+     * It can be called by any thread.
+     *
+     * @param text the text
+     */
+    public void append(String text) {
+        synchronized (lock) {
+            int start = 0;
+            int end;
+            while ((end = text.indexOf('\n', start)) >= 0) {
+                partialLine.append(text, start, end);
+                pending.add(partialLine.toString());
+                partialLine.setLength(0);
+                start = end + 1;
+            }
+            partialLine.append(text, start, text.length());
+            if (!pending.isEmpty() && !flushScheduled) {
+                flushScheduled = true;
+                timer.restart();
+            }
+        }
+    }
+
+    /**
+     * Add the lines appended since the last batch to the model.
+     * It must be called by the event dispatch thread.
+     */
+    public void flush() {
+        List<String> batch;
+        synchronized (lock) {
+            flushScheduled = false;
+            if (pending.isEmpty()) return;
+            batch = pending;
+            pending = new ArrayList<>();
+        }
+
+        int capacity = lines.length;
+        int added = Math.min(batch.size(), capacity);
+        int removed = Math.max(0, size + added - capacity);
+        if (removed > 0) {
+            for (int i = 0; i < removed; i++) {
+                lines[(head + i) % capacity] = null;
+            }
+            head = (head + removed) % capacity;
+            size -= removed;
+            fireIntervalRemoved(this, 0, removed - 1);
+        }
+        int first = size;
+        for (int i = batch.size() - added; i < batch.size(); i++) {
+            String line = batch.get(i);
+            lines[(head + size) % capacity] = line;
+            size++;
+            if (line.length() > longestLine.length()) longestLine = line;
+        }
+        fireIntervalAdded(this, first, size - 1);
+    }
+
+    /**
+     * Drop all lines of the log, including the ones not shown yet.
+     * It must be called by the event dispatch thread.
+     */
+    public void clear() {
+        synchronized (lock) {
+            pending.clear();
+            partialLine.setLength(0);
+        }
+        int oldSize = size;
+        Arrays.fill(lines, null);
+        head = 0;
+        size = 0;
+        longestLine = "";
+        if (oldSize > 0) fireIntervalRemoved(this, 0, oldSize - 1);
+    }
+
+    /**
+     * Write all lines of the log, including the ones not shown yet.
+     * It must be called by the event dispatch thread.
+     *
+     * @param writer the writer, which is not closed
+     * @throws IOException Exception throws when the lines cannot be written
+     */
+    public void writeTo(Writer writer) throws IOException {
+        flush();
+        for (int i = 0; i < size; i++) {
+            writer.write(getElementAt(i));
+            writer.write('\n');
+        }
+        synchronized (lock) {
+            writer.write(partialLine.toString());
+        }
+        writer.flush();
+    }
+
+    /**
+     * @return the line with the most characters added since the last clear; Empty if none.
+     */
+    public String getLongestLine() {
+        return longestLine;
+    }
+
+    /**
+     * @return the maximum number of lines kept.
+     */
+    public int getCapacity() {
+        return lines.length;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        return lines[(head + index) % lines.length];
+    }
+}
@@ -0,0 +1,498 @@
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Generator of synthetic topologies from seeded random models, for scaling tests and benchmarks.
+ * <p>
+ * Nodes are named r0, r1, ... The links are generated one by one into a LinkSink, in ascending
+ * order of their first node, so they can be streamed into a Graph or an LSA file without
+ * holding the topology in between. The same model, weights and seed always give the same topology.
+ * <p>
+ * Usage from the command line:
+ * <pre>
+ * java TopologyGenerator MODEL ARGS... [-w WEIGHTS] [-s SEED] [-o FILE]
+ *   waxman NODES ALPHA BETA     Waxman model in the unit square, O(NODES^2)
+ *   geometric NODES RADIUS      Random geometric graph in the unit square
+ *   ba NODES LINKS              Barabasi-Albert model, LINKS links per new node
+ *   grid WIDTH HEIGHT           Grid
+ *   torus WIDTH HEIGHT          Grid with wrapped borders
+ *   cliques COUNT SIZE          Ring of COUNT cliques of SIZE nodes
+ *   clos SPINES LEAVES          Leaf-spine fabric, every leaf linked to every spine
+ * WEIGHTS: constant:W | uniform:MIN:MAX | exponential:MEAN | length:SCALE (default uniform:1:100)
+ * </pre>
+ */
+public class TopologyGenerator {
+
+    /**
+     * Receives the generated links
+     */
+    public interface LinkSink {
+        /**
+         * @param nodeA    index of the first node, never less than the one of the previous link
+         * @param nodeB    index of the other node
+         * @param distance distance of the link
+         */
+        void link(int nodeA, int nodeB, int distance) throws IOException;
+    }
+
+    /**
+     * Distribution of the distances of the links
+     */
+    public interface Weights {
+        /**
+         * @param random the random source of the generator
+         * @param length Euclidean length of the link in the geometric models; 1 in the other models
+         * @return the distance of a link
+         */
+        int distance(Random random, double length);
+
+        /**
+         * @param distance the distance of every link
+         * @return Weights of a constant distance
+         */
+        static Weights constant(int distance) {
+            return (random, length) -> distance;
+        }
+
+        /**
+         * @param min minimum distance
+         * @param max maximum distance, inclusive
+         * @return Weights uniformly distributed in [min, max]
+         */
+        static Weights uniform(int min, int max) {
+            if (min > max) throw new IllegalArgumentException("Minimum distance must not exceed the maximum.");
+            return (random, length) -> min + random.nextInt(max - min + 1);
+        }
+
+        /**
+         * @param mean mean distance
+         * @return Weights exponentially distributed, at least 1
+         */
+        static Weights exponential(double mean) {
+            return (random, length) ->
+                    (int) Math.min(Integer.MAX_VALUE, 1 + Math.round(-mean * Math.log(1 - random.nextDouble())));
+        }
+
+        /**
+         * @param scale distance of a link of length 1
+         * @return Weights proportional to the length of the link, at least 1
+         */
+        static Weights length(double scale) {
+            return (random, length) -> (int) Math.max(1, Math.round(length * scale));
+        }
+    }
+
+    /**
+     * Generates the links of a model
+     */
+    private interface Model {
+        void generate(Random random, Weights weights, LinkSink sink) throws IOException;
+    }
+
+    private final int nodeCount;
+    private final Model model;
+
+    private TopologyGenerator(int nodeCount, Model model) {
+        if (nodeCount < 0) throw new IllegalArgumentException("Number of nodes must not be negative.");
+        this.nodeCount = nodeCount;
+        this.model = model;
+    }
+
+    /**
+     * Waxman model: nodes are placed uniformly in the unit square, and each pair of nodes
+     * is linked with probability alpha * exp(-d / (beta * sqrt(2))), d being their distance.
+     * Every pair is considered, so it takes O(nodes^2) time.
+     *
+     * @param nodes number of nodes
+     * @param alpha link probability of two nodes at the same place, in (0, 1]
+     * @param beta  ratio of long links to short links, in (0, 1]
+     * @return the generator
+     */
+    public static TopologyGenerator waxman(int nodes, double alpha, double beta) {
+        return new TopologyGenerator(nodes, (random, weights, sink) -> {
+            double[] x = new double[nodes];
+            double[] y = new double[nodes];
+            placeNodes(random, x, y);
+            double scale = beta * Math.sqrt(2);
+            for (int i = 0; i < nodes; i++) {
+                for (int j = i + 1; j < nodes; j++) {
+                    double length = Math.hypot(x[i] - x[j], y[i] - y[j]);
+                    if (random.nextDouble() < alpha * Math.exp(-length / scale)) {
+                        sink.link(i, j, weights.distance(random, length));
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Random geometric graph: nodes are placed uniformly in the unit square, and nodes within
+     * a radius are linked. Nodes are bucketed into cells of the radius, so it takes O(nodes + links) time.
+     *
+     * @param nodes  number of nodes
+     * @param radius maximum length of a link
+     * @return the generator
+     */
+    public static TopologyGenerator geometric(int nodes, double radius) {
+        if (radius <= 0) throw new IllegalArgumentException("Radius must be positive.");
+        return new TopologyGenerator(nodes, (random, weights, sink) -> {
+            double[] x = new double[nodes];
+            double[] y = new double[nodes];
+            placeNodes(random, x, y);
+
+            // Sort the nodes by cell, with the start of each cell in cellStart
+            // Cells are at least as large as the radius, so linked nodes are in adjacent cells
+            int side = (int) Math.max(1, Math.min(Math.floor(1 / radius), Math.sqrt(nodes) + 1));
+            int[] cellStart = new int[side * side + 1];
+            int[] cellOfNode = new int[nodes];
+            for (int i = 0; i < nodes; i++) {
+                cellOfNode[i] = cellOf(x[i], side) * side + cellOf(y[i], side);
+                cellStart[cellOfNode[i] + 1]++;
+            }
+            for (int c = 0; c < side * side; c++) {
+                cellStart[c + 1] += cellStart[c];
+            }
+            int[] cellNodes = new int[nodes];
+            int[] fill = Arrays.copyOf(cellStart, side * side);
+            for (int i = 0; i < nodes; i++) {
+                cellNodes[fill[cellOfNode[i]]++] = i;
+            }
+
+            for (int i = 0; i < nodes; i++) {
+                int cx = cellOfNode[i] / side;
+                int cy = cellOfNode[i] % side;
+                for (int nx = Math.max(0, cx - 1); nx <= Math.min(side - 1, cx + 1); nx++) {
+                    for (int ny = Math.max(0, cy - 1); ny <= Math.min(side - 1, cy + 1); ny++) {
+                        int cell = nx * side + ny;
+                        for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                            int j = cellNodes[k];
+                            if (j <= i) continue;
+                            double length = Math.hypot(x[i] - x[j], y[i] - y[j]);
+                            if (length <= radius) sink.link(i, j, weights.distance(random, length));
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Barabasi-Albert model: starting from a clique of links + 1 nodes, each new node is linked
+     * to existing nodes chosen with probability proportional to their degree.
+     *
+     * @param nodes number of nodes
+     * @param links number of links of each new node
+     * @return the generator
+     */
+    public static TopologyGenerator barabasiAlbert(int nodes, int links) {
+        if (links < 1) throw new IllegalArgumentException("Number of links must be positive.");
+        return new TopologyGenerator(nodes, (random, weights, sink) -> {
+            int seedNodes = Math.min(nodes, links + 1);
+
+            // Every link adds both ends, so a uniform pick from the ends is proportional to degree
+            int[] ends = new int[(int) Math.min(Integer.MAX_VALUE - 8, 2L * links * nodes)];
+            int endCount = 0;
+            for (int i = 0; i < seedNodes; i++) {
+                for (int j = i + 1; j < seedNodes; j++) {
+                    sink.link(i, j, weights.distance(random, 1));
+                    ends[endCount++] = i;
+                    ends[endCount++] = j;
+                }
+            }
+
+            int[] targets = new int[links];
+            for (int i = seedNodes; i < nodes; i++) {
+                for (int t = 0; t < links; t++) {
+                    int target;
+                    do {
+                        target = ends[random.nextInt(endCount)];
+                    } while (contains(targets, t, target));
+                    targets[t] = target;
+                }
+                for (int t = 0; t < links; t++) {
+                    sink.link(i, targets[t], weights.distance(random, 1));
+                    ends[endCount++] = i;
+                    ends[endCount++] = targets[t];
+                }
+            }
+        });
+    }
+
+    /**
+     * Grid: each node is linked to its right and lower neighbors.
+     *
+     * @param width  number of columns
+     * @param height number of rows
+     * @return the generator
+     */
+    public static TopologyGenerator grid(int width, int height) {
+        return lattice(width, height, false);
+    }
+
+    /**
+     * Torus: a grid whose borders are linked to the opposite borders.
+     *
+     * @param width  number of columns, at least 3
+     * @param height number of rows, at least 3
+     * @return the generator
+     */
+    public static TopologyGenerator torus(int width, int height) {
+        if (width < 3 || height < 3) throw new IllegalArgumentException("Torus must be at least 3 x 3.");
+        return lattice(width, height, true);
+    }
+
+    private static TopologyGenerator lattice(int width, int height, boolean wrap) {
+        if (width < 0 || height < 0) throw new IllegalArgumentException("Size must not be negative.");
+        return new TopologyGenerator(Math.multiplyExact(width, height), (random, weights, sink) -> {
+            for (int row = 0; row < height; row++) {
+                for (int column = 0; column < width; column++) {
+                    int node = row * width + column;
+                    if (column + 1 < width) {
+                        sink.link(node, node + 1, weights.distance(random, 1));
+                    } else if (wrap) {
+                        sink.link(node, row * width, weights.distance(random, 1));
+                    }
+                    if (row + 1 < height) {
+                        sink.link(node, node + width, weights.distance(random, 1));
+                    } else if (wrap) {
+                        sink.link(node, column, weights.distance(random, 1));
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Ring of cliques: fully linked groups of nodes, with the last node of each group linked
+     * to the first node of the next group.
+     *
+     * @param cliques    number of cliques
+     * @param cliqueSize number of nodes in each clique
+     * @return the generator
+     */
+    public static TopologyGenerator ringOfCliques(int cliques, int cliqueSize) {
+        if (cliques < 0 || cliqueSize < 1) throw new IllegalArgumentException("Size must be positive.");
+        return new TopologyGenerator(Math.multiplyExact(cliques, cliqueSize), (random, weights, sink) -> {
+            int nodes = cliques * cliqueSize;
+            for (int node = 0; node < nodes; node++) {
+                int clique = node / cliqueSize;
+                // The ring is closed by a link from the first node, keeping the links in order
+                if (node == 0 && cliques > 2) sink.link(0, nodes - 1, weights.distance(random, 1));
+                for (int other = node + 1; other < (clique + 1) * cliqueSize; other++) {
+                    sink.link(node, other, weights.distance(random, 1));
+                }
+                if (node == (clique + 1) * cliqueSize - 1 && clique + 1 < cliques) {
+                    sink.link(node, node + 1, weights.distance(random, 1));
+                }
+            }
+        });
+    }
+
+    /**
+     * Two-tier Clos (leaf-spine) fabric: the spines are the first nodes, and every leaf is linked
+     * to every spine, so any two leaves are joined by one equal cost path per spine.
+     *
+     * @param spines number of spines
+     * @param leaves number of leaves
+     * @return the generator
+     */
+    public static TopologyGenerator clos(int spines, int leaves) {
+        if (spines < 0 || leaves < 0) throw new IllegalArgumentException("Size must not be negative.");
+        return new TopologyGenerator(Math.addExact(spines, leaves), (random, weights, sink) -> {
+            for (int spine = 0; spine < spines; spine++) {
+                for (int leaf = spines; leaf < spines + leaves; leaf++) {
+                    sink.link(spine, leaf, weights.distance(random, 1));
+                }
+            }
+        });
+    }
+
+    /**
+     * @return the number of nodes generated.
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @param node index of a node
+     * @return the name of the node
+     */
+    public static String nodeName(int node) {
+        return "r" + node;
+    }
+
+    /**
+     * Generate the links into a sink.
+     *
+     * @param weights distribution of the distances
+     * @param seed    seed of the random model
+     * @param sink    receives the links
+     * @throws IOException Occurs when the sink fails
+     */
+    public void generate(Weights weights, long seed, LinkSink sink) throws IOException {
+        model.generate(new Random(seed), weights, sink);
+    }
+
+    /**
+     * Generate a graph.
+     *
+     * @param weights distribution of the distances
+     * @param seed    seed of the random model
+     * @return A new graph, the index of each node is its number
+     */
+    public Graph toGraph(Weights weights, long seed) {
+        Graph graph = new Graph(nodeCount);
+        for (int i = 0; i < nodeCount; i++) {
+            graph.addNode(nodeName(i));
+        }
+        try {
+            generate(weights, seed, graph::setEdge);
+        } catch (IOException ex) {
+            // Graph never throws
+            throw new IllegalStateException(ex);
+        }
+        return graph;
+    }
+
+    /**
+     * Generate the topology in LSA format, streaming each link as soon as it is generated.
+     * Each node has one line, with the links to the nodes generated after it.
+     *
+     * @param writer  the writer, which is flushed but not closed
+     * @param weights distribution of the distances
+     * @param seed    seed of the random model
+     * @throws IOException Occurs when error occurs while writing
+     */
+    public void writeTo(Writer writer, Weights weights, long seed) throws IOException {
+        LsaWriter lsaWriter = new LsaWriter(writer);
+        int[] line = {-1};
+        generate(weights, seed, (nodeA, nodeB, distance) -> {
+            while (line[0] < nodeA) {
+                if (line[0] >= 0) lsaWriter.endLine();
+                lsaWriter.startLine(nodeName(++line[0]));
+            }
+            lsaWriter.writeLink(nodeName(nodeB), distance);
+        });
+        while (line[0] < nodeCount - 1) {
+            if (line[0] >= 0) lsaWriter.endLine();
+            lsaWriter.startLine(nodeName(++line[0]));
+        }
+        if (line[0] >= 0) lsaWriter.endLine();
+        lsaWriter.flush();
+        writer.flush();
+    }
+
+    private static void placeNodes(Random random, double[] x, double[] y) {
+        for (int i = 0; i < x.length; i++) {
+            x[i] = random.nextDouble();
+            y[i] = random.nextDouble();
+        }
+    }
+
+    private static int cellOf(double coordinate, int side) {
+        return Math.min(side - 1, (int) (coordinate * side));
+    }
+
+    private static boolean contains(int[] array, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (array[i] == value) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Generate a topology in LSA format from the command line
+     *
+     * @param args Command line arguments, see the class documentation
+     */
+    public static void main(String[] args) throws IOException {
+        try {
+            int argument = 0;
+            String model = args[argument++];
+            TopologyGenerator generator;
+            switch (model) {
+                case "waxman":
+                    generator = waxman(Integer.parseInt(args[argument++]), Double.parseDouble(args[argument++]),
+                            Double.parseDouble(args[argument++]));
+                    break;
+                case "geometric":
+                    generator = geometric(Integer.parseInt(args[argument++]), Double.parseDouble(args[argument++]));
+                    break;
+                case "ba":
+                    generator = barabasiAlbert(Integer.parseInt(args[argument++]), Integer.parseInt(args[argument++]));
+                    break;
+                case "grid":
+                    generator = grid(Integer.parseInt(args[argument++]), Integer.parseInt(args[argument++]));
+                    break;
+                case "torus":
+                    generator = torus(Integer.parseInt(args[argument++]), Integer.parseInt(args[argument++]));
+                    break;
+                case "cliques":
+                    generator = ringOfCliques(Integer.parseInt(args[argument++]), Integer.parseInt(args[argument++]));
+                    break;
+                case "clos":
+                    generator = clos(Integer.parseInt(args[argument++]), Integer.parseInt(args[argument++]));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown model " + model + ".");
+            }
+
+            Weights weights = Weights.uniform(1, 100);
+            long seed = 0;
+            String output = null;
+            while (argument < args.length) {
+                String option = args[argument++];
+                String value = args[argument++];
+                switch (option) {
+                    case "-w":
+                        weights = parseWeights(value);
+                        break;
+                    case "-s":
+                        seed = Long.parseLong(value);
+                        break;
+                    case "-o":
+                        output = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + option + ".");
+                }
+            }
+
+            if (output == null) {
+                generator.writeTo(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), weights, seed);
+            } else {
+                try (Writer writer = Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8)) {
+                    generator.writeTo(writer, weights, seed);
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException ex) {
+            System.err.println("Invalid arguments: " + ex.getMessage());
+            System.err.println("Usage: java TopologyGenerator waxman|geometric|ba|grid|torus|cliques|clos ARGS... "
+                    + "[-w WEIGHTS] [-s SEED] [-o FILE]");
+            System.exit(2);
+        }
+    }
+
+    private static Weights parseWeights(String value) {
+        String[] parts = value.split(":");
+        switch (parts[0]) {
+            case "constant":
+                return Weights.constant(Integer.parseInt(parts[1]));
+            case "uniform":
+                return Weights.uniform(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+            case "exponential":
+                return Weights.exponential(Double.parseDouble(parts[1]));
+            case "length":
+                return Weights.length(Double.parseDouble(parts[1]));
+            default:
+                throw new IllegalArgumentException("Unknown weights " + value + ".");
+        }
+    }
+}
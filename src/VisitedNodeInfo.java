@@ -5,88 +5,120 @@ import java.util.*;
  * <p>
  * This information includes the last visited node, the source node, a set of
  * visited nodes, a set of newly discovered nodes and a chain map.
+ * <p>
+ * Only the step number is stored. The information is rebuilt on demand from the step records
+ * of the search (See ShortestPathSearch), so keeping the information of every step costs O(1)
+ * memory per step, and information of an old step still reports the state of that step.
  */
 public class VisitedNodeInfo {
 
-    private final String visitedNode;
-    private final String sourceNode;
-    private final Set<String> visitedNodes;
-    private final Set<String> newDiscoverNodes;
-    private final Map<String, DijkstraAlgorithm.NodePair> chains;
+    private final ShortestPathSearch search;
+    private final GraphSnapshot graph;
+    private final int step;
 
     /**
-     * Constructor of a visited node information, with necessary node information.
+     * Constructor of a visited node information of a step.
      *
-     * @param visitedNode      The last visited node
-     * @param sourceNode       The source node
-     * @param visitedNodes     A set of visited nodes
-     * @param newDiscoverNodes A set of newly discovered nodes
-     * @param chains           The trace-back chain map
+     * @param search The search being computed
+     * @param step   The step which visits the node
      */
-    public VisitedNodeInfo(
-            String visitedNode, String sourceNode,
-            Set<String> visitedNodes, Set<String> newDiscoverNodes,
-            Map<String, DijkstraAlgorithm.NodePair> chains) {
-        this.visitedNode = visitedNode;
-        this.sourceNode = sourceNode;
-        this.visitedNodes = visitedNodes;
-        this.newDiscoverNodes = newDiscoverNodes;
-        this.chains = chains;
+    VisitedNodeInfo(ShortestPathSearch search, int step) {
+        this.search = search;
+        this.graph = search.getGraph();
+        this.step = step;
     }
 
     /**
      * @return the source node.
      */
     public String getSourceNode() {
-        return sourceNode;
+        return graph.getName(search.getSourceNode());
     }
 
     /**
      * @return The last visited node
      */
     public String getNewVisitedNode() {
-        return visitedNode;
+        return graph.getName(search.getVisitedNode(step));
     }
 
     /**
      * Get the distance from the source node to the target node.
      * @param targetNode the node to be checked
-     * @return the distance between the source node and the target node
+     * @return the distance between the source node and the target node; -1 if the target node is not discovered.
      */
     public int distance(String targetNode) {
-        return chains.get(targetNode).getDistance();
+        int target = graph.indexOf(targetNode);
+        if (target < 0) return -1;
+
+        synchronized (search) {
+            search.seek(step + 1);
+            if (search.getParent(target) < 0) return -1;
+            return search.getDistance(target);
+        }
     }
 
     /**
      * @return A set of visited nodes.
      */
     public Set<String> getAllVisitedNodes() {
-        return new HashSet<>(visitedNodes);
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i <= step; i++) {
+            names.add(graph.getName(search.getVisitedNode(i)));
+        }
+        return names;
     }
 
     /**
-     * @return A set of newly discovered nodes.
+     * @return A set of newly discovered nodes; Empty if the steps are not recorded.
      */
     public Set<String> getNewDiscoverNodes() {
-        return new HashSet<>(newDiscoverNodes);
+        Set<String> names = new HashSet<>();
+        for (int node : search.getRelaxedNodes(step)) {
+            names.add(graph.getName(node));
+        }
+        return names;
     }
 
     /**
      * Return a chain from source node to the target node.
      *
      * @param targetNode the node to be checked
-     * @return A list of node, which is the chain in order from source node to target node.
+     * @return A list of node, which is the chain in order from source node to target node;
+     * An empty list if the target node is not discovered.
      */
     public List<String> getChain(String targetNode) {
-        List<String> chainPath = new ArrayList<>();
-        chainPath.add(targetNode);
+        int target = graph.indexOf(targetNode);
+        if (target < 0) return new ArrayList<>();
+
+        String[] chain;
+        synchronized (search) {
+            search.seek(step + 1);
+            if (search.getParent(target) < 0) return new ArrayList<>();
 
-        String currentNode = targetNode;
-        while (!currentNode.equals(sourceNode)) {
-            currentNode = chains.get(currentNode).getNode();
-            chainPath.add(0, currentNode);
+            // Count the nodes first, so that each name is written once in its place
+            int sourceNode = search.getSourceNode();
+            int length = 1;
+            for (int node = target; node != sourceNode; node = search.getParent(node)) {
+                length++;
+            }
+            chain = new String[length];
+            for (int node = target; length > 0; node = search.getParent(node)) {
+                chain[--length] = graph.getName(node);
+            }
         }
 
-        return chainPath;
+        return new ArrayList<>(Arrays.asList(chain));
+    }
+
+    /**
+     * Copy the chains of the visited nodes into a compact tree, which does not depend on the search any more.
+     *
+     * @return the shortest path tree of the nodes visited up to this step
+     */
+    public ShortestPathTree toShortestPathTree() {
+        synchronized (search) {
+            return new ShortestPathTree(search, step + 1);
+        }
     }
 }
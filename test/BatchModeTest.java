@@ -0,0 +1,84 @@
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class BatchModeTest {
+
+    @Test
+    public void textTest() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        int status = BatchMode.run(new String[]{"test-resources/sample.lsa", "-s", "t", "--threads", "2"},
+                new PrintStream(out), new PrintStream(err));
+
+        assertEquals(0, status);
+        assertEquals("Router t:\n"
+                + "    u: Next hop: u Cost: 2\n"
+                + "    v: Next hop: v Cost: 4\n"
+                + "    w: Next hop: u Cost: 5\n"
+                + "    x: Next hop: v Cost: 7\n"
+                + "    y: Next hop: y Cost: 7\n"
+                + "    z: Next hop: v Cost: 15\n", new String(out.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(0, err.size());
+    }
+
+    @Test
+    public void csvTest() throws IOException {
+        Path file = Files.createTempFile("routes", ".csv");
+        file.toFile().deleteOnExit();
+        int status = BatchMode.run(new String[]{"test-resources/sample.lsa", "-f", "csv", "-o", file.toString()},
+                System.out, System.err);
+
+        assertEquals(0, status);
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals("source,destination,next_hop,cost", lines.get(0));
+        assertEquals(1 + 7 * 6, lines.size());
+        assertTrue(lines.contains("z,t,x,15"));
+        assertTrue(lines.contains("w,z,x,14"));
+    }
+
+    @Test
+    public void failedOutputTest() throws IOException {
+        Path directory = Files.createTempDirectory("routes");
+        Path file = directory.resolve("routes.txt");
+        Files.write(file, "old".getBytes(StandardCharsets.UTF_8));
+        PrintStream err = new PrintStream(new ByteArrayOutputStream());
+        assertEquals(2, BatchMode.run(new String[]{"test-resources/sample.lsa", "-s", "q", "-o", file.toString()},
+                System.out, err));
+
+        // The previous output is kept, and no temporary file is left behind
+        assertEquals("old", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+        Files.delete(file);
+        Files.delete(directory);
+    }
+
+    @Test
+    public void blockSizeTest() {
+        assertEquals(2 * 64, BatchMode.blockSize(7, 2));
+        // 64 MB of tables of 100k nodes
+        assertEquals(83, BatchMode.blockSize(100_000, 64));
+        assertEquals(1, BatchMode.blockSize(Integer.MAX_VALUE, 4));
+    }
+
+    @Test
+    public void errorTest() {
+        PrintStream err = new PrintStream(new ByteArrayOutputStream());
+        assertEquals(2, BatchMode.run(new String[]{"-t", "0", "test-resources/sample.lsa"}, System.out, err));
+        assertEquals(2, BatchMode.run(new String[]{"-f", "xml", "test-resources/sample.lsa"}, System.out, err));
+        assertEquals(2, BatchMode.run(new String[]{"-s"}, System.out, err));
+        assertEquals(2, BatchMode.run(new String[]{"-s", "q", "test-resources/sample.lsa"}, System.out, err));
+        assertEquals(1, BatchMode.run(new String[]{"test-resources/missing.lsa"}, System.out, err));
+    }
+}
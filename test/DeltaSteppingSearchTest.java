@@ -0,0 +1,86 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+public class DeltaSteppingSearchTest {
+
+    @Test
+    public void sampleTest() throws IOException {
+        Graph graph = Graph.fromFile("test-resources/sample.lsa");
+        graph.addNode("isolated");
+        GraphSnapshot snapshot = graph.snapshot();
+
+        for (String source : graph.getAllNodes()) {
+            VisitedNodeInfo expected = new DijkstraAlgorithm(snapshot, source).computeFinalResult();
+            DeltaSteppingSearch search = DeltaSteppingSearch.compute(snapshot, source, 2);
+            for (String node : graph.getAllNodes()) {
+                assertEquals(expected.distance(node), search.distance(node));
+                assertEquals(expected.getChain(node), search.getChain(node));
+            }
+        }
+        assertEquals(Arrays.asList("t", "v", "x", "z"), DeltaSteppingSearch.compute(snapshot, "t", 1).getChain("z"));
+    }
+
+    @Test
+    public void chooseDeltaTest() throws IOException {
+        GraphSnapshot snapshot = Graph.fromFile("test-resources/sample.lsa").snapshot();
+        // Link distances 2, 3, 3, 3, 4, 4, 6, 6, 7, 8, 8, 12 in both directions
+        assertEquals(6, DeltaSteppingSearch.chooseDelta(snapshot));
+        assertEquals(1, DeltaSteppingSearch.chooseDelta(new Graph().snapshot()));
+    }
+
+    @Test
+    public void zeroDistanceTest() {
+        Graph graph = new Graph();
+        for (String node : new String[]{"a", "b", "c", "d", "e"}) {
+            graph.addNode(node);
+        }
+        graph.setEdge("a", "b", 0);
+        graph.setEdge("b", "c", 0);
+        graph.setEdge("c", "a", 0);
+        graph.setEdge("c", "d", 5);
+        graph.setEdge("d", "e", 0);
+
+        DeltaSteppingSearch search = DeltaSteppingSearch.compute(graph.snapshot(), "a", 1);
+        assertEquals(0, search.distance("c"));
+        assertEquals(5, search.distance("e"));
+        assertEquals(Arrays.asList("a", "c", "d", "e"), search.getChain("e"));
+    }
+
+    @Test
+    public void largeGraphTest() {
+        Graph[] graphs = {
+                TopologyGenerator.grid(150, 150).toGraph(TopologyGenerator.Weights.uniform(1, 100), 7),
+                TopologyGenerator.barabasiAlbert(20000, 3).toGraph(TopologyGenerator.Weights.exponential(20), 7)
+        };
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (Graph graph : graphs) {
+                GraphSnapshot snapshot = graph.snapshot();
+                ShortestPathSearch expected = new ShortestPathSearch(snapshot, IndexedDaryHeap::new, false);
+                int delta = DeltaSteppingSearch.chooseDelta(snapshot);
+                for (int width : new int[]{1, delta, snapshot.getMaxDistance() + 1}) {
+                    DeltaSteppingSearch search = new DeltaSteppingSearch(snapshot, pool, width);
+                    for (int source : new int[]{0, snapshot.size() / 2}) {
+                        expected.reset(source);
+                        expected.run();
+                        search.run(source);
+                        for (int node = 0; node < snapshot.size(); node++) {
+                            assertEquals(expected.getDistance(node), search.getDistance(node));
+                            if (node == source) continue;
+                            int parent = search.getParent(node);
+                            assertEquals(search.getDistance(node),
+                                    search.getDistance(parent) + snapshot.getDistance(parent, node));
+                        }
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
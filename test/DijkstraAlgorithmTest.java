@@ -1,6 +1,12 @@
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+
+import static org.junit.Assert.*;
 
 public class DijkstraAlgorithmTest {
 
@@ -21,4 +27,82 @@ public class DijkstraAlgorithmTest {
             System.out.println(" Cost: " + info.distance(info.getNewVisitedNode()));
         }
     }
+
+    @Test
+    public void frontierTest() throws IOException {
+        Graph graph = Graph.fromFile("test-resources/sample.lsa");
+        Frontier.Factory[] factories = {IndexedDaryHeap::new, IndexedDaryHeap.factory(2), BucketQueue::new};
+
+        for (Frontier.Factory factory : factories) {
+            DijkstraAlgorithm dAlgo = new DijkstraAlgorithm(graph, "t", factory);
+            int steps = 0;
+            int lastDistance = 0;
+            for (VisitedNodeInfo info : dAlgo) {
+                int distance = info.distance(info.getNewVisitedNode());
+                assertTrue(distance >= lastDistance);
+                lastDistance = distance;
+                steps++;
+            }
+            assertEquals(7, steps);
+
+            VisitedNodeInfo result = dAlgo.getFinalResult();
+            assertEquals(7, result.getAllVisitedNodes().size());
+            assertEquals(2, result.distance("u"));
+            assertEquals(4, result.distance("v"));
+            assertEquals(5, result.distance("w"));
+            assertEquals(7, result.distance("x"));
+            assertEquals(7, result.distance("y"));
+            assertEquals(15, result.distance("z"));
+            assertEquals(Arrays.asList("t", "v", "x", "z"), result.getChain("z"));
+        }
+    }
+
+    @Test
+    public void stepRecordTest() {
+        Graph graph = new Graph();
+        graph.addNode("A");
+        graph.addNode("B");
+        graph.addNode("C");
+        graph.setEdge("A", "B", 1);
+        graph.setEdge("A", "C", 5);
+        graph.setEdge("B", "C", 1);
+
+        Iterator<VisitedNodeInfo> iterator = new DijkstraAlgorithm(graph, "A").iterator();
+        VisitedNodeInfo first = iterator.next();
+        VisitedNodeInfo second = iterator.next();
+        VisitedNodeInfo third = iterator.next();
+        assertFalse(iterator.hasNext());
+
+        // Old steps still report their own state
+        assertEquals(new HashSet<>(Arrays.asList("B", "C")), first.getNewDiscoverNodes());
+        assertEquals(5, first.distance("C"));
+        assertEquals(Arrays.asList("A", "C"), first.getChain("C"));
+        assertEquals(2, second.distance("C"));
+        assertEquals(Arrays.asList("A", "B", "C"), second.getChain("C"));
+        assertEquals(5, first.distance("C"));
+        assertEquals(Collections.singleton("A"), first.getAllVisitedNodes());
+        assertEquals(3, third.getAllVisitedNodes().size());
+        assertEquals(0, third.getNewDiscoverNodes().size());
+        assertEquals(-1, first.distance("D"));
+    }
+
+    @Test
+    public void resultsOnlyTest() throws IOException {
+        Graph graph = Graph.fromFile("test-resources/sample.lsa");
+        DijkstraAlgorithm dAlgo = new DijkstraAlgorithm(graph, "t");
+
+        VisitedNodeInfo result = dAlgo.computeFinalResult();
+        assertSame(result, dAlgo.getFinalResult());
+        assertFalse(dAlgo.iterator().hasNext());
+        assertEquals("t", result.getSourceNode());
+        assertEquals(7, result.getAllVisitedNodes().size());
+        assertEquals(15, result.distance("z"));
+        assertEquals(Arrays.asList("t", "u", "w"), result.getChain("w"));
+
+        // Finish the remaining steps of a partially iterated computation
+        dAlgo = new DijkstraAlgorithm(graph, "z");
+        dAlgo.iterator().next();
+        result = dAlgo.computeFinalResult();
+        assertEquals(15, result.distance("t"));
+    }
 }
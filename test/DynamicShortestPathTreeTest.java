@@ -0,0 +1,138 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class DynamicShortestPathTreeTest {
+
+    /**
+     * Check the tree against a full recomputation, and that every destination with a new
+     * distance is reported as changed.
+     */
+    private void assertMatchesFullComputation(Graph graph, DynamicShortestPathTree tree, String source,
+                                              Map<String, Integer> before, Set<String> changed) {
+        VisitedNodeInfo expected = new DijkstraAlgorithm(graph, source).computeFinalResult();
+        for (String node : graph.getAllNodes()) {
+            assertEquals(expected.distance(node), tree.distance(node));
+
+            List<String> chain = tree.getChain(node);
+            if (tree.distance(node) < 0) {
+                assertTrue(chain.isEmpty());
+                continue;
+            }
+            int total = 0;
+            for (int i = 1; i < chain.size(); i++) {
+                total += graph.getDistance(chain.get(i - 1), chain.get(i));
+            }
+            assertEquals(tree.distance(node), total);
+
+            if (before.containsKey(node) && before.get(node) != tree.distance(node)) {
+                assertTrue(changed.contains(node));
+            }
+        }
+    }
+
+    private Map<String, Integer> distances(Graph graph, DynamicShortestPathTree tree) {
+        Map<String, Integer> distances = new HashMap<>();
+        for (String node : graph.getAllNodes()) {
+            distances.put(node, tree.distance(node));
+        }
+        return distances;
+    }
+
+    @Test
+    public void sampleChangeTest() throws IOException {
+        Graph graph = Graph.fromFile("test-resources/sample.lsa");
+        DynamicShortestPathTree tree = new DynamicShortestPathTree(graph, "t");
+        assertEquals(15, tree.distance("z"));
+        assertEquals(Arrays.asList("t", "v", "x", "z"), tree.getChain("z"));
+
+        // A longer tree link moves x and z to another route
+        assertEquals(new HashSet<>(Arrays.asList("x", "z")), tree.setEdge("v", "x", 10));
+        assertEquals(11, tree.distance("x"));
+        assertEquals(19, tree.distance("z"));
+
+        // A shorter link pulls the chain back
+        assertEquals(new HashSet<>(Arrays.asList("x", "z")), tree.setEdge("v", "x", 1));
+        assertEquals(5, tree.distance("x"));
+
+        // Changing a link outside of the tree changes nothing
+        assertEquals(Collections.emptySet(), tree.setEdge("y", "z", 20));
+        assertEquals(Collections.emptySet(), tree.unsetEdge("y", "z"));
+
+        assertEquals(new HashSet<>(Arrays.asList("x", "z")), tree.removeNode("v"));
+        assertEquals(-1, tree.distance("v"));
+        assertEquals(11, tree.distance("x"));
+
+        assertEquals(Collections.singleton("z"), tree.unsetEdge("x", "z"));
+        assertEquals(-1, tree.distance("z"));
+        assertTrue(tree.getChain("z").isEmpty());
+
+        assertTrue(tree.addNode("n"));
+        assertEquals(Collections.singleton("n"), tree.setEdge("t", "n", 1));
+        assertNull(tree.setEdge("t", "missing", 1));
+        assertNull(tree.unsetEdge("t", "z"));
+    }
+
+    @Test
+    public void randomChangeTest() {
+        Random random = new Random(4322);
+        Graph graph = new Graph();
+        for (int i = 0; i < 60; i++) {
+            graph.addNode("n" + i);
+        }
+        for (int i = 0; i < 150; i++) {
+            graph.setEdge("n" + random.nextInt(60), "n" + random.nextInt(60), 1 + random.nextInt(10));
+        }
+        DynamicShortestPathTree tree = new DynamicShortestPathTree(graph, "n0");
+        assertMatchesFullComputation(graph, tree, "n0", Collections.emptyMap(), Collections.emptySet());
+
+        int nextNode = 60;
+        for (int i = 0; i < 400; i++) {
+            Map<String, Integer> before = distances(graph, tree);
+            List<String> nodes = new ArrayList<>(graph.getAllNodes());
+            Collections.sort(nodes);
+            String nodeA = nodes.get(random.nextInt(nodes.size()));
+            String nodeB = nodes.get(random.nextInt(nodes.size()));
+            Set<String> changed;
+            switch (random.nextInt(6)) {
+                case 0:
+                    changed = tree.unsetEdge(nodeA, nodeB);
+                    break;
+                case 1:
+                    if (nodeA.equals("n0")) continue;
+                    changed = tree.removeNode(nodeA);
+                    break;
+                case 2:
+                    tree.addNode("n" + nextNode);
+                    changed = tree.setEdge(nodeA, "n" + nextNode++, 1 + random.nextInt(10));
+                    break;
+                default:
+                    changed = tree.setEdge(nodeA, nodeB, 1 + random.nextInt(10));
+                    break;
+            }
+            if (changed == null) changed = Collections.emptySet();
+            assertMatchesFullComputation(graph, tree, "n0", before, changed);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void removeSourceTest() throws IOException {
+        Graph graph = Graph.fromFile("test-resources/sample.lsa");
+        new DynamicShortestPathTree(graph, "t").removeNode("t");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void staleTest() throws IOException {
+        Graph graph = Graph.fromFile("test-resources/sample.lsa");
+        DynamicShortestPathTree tree = new DynamicShortestPathTree(graph, "t");
+        tree.setEdge("x", "z", 1);
+        assertEquals(8, tree.distance("z"));
+
+        // A change made behind the tree makes it stale
+        graph.unsetEdge("x", "z");
+        tree.distance("z");
+    }
+}
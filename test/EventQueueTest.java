@@ -0,0 +1,25 @@
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EventQueueTest {
+
+    @Test
+    public void orderTest() {
+        EventQueue queue = new EventQueue(2);
+        queue.schedule(5, 0, 3, 0, 0);
+        queue.schedule(3, 1, 2, 0, 0);
+        queue.schedule(5, 0, 1, 0, 0);
+        queue.schedule(1, 0, 4, 5, 6);
+        queue.schedule(3, 0, 5, 0, 0);
+
+        // Events of the same time are polled in order of type and arguments
+        int[] expected = {4, 5, 2, 1, 3};
+        for (int a : expected) {
+            queue.poll();
+            assertEquals(a, queue.getA());
+        }
+        assertTrue(queue.isEmpty());
+        assertEquals(5, queue.getTime());
+    }
+}
@@ -0,0 +1,106 @@
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class FloodingSimulationTest {
+
+    @Test
+    public void convergenceTest() throws IOException {
+        Graph graph = Graph.fromFile("test-resources/sample.lsa");
+        FloodingSimulation simulation = new FloodingSimulation(graph, 10, 5);
+        simulation.start();
+        FloodingSimulation.Report report = simulation.run();
+        assertTrue(report.getConvergenceTime() > 0);
+        assertTrue(report.getMessageCount() > 0);
+        assertEquals(report.getMessageCount(), report.getEventCount() - report.getSpfRunCount());
+        assertEquals(15, simulation.getDistance("t", "z"));
+        assertEquals("v", simulation.getNextHop("t", "z"));
+        assertEqualsGlobal(graph, simulation);
+
+        // A link change is flooded and every router converges to the new topology
+        simulation.setLink("x", "z", 1);
+        report = simulation.run();
+        assertTrue(report.getConvergenceTime() > 0);
+        assertEquals(8, simulation.getDistance("t", "z"));
+        assertEqualsGlobal(graph, simulation);
+        // Once converged, only the newest LSA of each router is kept
+        assertEquals(7, simulation.getLsaCount());
+
+        assertTrue(simulation.removeLink("x", "z"));
+        assertFalse(simulation.removeLink("x", "z"));
+        simulation.run();
+        assertEqualsGlobal(graph, simulation);
+
+        // Same topology and events, same outcome
+        FloodingSimulation first = new FloodingSimulation(Graph.fromFile("test-resources/sample.lsa"), 10, 5);
+        FloodingSimulation again = new FloodingSimulation(Graph.fromFile("test-resources/sample.lsa"), 10, 5);
+        first.start();
+        again.start();
+        assertEquals(first.run().toString(), again.run().toString());
+    }
+
+    @Test
+    public void parallelTest() {
+        TopologyGenerator generator = TopologyGenerator.barabasiAlbert(400, 2);
+        Graph sequentialGraph = generator.toGraph(TopologyGenerator.Weights.uniform(1, 20), 3);
+        Graph parallelGraph = generator.toGraph(TopologyGenerator.Weights.uniform(1, 20), 3);
+        FloodingSimulation sequential = new FloodingSimulation(sequentialGraph, 10, 25);
+        FloodingSimulation parallel = new FloodingSimulation(parallelGraph, 10, 25);
+
+        // The parallel run has the same outcome, after the start and after changes
+        sequential.start();
+        parallel.start();
+        assertEquals(sequential.run().toString(), parallel.run(4).toString());
+        sequential.setLink("r0", "r399", 1);
+        parallel.setLink("r0", "r399", 1);
+        sequential.removeLink("r0", "r1");
+        parallel.removeLink("r0", "r1");
+        assertEquals(sequential.run().toString(), parallel.run(4).toString());
+        assertEquals(sequential.getTime(), parallel.getTime());
+        for (int i = 0; i < 400; i += 7) {
+            assertEquals(sequential.getNextHop("r5", "r" + i), parallel.getNextHop("r5", "r" + i));
+        }
+        assertEqualsGlobal(parallelGraph, parallel);
+        assertEquals(400, sequential.getLsaCount());
+        assertEquals(400, parallel.getLsaCount());
+    }
+
+    @Test
+    public void repeatedChangeTest() {
+        TopologyGenerator generator = TopologyGenerator.barabasiAlbert(300, 2);
+        for (long seed = 1; seed <= 20; seed++) {
+            Graph sequentialGraph = generator.toGraph(TopologyGenerator.Weights.uniform(1, 20), seed);
+            Graph parallelGraph = generator.toGraph(TopologyGenerator.Weights.uniform(1, 20), seed);
+            FloodingSimulation sequential = new FloodingSimulation(sequentialGraph, 10, 25);
+            FloodingSimulation parallel = new FloodingSimulation(parallelGraph, 10, 25);
+            sequential.start();
+            parallel.start();
+            assertEquals(sequential.run().toString(), parallel.run(4).toString());
+
+            // Two LSAs of each router in flight at once, and LSAs released in any order by the parts
+            for (int round = 0; round < 10; round++) {
+                String nodeA = "r" + (round * 37 % 300);
+                String nodeB = "r" + ((round * 37 + 150) % 300);
+                sequential.setLink(nodeA, nodeB, 3);
+                parallel.setLink(nodeA, nodeB, 3);
+                sequential.setLink(nodeA, nodeB, 4);
+                parallel.setLink(nodeA, nodeB, 4);
+                assertEquals(sequential.run().toString(), parallel.run(4).toString());
+            }
+            assertEquals(sequential.getLsaCount(), parallel.getLsaCount());
+            assertEqualsGlobal(parallelGraph, parallel);
+        }
+    }
+
+    private static void assertEqualsGlobal(Graph graph, FloodingSimulation simulation) {
+        RoutingTable table = RoutingTable.computeAll(graph.snapshot(), 1);
+        for (String router : graph.getAllNodes()) {
+            for (String destination : graph.getAllNodes()) {
+                int expected = router.equals(destination) ? 0 : table.getDistance(router, destination);
+                assertEquals(expected, simulation.getDistance(router, destination));
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+import org.junit.Test;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class FrontierTest {
+
+    private void pollInOrder(Frontier frontier) {
+        assertTrue(frontier.isEmpty());
+        assertTrue(frontier.offer(3, 7));
+        assertTrue(frontier.offer(1, 4));
+        assertTrue(frontier.offer(4, 9));
+        assertTrue(frontier.offer(0, 5));
+        assertFalse(frontier.offer(1, 6));
+        assertTrue(frontier.offer(4, 2));
+        assertTrue(frontier.contains(4));
+        assertFalse(frontier.contains(2));
+        assertEquals(4, frontier.size());
+
+        assertEquals(4, frontier.poll());
+        assertEquals(1, frontier.poll());
+        assertEquals(0, frontier.poll());
+        assertTrue(frontier.offer(2, 100));
+        assertEquals(3, frontier.poll());
+        assertEquals(2, frontier.poll());
+        assertTrue(frontier.isEmpty());
+        assertFalse(frontier.contains(4));
+    }
+
+    private void randomDecreaseKey(Frontier frontier, int capacity) {
+        Random random = new Random(4322);
+        int[] priority = new int[capacity];
+        int last = 0;
+        for (int i = 0; i < capacity; i++) {
+            priority[i] = random.nextInt(50);
+            frontier.offer(i, priority[i]);
+        }
+        for (int i = 0; i < capacity; i += 3) {
+            priority[i] = Math.max(0, priority[i] - random.nextInt(10));
+            frontier.offer(i, priority[i]);
+        }
+        while (!frontier.isEmpty()) {
+            int node = frontier.poll();
+            assertTrue(priority[node] >= last);
+            last = priority[node];
+        }
+    }
+
+    @Test
+    public void heapTest() {
+        pollInOrder(new IndexedDaryHeap(5));
+        pollInOrder(new IndexedDaryHeap(5, 2));
+        randomDecreaseKey(new IndexedDaryHeap(1000), 1000);
+    }
+
+    @Test
+    public void bucketQueueTest() {
+        pollInOrder(new BucketQueue(5));
+        randomDecreaseKey(new BucketQueue(1000), 1000);
+
+        BucketQueue queue = new BucketQueue(3);
+        queue.offer(0, 1000);
+        queue.offer(1, 3);
+        assertEquals(1, queue.poll());
+        assertEquals(0, queue.poll());
+        queue.clear();
+        queue.offer(2, 0);
+        assertEquals(2, queue.poll());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void emptyPollTest() {
+        new IndexedDaryHeap(1).poll();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonMonotoneBucketQueueTest() {
+        BucketQueue queue = new BucketQueue(2);
+        queue.offer(0, 5);
+        queue.poll();
+        queue.offer(1, 4);
+    }
+}
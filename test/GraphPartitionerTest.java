@@ -0,0 +1,21 @@
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class GraphPartitionerTest {
+
+    @Test
+    public void gridTest() {
+        Graph graph = TopologyGenerator.grid(20, 20).toGraph(TopologyGenerator.Weights.constant(1), 1);
+        int[] partOf = GraphPartitioner.partition(graph, 4);
+        int[] sizes = new int[4];
+        for (int part : partOf) {
+            sizes[part]++;
+        }
+        for (int size : sizes) {
+            assertTrue(size >= 95 && size <= 105);
+        }
+        // Far fewer cut links than a random split of the 760 links
+        assertTrue(GraphPartitioner.cutSize(graph, partOf) < 100);
+    }
+}
@@ -1,6 +1,13 @@
 import org.junit.Test;
 
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
 
 import static org.junit.Assert.*;
 
@@ -53,4 +60,101 @@ public class GraphTest {
 
         assertEquals(7, graph.getAllNodes().size());
     }
+
+    @Test
+    public void snapshotTest() throws IOException {
+        Graph graph = Graph.fromFile("test-resources/sample.lsa");
+        GraphSnapshot snapshot = graph.snapshot();
+
+        assertEquals(7, snapshot.size());
+        assertEquals(2 * 12, snapshot.getEdgeSlotCount());
+        assertEquals(12, snapshot.getMaxDistance());
+        assertEquals(-1, snapshot.indexOf("A"));
+
+        int v = snapshot.indexOf("v");
+        assertEquals("v", snapshot.getName(v));
+        assertEquals(5, snapshot.degree(v));
+        assertEquals(3, snapshot.getDistance(v, snapshot.indexOf("x")));
+        assertEquals(-1, snapshot.getDistance(v, snapshot.indexOf("z")));
+        for (int e = snapshot.edgeStart(v); e < snapshot.edgeEnd(v); e++) {
+            String linked = snapshot.getName(snapshot.edgeTarget(e));
+            assertEquals(graph.getDistance("v", linked), snapshot.edgeDistance(e));
+        }
+
+        // Snapshot is not affected by later modification
+        graph.removeNode("v");
+        assertEquals(5, snapshot.degree(v));
+        assertEquals(7, snapshot.size());
+    }
+
+    @Test
+    public void nodeTableTest() {
+        Graph graph = new Graph();
+        graph.addNode("A");
+        graph.addNode("B");
+        graph.addNode("C");
+        graph.setEdge("A", "C", 3);
+        NodeTable table = graph.getNodeTable();
+
+        int a = table.indexOf("A");
+        int b = table.indexOf("B");
+        int c = table.indexOf("C");
+        assertEquals(3, table.size());
+        assertEquals("C", table.nameOf(c));
+        assertEquals(3, graph.getDistance(a, c));
+        assertEquals(-1, graph.getDistance(a, b));
+
+        // Index of a removed node is reused by the next new node
+        graph.removeNode("B");
+        assertEquals(-1, table.indexOf("B"));
+        assertNull(table.nameOf(b));
+        graph.addNode("D");
+        assertEquals(b, table.indexOf("D"));
+        assertEquals(3, table.capacity());
+        assertEquals(0, graph.getEdgesOfNode("D").size());
+        assertEquals(3, graph.snapshot().getDistance(c, a));
+    }
+
+    @Test
+    public void neighborVisitTest() throws IOException {
+        Graph graph = Graph.fromFile("test-resources/sample.lsa");
+
+        Map<String, Integer> neighbors = new HashMap<>();
+        assertTrue(graph.forEachNeighbor("x", neighbors::put));
+        assertFalse(graph.forEachNeighbor("A", neighbors::put));
+        assertEquals(graph.getEdgesOfNode("x"), neighbors.keySet());
+        assertEquals(8, (int) neighbors.get("z"));
+
+        int x = graph.getNodeTable().indexOf("x");
+        int[] total = {0};
+        graph.forEachNeighbor(x, (node, distance) -> total[0] += distance);
+        assertEquals(3 + 6 + 6 + 8, total[0]);
+        assertEquals(4, graph.degree(x));
+    }
+
+    @Test
+    public void writeToTest() throws IOException {
+        Graph graph = new Graph();
+        graph.addNode("A");
+        graph.addNode("B");
+        graph.setEdge("A", "B", Integer.MIN_VALUE);
+        assertEquals("A: B:-2147483648 \nB: A:-2147483648 \n", graph.toString());
+
+        // Names longer than the write buffer
+        StringBuilder longName = new StringBuilder();
+        for (int i = 0; i < 10000; i++) longName.append((char) ('a' + i % 26));
+        graph = Graph.fromFile("test-resources/sample.lsa");
+        graph.addNode(longName.toString());
+        graph.setEdge(longName.toString(), "t", 12);
+
+        Path file = Files.createTempFile("graph", ".lsa");
+        file.toFile().deleteOnExit();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            graph.writeTo(channel);
+        }
+        assertEquals(graph.toString(), new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        Graph loaded = Graph.fromFile(file.toString());
+        assertEquals(graph.getAllNodes(), loaded.getAllNodes());
+        assertEquals(12, loaded.getDistance("t", longName.toString()));
+    }
 }
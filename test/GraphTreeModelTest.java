@@ -0,0 +1,89 @@
+import org.junit.Test;
+
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
+import javax.swing.tree.TreePath;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GraphTreeModelTest {
+
+    @Test
+    public void incrementalEventTest() {
+        GraphTreeModel model = new GraphTreeModel();
+        List<String> events = new ArrayList<>();
+        model.addTreeModelListener(new TreeModelListener() {
+            @Override
+            public void treeNodesChanged(TreeModelEvent e) {
+                events.add("changed " + describe(e));
+            }
+
+            @Override
+            public void treeNodesInserted(TreeModelEvent e) {
+                events.add("inserted " + describe(e));
+            }
+
+            @Override
+            public void treeNodesRemoved(TreeModelEvent e) {
+                events.add("removed " + describe(e));
+            }
+
+            @Override
+            public void treeStructureChanged(TreeModelEvent e) {
+                events.add("structure");
+            }
+        });
+
+        model.addNode("C");
+        model.addNode("A");
+        model.addNode("B");
+        GraphTreeModel.Root root = (GraphTreeModel.Root) model.getRoot();
+        assertSame(root, model.getRoot());
+        assertEquals(Arrays.asList("A", "B", "C"), root.nodes);
+        assertEquals("[inserted 1:0:C, inserted 1:0:A, inserted 1:1:B]", events.toString());
+
+        // Nodes are kept, and their links are updated on both ends
+        GraphTreeModel.Node nodeA = (GraphTreeModel.Node) model.getChild(root, 0);
+        assertSame(nodeA, model.getChild(root, 0));
+        events.clear();
+        model.addLink("A", "C", 3);
+        model.addLink("A", "B", 2);
+        TreePath savedPath = model.getLinkPath("A", "B");
+        model.addLink("A", "B", 5);
+        // A path saved before a distance change still matches the link
+        assertEquals(savedPath, model.getLinkPath("A", "B"));
+        assertEquals(savedPath.hashCode(), model.getLinkPath("A", "B").hashCode());
+        assertEquals(Arrays.asList("B", "C"), nodeA.edges);
+        assertEquals(5, ((GraphTreeModel.Edge) model.getChild(nodeA, 0)).distance);
+        assertEquals("[inserted 2:0:C : 3, inserted 2:0:A : 3, inserted 2:0:B : 2, "
+                + "inserted 2:0:A : 2, changed 2:0:B : 5, changed 2:0:A : 5]", events.toString());
+
+        GraphTreeModel.Node nodeC = (GraphTreeModel.Node) model.getChild(root, 2);
+        assertEquals(Arrays.asList("A"), nodeC.edges);
+        assertEquals(1, model.getIndexOfChild(root, model.getChild(root, 1)));
+        assertEquals(model.getLinkPath("A", "B").getLastPathComponent(), model.getChild(nodeA, 0));
+
+        events.clear();
+        model.removeNode("C");
+        assertEquals(Arrays.asList("B"), nodeA.edges);
+        assertEquals(Arrays.asList("A", "B"), root.nodes);
+        assertEquals("[removed 2:1:C : 3, removed 1:2:C]", events.toString());
+
+        events.clear();
+        model.removeLink("B", "A");
+        assertTrue(nodeA.edges.isEmpty());
+        assertEquals("[removed 2:0:A : 5, removed 2:0:B : 5]", events.toString());
+        assertNull(model.getNodePath("C"));
+
+        model.clearGraph();
+        assertTrue(root.nodes.isEmpty());
+        assertEquals("structure", events.get(events.size() - 1));
+    }
+
+    private static String describe(TreeModelEvent e) {
+        return e.getTreePath().getPathCount() + ":" + e.getChildIndices()[0] + ":" + e.getChildren()[0];
+    }
+}
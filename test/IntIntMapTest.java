@@ -0,0 +1,52 @@
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class IntIntMapTest {
+
+    @Test
+    public void basicTest() {
+        IntIntMap map = new IntIntMap();
+        assertEquals(0, map.size());
+        assertEquals(-1, map.get(3, -1));
+        assertTrue(map.put(3, 30));
+        assertFalse(map.put(3, 31));
+        assertEquals(31, map.get(3, -1));
+        assertTrue(map.containsKey(3));
+        assertTrue(map.remove(3));
+        assertFalse(map.remove(3));
+        assertFalse(map.containsKey(3));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void randomOperationTest() {
+        Random random = new Random(4322);
+        IntIntMap map = new IntIntMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 100000; i++) {
+            int key = random.nextInt(2000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key) != null, map.remove(key));
+            } else {
+                int value = random.nextInt();
+                assertEquals(expected.put(key, value) == null, map.put(key, value));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (int key = 0; key < 2000; key++) {
+            assertEquals(expected.containsKey(key), map.containsKey(key));
+            assertEquals((int) expected.getOrDefault(key, -1), map.get(key, -1));
+        }
+
+        Map<Integer, Integer> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertEquals(expected, visited);
+    }
+}
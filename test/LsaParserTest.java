@@ -0,0 +1,88 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class LsaParserTest {
+
+    @Test
+    public void sampleTest() throws IOException {
+        Graph graph = LsaParser.parse(Paths.get("test-resources/sample.lsa"), 1);
+
+        assertEquals(7, graph.getAllNodes().size());
+        assertEquals(2, graph.getDistance("t", "u"));
+        assertEquals(4, graph.getDistance("t", "v"));
+        assertEquals(7, graph.getDistance("t", "y"));
+    }
+
+    @Test
+    public void formatErrorTest() throws IOException {
+        assertFormatError("a: b:1\n\nb: a:1\nc a:2\n", 4);
+        assertFormatError("a: b:x\n", 1);
+        assertFormatError("a: b:1:2\n", 1);
+        assertFormatError("a: :1\n", 1);
+        assertFormatError("a: b:99999999999\n", 1);
+        assertFormatError(":\n", 1);
+
+        Path file = write("  a:\tb:-1 \r\nb: c:2");
+        Graph graph = LsaParser.parse(file, 1);
+        assertEquals(-1, graph.getDistance("a", "b"));
+        assertEquals(2, graph.getDistance("c", "b"));
+    }
+
+    @Test
+    public void chunkTest() throws IOException {
+        // Later lines override the distances of earlier lines, across chunks as well
+        Random random = new Random(1);
+        StringBuilder text = new StringBuilder();
+        Graph expected = new Graph();
+        for (int line = 0; line < 2000; line++) {
+            String node = "n" + random.nextInt(300);
+            expected.addNode(node);
+            text.append(node).append(':');
+            for (int i = random.nextInt(4); i > 0; i--) {
+                String linkedNode = "n" + random.nextInt(300);
+                int distance = random.nextInt(100);
+                expected.addNode(linkedNode);
+                expected.setEdge(node, linkedNode, distance);
+                text.append(' ').append(linkedNode).append(':').append(distance);
+            }
+            text.append('\n');
+        }
+        Path file = write(text.toString());
+
+        Graph graph = LsaParser.parse(file, 4, 1024);
+        assertEquals(expected.toString(), graph.toString());
+        assertEquals(expected.getAllNodes(), graph.getAllNodes());
+
+        // The line number of an error is counted from the start of the file
+        text.append("bad line\n");
+        assertFormatError(text.toString(), 2001, 1024);
+    }
+
+    private static void assertFormatError(String text, int line) throws IOException {
+        assertFormatError(text, line, LsaParser.MIN_CHUNK_SIZE);
+    }
+
+    private static void assertFormatError(String text, int line, int minChunkSize) throws IOException {
+        try {
+            LsaParser.parse(write(text), 4, minChunkSize);
+            fail("Format error expected");
+        } catch (IOException ex) {
+            assertEquals("The LSA graph does not have a correct format at line " + line + ".", ex.getMessage());
+        }
+    }
+
+    private static Path write(String text) throws IOException {
+        Path file = Files.createTempFile("graph", ".lsa");
+        file.toFile().deleteOnExit();
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,144 @@
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class LsbFormatTest {
+
+    @Test
+    public void roundTripTest() throws IOException {
+        Graph graph = Graph.fromFile("test-resources/sample.lsa");
+        graph.addNode("ñode");
+        graph.addNode("removed");
+        graph.setEdge("ñode", "t", 300);
+        graph.setEdge("ñode", "removed", 1);
+        graph.setEdge("z", "z", -5);
+        graph.setEdge("u", "w", Integer.MIN_VALUE);
+        graph.removeNode("removed");
+
+        Path file = Files.createTempFile("graph", LsbFormat.EXTENSION);
+        file.toFile().deleteOnExit();
+        LsbFormat.write(graph, file);
+        Graph loaded = LsbFormat.read(file);
+
+        assertEquals(graph.getAllNodes(), loaded.getAllNodes());
+        for (String node : graph.getAllNodes()) {
+            assertEquals(graph.getEdgesOfNode(node), loaded.getEdgesOfNode(node));
+            for (String linked : graph.getEdgesOfNode(node)) {
+                assertEquals(graph.getDistance(node, linked), loaded.getDistance(node, linked));
+            }
+        }
+        assertEquals(-5, loaded.getDistance("z", "z"));
+        assertEquals(Integer.MIN_VALUE, loaded.getDistance("w", "u"));
+    }
+
+    @Test
+    public void snapshotTest() throws IOException {
+        Graph graph = TopologyGenerator.barabasiAlbert(500, 3).toGraph(TopologyGenerator.Weights.uniform(1, 100), 5);
+        graph.setEdge("r7", "r7", 4);
+        graph.removeNode("r3");
+
+        Path file = Files.createTempFile("graph", LsbFormat.EXTENSION);
+        file.toFile().deleteOnExit();
+        LsbFormat.write(graph, file);
+        GraphSnapshot expected = LsbFormat.read(file).snapshot();
+        GraphSnapshot snapshot = LsbFormat.readSnapshot(file);
+
+        // Both are indexed densely in the order of the file
+        assertEquals(expected.size(), snapshot.size());
+        assertEquals(expected.getEdgeSlotCount(), snapshot.getEdgeSlotCount());
+        for (int node = 0; node < snapshot.size(); node++) {
+            assertEquals(expected.getName(node), snapshot.getName(node));
+            assertEquals(expected.edgeStart(node), snapshot.edgeStart(node));
+            assertEquals(expected.edgeEnd(node), snapshot.edgeEnd(node));
+            for (int e = snapshot.edgeStart(node); e < snapshot.edgeEnd(node); e++) {
+                assertEquals(expected.edgeTarget(e), snapshot.edgeTarget(e));
+                assertEquals(expected.edgeDistance(e), snapshot.edgeDistance(e));
+            }
+        }
+        assertEquals(4, snapshot.getDistance(snapshot.indexOf("r7"), snapshot.indexOf("r7")));
+    }
+
+    @Test
+    public void formatErrorTest() throws IOException {
+        Path file = Files.createTempFile("graph", LsbFormat.EXTENSION);
+        file.toFile().deleteOnExit();
+        Graph graph = Graph.fromFile("test-resources/sample.lsa");
+        LsbFormat.write(graph, file);
+        byte[] bytes = Files.readAllBytes(file);
+
+        // Truncated
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertFormatError(file);
+
+        // Wrong magic
+        bytes[0] = 'X';
+        Files.write(file, bytes);
+        assertFormatError(file);
+
+        // Text format
+        Files.write(file, Files.readAllBytes(Paths.get("test-resources/sample.lsa")));
+        assertFormatError(file);
+
+        // The same edge twice, counted in the header but not in the degrees
+        ByteArrayOutputStream bytesOut = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytesOut);
+        out.writeInt(0x4C534231);
+        out.writeInt(1);
+        out.writeInt(2);
+        out.writeInt(2);
+        out.write(new byte[]{1, 1, 'a', 1, 1, 'b'});
+        out.write(new byte[]{2, 1, 6, 0, 6, 0});
+        Files.write(file, bytesOut.toByteArray());
+        assertFormatError(file);
+
+        // The same name twice
+        bytesOut.reset();
+        out.writeInt(0x4C534231);
+        out.writeInt(1);
+        out.writeInt(2);
+        out.writeInt(0);
+        out.write(new byte[]{0, 1, 'a', 0, 1, 'a', 0, 0});
+        Files.write(file, bytesOut.toByteArray());
+        assertFormatError(file);
+    }
+
+    @Test
+    public void modelTest() throws IOException {
+        Path file = Files.createTempFile("graph", ".LSB");
+        file.toFile().deleteOnExit();
+
+        GraphTreeModel model = new GraphTreeModel();
+        assertTrue(model.loadFile("test-resources/sample.lsa"));
+        assertTrue(model.saveFile(file.toString()));
+        assertEquals(LsbFormat.read(file).getAllNodes(), model.getGraph().getAllNodes());
+
+        model.clearGraph();
+        assertTrue(model.loadFile(file.toString()));
+        assertEquals(7, model.getGraph().getAllNodes().size());
+        assertEquals(2, model.getGraph().getDistance("t", "u"));
+        assertFalse(model.loadFile("test-resources/sample.lsa" + LsbFormat.EXTENSION));
+    }
+
+    private static void assertFormatError(Path file) {
+        try {
+            LsbFormat.read(file);
+            fail("Format error expected");
+        } catch (IOException ex) {
+            assertEquals("The LSB graph does not have a correct format.", ex.getMessage());
+        }
+        try {
+            LsbFormat.readSnapshot(file);
+            fail("Format error expected");
+        } catch (IOException ex) {
+            assertEquals("The LSB graph does not have a correct format.", ex.getMessage());
+        }
+    }
+}
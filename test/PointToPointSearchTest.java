@@ -0,0 +1,83 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PointToPointSearchTest {
+
+    @Test
+    public void sampleTest() throws IOException {
+        Graph graph = Graph.fromFile("test-resources/sample.lsa");
+        graph.addNode("isolated");
+        GraphSnapshot snapshot = graph.snapshot();
+        RoutingTable table = RoutingTable.computeAll(snapshot, 1);
+
+        for (String source : graph.getAllNodes()) {
+            for (String target : graph.getAllNodes()) {
+                PointToPointSearch[] searches = {
+                        PointToPointSearch.shortestPath(snapshot, source, target),
+                        PointToPointSearch.bidirectionalShortestPath(snapshot, source, target)
+                };
+                for (PointToPointSearch search : searches) {
+                    assertEquals(table.getDistance(source, target), search.getDistance());
+                    assertPath(graph, source, target, search);
+                }
+            }
+        }
+
+        PointToPointSearch search = PointToPointSearch.bidirectionalShortestPath(snapshot, "t", "z");
+        assertEquals(15, search.getDistance());
+        assertEquals(Arrays.asList("t", "v", "x", "z"), search.getChain());
+        assertEquals(Collections.singletonList("t"), PointToPointSearch.shortestPath(snapshot, "t", "t").getChain());
+        assertEquals(Collections.emptyList(), PointToPointSearch.shortestPath(snapshot, "t", "isolated").getChain());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void missingNodeTest() throws IOException {
+        GraphSnapshot snapshot = Graph.fromFile("test-resources/sample.lsa").snapshot();
+        PointToPointSearch.shortestPath(snapshot, "t", "missing");
+    }
+
+    @Test
+    public void largeGraphTest() {
+        Graph graph = TopologyGenerator.grid(200, 200).toGraph(TopologyGenerator.Weights.uniform(1, 9), 3);
+        GraphSnapshot snapshot = graph.snapshot();
+        PointToPointSearch search = new PointToPointSearch(snapshot, IndexedDaryHeap::new);
+        ShortestPathSearch full = new ShortestPathSearch(snapshot, IndexedDaryHeap::new, false);
+
+        int[][] queries = {{20100, 22130}, {5123, 6150}, {15050, 17080}, {30150, 32120}};
+        for (int[] query : queries) {
+            full.reset(query[0]);
+            full.run();
+
+            assertTrue(search.search(query[0], query[1]));
+            assertEquals(full.getDistance(query[1]), search.getDistance());
+            int unidirectional = search.getVisitedCount();
+            assertTrue(unidirectional < full.getStepCount() / 4);
+
+            assertTrue(search.searchBidirectional(query[0], query[1]));
+            assertEquals(full.getDistance(query[1]), search.getDistance());
+            assertTrue(search.getVisitedCount() < unidirectional);
+            assertPath(graph, snapshot.getName(query[0]), snapshot.getName(query[1]), search);
+        }
+    }
+
+    private static void assertPath(Graph graph, String source, String target, PointToPointSearch search) {
+        List<String> chain = search.getChain();
+        if (search.getDistance() < 0) {
+            assertTrue(chain.isEmpty());
+            return;
+        }
+        assertEquals(source, chain.get(0));
+        assertEquals(target, chain.get(chain.size() - 1));
+        int distance = 0;
+        for (int i = 1; i < chain.size(); i++) {
+            distance += graph.getDistance(chain.get(i - 1), chain.get(i));
+        }
+        assertEquals(search.getDistance(), distance);
+    }
+}
@@ -0,0 +1,93 @@
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class RouteCacheTest {
+
+    @Test
+    public void hitAndMissTest() throws IOException {
+        Graph graph = Graph.fromFile("test-resources/sample.lsa");
+        RouteCache cache = new RouteCache(2);
+
+        ShortestPathTree result = cache.get(graph, "t");
+        assertSame(result, cache.get(graph, "t"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(15, result.distance("z"));
+
+        // Modifying the graph drops the stale results
+        long version = graph.getVersion();
+        graph.setEdge("x", "z", 1);
+        assertTrue(graph.getVersion() > version);
+        assertEquals(8, cache.get(graph, "t").distance("z"));
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1, cache.size());
+
+        // Failed modification keeps the version
+        version = graph.getVersion();
+        assertFalse(graph.addNode("x"));
+        assertEquals(version, graph.getVersion());
+
+        // Least recently used result is evicted
+        cache.get(graph, "u");
+        cache.get(graph, "t");
+        cache.get(graph, "v");
+        assertEquals(2, cache.size());
+        cache.get(graph, "t");
+        assertEquals(3, cache.getHitCount());
+        cache.get(graph, "u");
+        assertEquals(5, cache.getMissCount());
+
+        // Another graph does not share results
+        Graph other = Graph.fromFile("test-resources/sample.lsa");
+        assertEquals(15, cache.get(other, "t").distance("z"));
+        cache.invalidate();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void treeModelInvalidationTest() {
+        GraphTreeModel model = new GraphTreeModel();
+        model.addNode("A");
+        model.addNode("B");
+        model.addLink("A", "B", 3);
+        RouteCache cache = model.getRouteCache();
+
+        assertEquals(3, cache.get(model.getGraph(), "A").distance("B"));
+        assertEquals(1, cache.size());
+        model.addLink("A", "B", 4);
+        assertEquals(0, cache.size());
+        assertEquals(4, cache.get(model.getGraph(), "A").distance("B"));
+        model.clearGraph();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void getIfPresentTest() throws IOException {
+        Graph graph = Graph.fromFile("test-resources/sample.lsa");
+        RouteCache cache = new RouteCache(2);
+        assertNull(cache.getIfPresent(graph, "t"));
+        assertEquals(1, cache.getMissCount());
+
+        // A result computed step by step is served afterwards
+        DijkstraAlgorithm dijkstra = new DijkstraAlgorithm(graph, "t");
+        int steps = 0;
+        for (VisitedNodeInfo ignored : dijkstra) {
+            steps++;
+            assertEquals(steps, dijkstra.getVisitedCount());
+            assertTrue(dijkstra.getDiscoveredCount() >= dijkstra.getVisitedCount());
+        }
+        assertEquals(7, dijkstra.getDiscoveredCount());
+        ShortestPathTree tree = dijkstra.getFinalResult().toShortestPathTree();
+        cache.put(graph, "t", tree);
+        assertSame(tree, cache.get(graph, "t"));
+        assertEquals(15, tree.distance("z"));
+        assertEquals(1, cache.getHitCount());
+
+        graph.setEdge("x", "z", 1);
+        assertNull(cache.getIfPresent(graph, "t"));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,67 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class RouterActorsTest {
+
+    @Test
+    public void convergenceTest() throws IOException, InterruptedException {
+        Graph graph = Graph.fromFile("test-resources/sample.lsa");
+        try (RouterActors actors = new RouterActors(graph, 1)) {
+            actors.start();
+            assertTrue(actors.awaitConvergence(10, TimeUnit.SECONDS));
+            assertEquals(7, actors.getRouterCount());
+            assertEquals(7, actors.getConvergedCount());
+            assertTrue(actors.getMessageCount() > 0);
+            assertTrue(actors.getConvergenceTime("t") >= 0);
+            assertEquals(15, actors.getDistance("t", "z"));
+            assertEquals(0, actors.getDistance("t", "t"));
+
+            // Every router is listed once in order of convergence
+            Set<String> listed = new HashSet<>();
+            for (int rank = 0; rank < 7; rank++) {
+                String router = actors.getConvergedRouter(rank);
+                assertTrue(listed.add(router));
+                assertTrue(actors.getConvergenceTime(router) >= 0);
+            }
+            assertEquals(graph.getAllNodes(), listed);
+        }
+    }
+
+    @Test
+    public void disconnectedTest() throws IOException, InterruptedException {
+        Graph graph = Graph.fromFile("test-resources/sample.lsa");
+        graph.addNode("isolated");
+        try (RouterActors actors = new RouterActors(graph, RouterActors.DEFAULT_MAILBOX_CAPACITY)) {
+            actors.start();
+            // The actors go quiet, but no router knows every router
+            assertTrue(actors.awaitConvergence(10, TimeUnit.SECONDS));
+            assertEquals(8, actors.getRouterCount());
+            assertEquals(0, actors.getConvergedCount());
+            assertEquals(-1, actors.getConvergenceTime("t"));
+            assertEquals(-1, actors.getConvergenceTime("isolated"));
+            assertEquals(-1, actors.getDistance("t", "isolated"));
+            assertEquals(15, actors.getDistance("t", "z"));
+        }
+    }
+
+    @Test
+    public void manyRoutersTest() throws InterruptedException {
+        Graph graph = TopologyGenerator.barabasiAlbert(500, 2).toGraph(TopologyGenerator.Weights.uniform(1, 9), 5);
+        RoutingTable table = RoutingTable.computeAll(graph.snapshot(), 1);
+        try (RouterActors actors = new RouterActors(graph, RouterActors.DEFAULT_MAILBOX_CAPACITY)) {
+            actors.start();
+            assertTrue(actors.awaitConvergence(60, TimeUnit.SECONDS));
+            assertEquals(500, actors.getConvergedCount());
+            for (int i = 1; i < 500; i += 37) {
+                assertEquals(table.getDistance("r0", "r" + i), actors.getDistance("r0", "r" + i));
+                assertEquals(table.getDistance("r" + i, "r3"), actors.getDistance("r" + i, "r3"));
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class RoutingTableTest {
+
+    @Test
+    public void allSourcesTest() throws IOException {
+        Graph graph = Graph.fromFile("test-resources/sample.lsa");
+        graph.addNode("isolated");
+        GraphSnapshot snapshot = graph.snapshot();
+        RoutingTable table = RoutingTable.computeAll(snapshot, 4);
+
+        assertEquals(8, table.getSourceCount());
+        for (String source : graph.getAllNodes()) {
+            VisitedNodeInfo result = new DijkstraAlgorithm(snapshot, source).computeFinalResult();
+            for (String node : graph.getAllNodes()) {
+                assertEquals(result.distance(node), table.getDistance(source, node));
+                if (node.equals(source) || result.distance(node) < 0) continue;
+
+                // The next hop must lie on a shortest path
+                String nextHop = table.getNextHop(source, node);
+                assertEquals(result.distance(node),
+                        graph.getDistance(source, nextHop) + table.getDistance(nextHop, node));
+            }
+        }
+        assertEquals("v", table.getNextHop("t", "z"));
+        assertEquals("t", table.getNextHop("t", "t"));
+        assertNull(table.getNextHop("t", "isolated"));
+        assertEquals(-1, table.getDistance("isolated", "t"));
+    }
+
+    @Test
+    public void selectedSourcesTest() throws IOException {
+        GraphSnapshot snapshot = Graph.fromFile("test-resources/sample.lsa").snapshot();
+        RoutingTable table = RoutingTable.compute(snapshot, Arrays.asList("z", "u"), 2);
+
+        assertEquals(2, table.getSourceCount());
+        assertEquals(0, table.rowOf("z"));
+        assertEquals(-1, table.rowOf("t"));
+        assertEquals(15, table.getDistance("z", "t"));
+        assertEquals(-1, table.getDistance("t", "z"));
+    }
+
+    @Test
+    public void packedRowTest() {
+        // More links than one byte can rank, and distances wider than two bytes
+        Graph graph = new Graph();
+        graph.addNode("hub");
+        for (int i = 0; i < 300; i++) {
+            graph.addNode("n" + i);
+            graph.setEdge("hub", "n" + i, 1 + i * 1000);
+        }
+        graph.setEdge("n299", "n0", 1);
+        graph.addNode("isolated");
+        GraphSnapshot snapshot = graph.snapshot();
+        RoutingTable table = RoutingTable.computeAll(snapshot, 2);
+
+        for (String source : new String[]{"hub", "n0", "n150"}) {
+            VisitedNodeInfo result = new DijkstraAlgorithm(snapshot, source).computeFinalResult();
+            for (String node : graph.getAllNodes()) {
+                assertEquals(result.distance(node), table.getDistance(source, node));
+            }
+        }
+        assertEquals("n0", table.getNextHop("hub", "n299"));
+        assertEquals(2, table.getDistance("hub", "n299"));
+        assertEquals("n150", table.getNextHop("hub", "n150"));
+        assertEquals(150001, table.getDistance("hub", "n150"));
+        assertNull(table.getNextHop("hub", "isolated"));
+    }
+
+    @Test
+    public void writeRowTest() throws IOException {
+        GraphSnapshot snapshot = Graph.fromFile("test-resources/sample.lsa").snapshot();
+        RoutingTable table = RoutingTable.compute(snapshot, Arrays.asList("t"), 1);
+        int[] nodes = {snapshot.indexOf("z"), snapshot.indexOf("t"), snapshot.indexOf("u")};
+
+        StringBuilder text = new StringBuilder();
+        table.writeRow(text, 0, nodes, false);
+        assertEquals("Router t:\n    z: Next hop: v Cost: 15\n    u: Next hop: u Cost: 2\n", text.toString());
+        StringBuilder csv = new StringBuilder();
+        table.writeRow(csv, 0, nodes, true);
+        assertEquals("t,z,v,15\nt,u,u,2\n", csv.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidSourceTest() throws IOException {
+        GraphSnapshot snapshot = Graph.fromFile("test-resources/sample.lsa").snapshot();
+        RoutingTable.compute(snapshot, Arrays.asList("z", "A"), 2);
+    }
+}
@@ -0,0 +1,104 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ShortestPathDagTest {
+
+    @Test
+    public void sampleTest() throws IOException {
+        Graph graph = Graph.fromFile("test-resources/sample.lsa");
+        graph.addNode("isolated");
+        graph.setEdge("u", "x", 5);
+        ShortestPathDag dag = new DijkstraAlgorithm(graph, "t").computeShortestPathDag();
+
+        // x is reached by t v x and t u x at cost 7, so z inherits both first hops
+        assertEquals(7, dag.getDistance(graph.getNodeTable().indexOf("x")));
+        assertEquals(2, dag.getPathCount("x"));
+        assertEquals(Arrays.asList("u", "v"), sorted(dag.getNextHops("x")));
+        assertEquals(2, dag.getPathCount("z"));
+        assertEquals(Arrays.asList("u", "v"), sorted(dag.getNextHops("z")));
+        // y is reached directly at cost 7 only
+        assertEquals(1, dag.getPathCount("y"));
+        assertEquals(Collections.singletonList("y"), dag.getNextHops("y"));
+
+        assertEquals(1, dag.getPathCount("t"));
+        assertEquals(Collections.emptyList(), dag.getNextHops("t"));
+        assertEquals(0, dag.getPathCount("isolated"));
+        assertEquals(Collections.emptyList(), dag.getNextHops("isolated"));
+    }
+
+    @Test
+    public void closTest() {
+        int spines = 100;
+        int leaves = 400;
+        Graph graph = TopologyGenerator.clos(spines, leaves).toGraph(TopologyGenerator.Weights.constant(1), 1);
+        ShortestPathDag dag = new DijkstraAlgorithm(graph, "r" + spines).computeShortestPathDag();
+
+        int leaf = spines + leaves - 1;
+        assertEquals(2, dag.getDistance(leaf));
+        assertEquals(spines, dag.getPathCount(leaf));
+        assertEquals(spines, dag.getFirstHopCount(leaf));
+        assertEquals(spines, dag.predecessorEnd(leaf) - dag.predecessorStart(leaf));
+        int[] hops = dag.getFirstHops(leaf);
+        for (int spine = 0; spine < spines; spine++) {
+            assertEquals(spine, hops[spine]);
+        }
+
+        // A spine is only reached over its own link
+        assertEquals(1, dag.getPathCount(7));
+        assertArrayEquals(new int[]{7}, dag.getFirstHops(7));
+    }
+
+    @Test
+    public void gridTest() {
+        // Paths of a unit grid from a corner only go right and down, so they are counted by binomials
+        int size = 30;
+        Graph graph = TopologyGenerator.grid(size, size).toGraph(TopologyGenerator.Weights.constant(1), 1);
+        ShortestPathDag dag = new DijkstraAlgorithm(graph, "r0").computeShortestPathDag();
+
+        assertEquals(binomial(6, 3), dag.getPathCount(3 * size + 3));
+        assertEquals(binomial(2 * size - 2, size - 1), dag.getPathCount(size * size - 1));
+        assertArrayEquals(new int[]{1, size}, dag.getFirstHops(size * size - 1));
+        assertArrayEquals(new int[]{1}, dag.getFirstHops(size - 1));
+
+        // Counts saturate instead of overflowing
+        Graph large = TopologyGenerator.grid(40, 40).toGraph(TopologyGenerator.Weights.constant(1), 1);
+        assertEquals(Long.MAX_VALUE, new DijkstraAlgorithm(large, "r0").computeShortestPathDag().getPathCount(1599));
+    }
+
+    @Test
+    public void zeroDistanceTest() {
+        Graph graph = new Graph();
+        for (String node : new String[]{"a", "b", "c", "d"}) {
+            graph.addNode(node);
+        }
+        graph.setEdge("a", "b", 1);
+        graph.setEdge("a", "c", 1);
+        graph.setEdge("b", "c", 0);
+        graph.setEdge("c", "d", 1);
+
+        ShortestPathDag dag = new DijkstraAlgorithm(graph, "a").computeShortestPathDag();
+        assertEquals(2, dag.getDistance(graph.getNodeTable().indexOf("d")));
+        assertTrue(dag.getPathCount("d") >= 1);
+        assertTrue(dag.getNextHops("d").contains("c"));
+        assertTrue(Arrays.asList("b", "c").containsAll(dag.getNextHops("d")));
+    }
+
+    private static List<String> sorted(List<String> list) {
+        Collections.sort(list);
+        return list;
+    }
+
+    private static long binomial(int n, int k) {
+        long result = 1;
+        for (int i = 1; i <= k; i++) {
+            result = result * (n - k + i) / i;
+        }
+        return result;
+    }
+}
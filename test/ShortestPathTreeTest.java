@@ -0,0 +1,86 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+
+import static org.junit.Assert.*;
+
+public class ShortestPathTreeTest {
+
+    @Test
+    public void sampleTest() throws IOException {
+        Graph graph = Graph.fromFile("test-resources/sample.lsa");
+        graph.addNode("isolated");
+        VisitedNodeInfo result = new DijkstraAlgorithm(graph, "t").computeFinalResult();
+        ShortestPathTree tree = result.toShortestPathTree();
+
+        assertEquals(7, tree.getReachedCount());
+        assertEquals(3, tree.getMaxDepth());
+        for (String node : graph.getAllNodes()) {
+            assertEquals(result.distance(node), tree.distance(node));
+            assertEquals(result.getChain(node), tree.getChain(node));
+        }
+        assertEquals(Arrays.asList("t", "v", "x", "z"), tree.getChain("z"));
+        assertEquals(Collections.emptyList(), tree.getChain("isolated"));
+        assertEquals(-1, tree.getDepth(graph.getNodeTable().indexOf("isolated")));
+
+        int[] buffer = new int[tree.getMaxDepth() + 1];
+        int z = graph.getNodeTable().indexOf("z");
+        assertEquals(4, tree.getPath(z, buffer));
+        assertEquals(graph.getNodeTable().indexOf("x"), buffer[2]);
+        assertEquals(0, tree.getPath(graph.getNodeTable().indexOf("isolated"), buffer));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shortBufferTest() throws IOException {
+        Graph graph = Graph.fromFile("test-resources/sample.lsa");
+        ShortestPathTree tree = new DijkstraAlgorithm(graph, "t").computeFinalResult().toShortestPathTree();
+        tree.getPath(graph.getNodeTable().indexOf("z"), new int[3]);
+    }
+
+    @Test
+    public void stepTest() throws IOException {
+        Graph graph = Graph.fromFile("test-resources/sample.lsa");
+        Iterator<VisitedNodeInfo> iterator = new DijkstraAlgorithm(graph, "t").iterator();
+        iterator.next();
+        VisitedNodeInfo second = iterator.next();
+        while (iterator.hasNext()) {
+            iterator.next();
+        }
+
+        // The tree of an old step only holds the nodes visited up to that step
+        ShortestPathTree tree = second.toShortestPathTree();
+        assertEquals(2, tree.getReachedCount());
+        assertEquals(Arrays.asList("t", "u"), tree.getChain("u"));
+        assertEquals(-1, tree.distance("z"));
+    }
+
+    @Test
+    public void pathCursorTest() {
+        Graph graph = TopologyGenerator.grid(100, 100).toGraph(TopologyGenerator.Weights.uniform(1, 9), 11);
+        ShortestPathTree tree = new DijkstraAlgorithm(graph, "r0").computeFinalResult().toShortestPathTree();
+        GraphSnapshot snapshot = tree.getGraph();
+
+        ShortestPathTree.PathCursor paths = tree.paths();
+        int count = 0;
+        int lastDistance = 0;
+        while (paths.next()) {
+            count++;
+            assertTrue(paths.getDistance() >= lastDistance);
+            lastDistance = paths.getDistance();
+            assertEquals(tree.getDepth(paths.getNode()) + 1, paths.getLength());
+            assertEquals(0, paths.getPathNode(0));
+            assertEquals(paths.getNode(), paths.getPathNode(paths.getLength() - 1));
+
+            int distance = 0;
+            for (int i = 1; i < paths.getLength(); i++) {
+                distance += snapshot.getDistance(paths.getPathNode(i - 1), paths.getPathNode(i));
+            }
+            assertEquals(paths.getDistance(), distance);
+        }
+        assertEquals(10000, count);
+        assertFalse(paths.next());
+    }
+}
@@ -0,0 +1,63 @@
+import org.junit.Test;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SourceSelectionModelTest {
+
+    @Test
+    public void prefixTest() {
+        GraphTreeModel graphModel = new GraphTreeModel();
+        for (String node : new String[]{"r1", "r10", "r2", "a", "s"}) {
+            graphModel.addNode(node);
+        }
+        SourceSelectionModel model = new SourceSelectionModel(graphModel);
+        List<String> events = new ArrayList<>();
+        model.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                events.add("+" + e.getIndex0());
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+                events.add("-" + e.getIndex0());
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+            }
+        });
+        assertEquals(5, model.getSize());
+
+        model.setPrefix("r1");
+        assertEquals(2, model.getSize());
+        assertEquals("r1", model.getElementAt(0));
+        assertEquals("r10", model.getElementAt(1));
+        model.setPrefix("q");
+        assertEquals(0, model.getSize());
+        model.setPrefix("r");
+        assertEquals(3, model.getSize());
+        events.clear();
+
+        // The range follows the modifications of the graph
+        graphModel.addNode("b");
+        graphModel.addNode("r11");
+        graphModel.addNode("t");
+        assertEquals("[+2]", events.toString());
+        assertEquals("r11", model.getElementAt(2));
+        assertEquals("r2", model.getElementAt(3));
+        graphModel.removeNode("a");
+        graphModel.removeNode("r1");
+        assertEquals("[+2, -0]", events.toString());
+        assertEquals(3, model.getSize());
+        assertEquals("r10", model.getElementAt(0));
+
+        graphModel.clearGraph();
+        assertEquals(0, model.getSize());
+    }
+}
@@ -0,0 +1,83 @@
+import org.junit.Test;
+
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StatusLogTest {
+
+    @Test
+    public void appendTest() throws IOException {
+        StatusLog log = new StatusLog(4);
+        List<String> events = new ArrayList<>();
+        log.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                events.add("+" + e.getIndex0() + "-" + e.getIndex1());
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+                events.add("-" + e.getIndex0() + "-" + e.getIndex1());
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+                events.add("*");
+            }
+        });
+
+        // Lines are shown once terminated and flushed, in one event per batch
+        log.append("a\nb");
+        log.append("c\n\nd\n");
+        assertEquals(0, log.getSize());
+        log.flush();
+        assertEquals(4, log.getSize());
+        assertEquals("bc", log.getElementAt(1));
+        assertEquals("", log.getElementAt(2));
+        assertEquals("[+0-3]", events.toString());
+
+        // The oldest lines are dropped once full
+        log.append("e\nf\ng\n");
+        log.flush();
+        assertEquals(4, log.getSize());
+        assertEquals("d", log.getElementAt(0));
+        assertEquals("g", log.getElementAt(3));
+        assertEquals("[+0-3, -0-2, +1-3]", events.toString());
+
+        log.append("h\ni");
+        StringWriter writer = new StringWriter();
+        log.writeTo(writer);
+        assertEquals("e\nf\ng\nh\ni", writer.toString());
+
+        log.clear();
+        assertEquals(0, log.getSize());
+        log.flush();
+        assertEquals(0, log.getSize());
+    }
+
+    @Test
+    public void longestLineTest() {
+        StatusLog log = new StatusLog(2);
+        assertEquals("", log.getLongestLine());
+
+        // The longest line is kept even once dropped, and forgotten on clear
+        log.append("short\na much longer line\nmid\n");
+        log.flush();
+        assertEquals("a much longer line", log.getLongestLine());
+        log.append("x\ny\n");
+        log.flush();
+        assertEquals("a much longer line", log.getLongestLine());
+
+        log.clear();
+        assertEquals("", log.getLongestLine());
+        log.append("z\n");
+        log.flush();
+        assertEquals("z", log.getLongestLine());
+    }
+}
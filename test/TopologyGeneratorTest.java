@@ -0,0 +1,84 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class TopologyGeneratorTest {
+
+    @Test
+    public void linkCountTest() {
+        TopologyGenerator.Weights weights = TopologyGenerator.Weights.constant(1);
+
+        assertEquals(3 * 4 + 4 * 3, linkCount(TopologyGenerator.grid(4, 4).toGraph(weights, 1)));
+        assertEquals(2 * 4 * 5, linkCount(TopologyGenerator.torus(4, 5).toGraph(weights, 1)));
+        assertEquals(6 * 10 + 6, linkCount(TopologyGenerator.ringOfCliques(6, 5).toGraph(weights, 1)));
+        assertEquals(3 + (100 - 3) * 2, linkCount(TopologyGenerator.barabasiAlbert(100, 2).toGraph(weights, 1)));
+        assertEquals(4 * 16, linkCount(TopologyGenerator.clos(4, 16).toGraph(weights, 1)));
+
+        Graph graph = TopologyGenerator.ringOfCliques(6, 5).toGraph(weights, 1);
+        assertEquals(30, graph.getAllNodes().size());
+        assertTrue(graph.hasEdge("r0", "r29"));
+        assertTrue(graph.hasEdge("r4", "r5"));
+        assertFalse(graph.hasEdge("r0", "r5"));
+    }
+
+    @Test
+    public void geometricTest() {
+        double radius = 0.1;
+        Graph graph = TopologyGenerator.geometric(2000, radius).toGraph(TopologyGenerator.Weights.length(1000), 7);
+        Graph waxman = TopologyGenerator.waxman(300, 0.5, 0.2).toGraph(TopologyGenerator.Weights.length(1000), 7);
+
+        // Length based distances never exceed the radius
+        int[] maxDistance = {0};
+        for (int node = 0; node < 2000; node++) {
+            graph.forEachNeighbor(node, (linked, distance) -> maxDistance[0] = Math.max(maxDistance[0], distance));
+        }
+        assertTrue(maxDistance[0] <= 100);
+
+        // About n^2 / 2 * pi * r^2 links, less at the borders
+        int links = linkCount(graph);
+        assertTrue(links > 40000 && links < 63000);
+        assertTrue(linkCount(waxman) > 0);
+    }
+
+    @Test
+    public void streamTest() throws IOException {
+        TopologyGenerator generator = TopologyGenerator.barabasiAlbert(500, 3);
+        TopologyGenerator.Weights weights = TopologyGenerator.Weights.exponential(20);
+
+        // Same seed, same topology
+        StringWriter text = new StringWriter();
+        generator.writeTo(text, weights, 42);
+        StringWriter again = new StringWriter();
+        generator.writeTo(again, weights, 42);
+        assertEquals(text.toString(), again.toString());
+
+        Path file = Files.createTempFile("graph", ".lsa");
+        file.toFile().deleteOnExit();
+        Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+        Graph parsed = Graph.fromFile(file.toString());
+        Graph graph = generator.toGraph(weights, 42);
+
+        assertEquals(graph.getAllNodes(), parsed.getAllNodes());
+        for (String node : graph.getAllNodes()) {
+            assertEquals(graph.getEdgesOfNode(node), parsed.getEdgesOfNode(node));
+            for (String linked : graph.getEdgesOfNode(node)) {
+                assertEquals(graph.getDistance(node, linked), parsed.getDistance(node, linked));
+                assertTrue(graph.getDistance(node, linked) >= 1);
+            }
+        }
+    }
+
+    private static int linkCount(Graph graph) {
+        int count = 0;
+        for (int node = 0; node < graph.getNodeTable().capacity(); node++) {
+            count += graph.degree(node);
+        }
+        return count / 2;
+    }
+}